@@ -653,6 +653,15 @@ export class MapComponent implements OnInit, OnDestroy, DoCheck, OnChanges {
     let pawns: Pawn[] = event['pawns'];
 
     let oldPawns = this.serversPawns[serverId] || [];
+    if (event['delta']) {
+      // only the added/moved pawns (and the UUIDs of removed pawns) were sent, so apply them to the pawns we already have
+      let removedPawnUuids = new Set<string>(event['removedPawnUuids'] || []);
+      let changedPawnUuids = new Set(pawns.map(pawn => pawn.uuid!));
+      pawns = oldPawns
+          .filter(pawn => !removedPawnUuids.has(pawn.uuid!) && !changedPawnUuids.has(pawn.uuid!))
+          .concat(pawns);
+    }
+
     let oldPawnIds = new Set(oldPawns.map(pawn => pawn.id!));
     this.serversPawns[serverId] = pawns;
 
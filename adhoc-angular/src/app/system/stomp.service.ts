@@ -33,6 +33,8 @@ export class StompService {
 
   private client?: Client;
   private eventListeners: { [key: string]: Subject<object> } = {};
+  // sequence number of the latest event received, so after reconnecting we only need to be sent the events we missed
+  private lastSequence?: string;
 
   constructor(private csrfService: CsrfService) {
   }
@@ -83,7 +85,12 @@ export class StompService {
     //console.log("Stomp connected");
     //console.log(frame);
 
-    this.client!.subscribe('/topic/events', message => this.onMessage(message));
+    // wildcard subscription to the global events plus the events of every region and server (as the map shows everything)
+    let headers: { [key: string]: string } = {}
+    if (this.lastSequence) {
+      headers['adhoc-since'] = this.lastSequence;
+    }
+    this.client!.subscribe('/topic/events/#', message => this.onMessage(message), headers);
   }
 
   send(eventType: string, payload: object) {
@@ -99,7 +106,16 @@ export class StompService {
   }
 
   private onMessage(message: Message) {
+    const sequence = message.headers['adhoc-sequence'];
+    if (sequence && (!this.lastSequence || Number(sequence) > Number(this.lastSequence))) {
+      this.lastSequence = sequence;
+    }
     const event = JSON.parse(message.body);
+    if (event['eventType'] === 'EventReplayIncomplete') {
+      // events were missed while disconnected (and can't be replayed) so anything shown or cached may be out of date
+      window.location.reload();
+      return;
+    }
     // let services know the event happened so they can update cached data etc.
     const eventListener = this.eventListeners[event['eventType']];
     if (eventListener) {
@@ -110,7 +126,11 @@ export class StompService {
   }
 
   private onError(error: Frame | CloseEvent) {
-    // TODO
+    // the server closes connections which fall too far behind - reconnect and pick up from the last event received
+    if (error instanceof CloseEvent) {
+      this.client = undefined;
+      setTimeout(() => this.connect(), 1000);
+    }
     //console.warn("Stomp error");
     //console.warn(error);
   }
@@ -25,6 +25,7 @@ package adhoc.area;
 import adhoc.objective.ObjectiveEntity;
 import adhoc.region.RegionEntity;
 import adhoc.server.ServerEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -41,6 +42,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.DynamicInsert;
 import org.hibernate.annotations.DynamicUpdate;
 
@@ -54,6 +57,8 @@ import java.util.List;
  */
 @Entity(name = "Area")
 @Table(uniqueConstraints = @UniqueConstraint(name = "uc_area_region_id_index", columnNames = {"region_id", "index"}))
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "area")
 @DynamicInsert
 @DynamicUpdate
 @NoArgsConstructor
@@ -23,7 +23,10 @@
 package adhoc.area;
 
 import adhoc.region.RegionEntity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.util.Collection;
 import java.util.List;
@@ -31,6 +34,7 @@ import java.util.Optional;
 
 public interface AreaRepository extends JpaRepository<AreaEntity, Long> {
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<AreaEntity> findByRegionAndIndex(RegionEntity region, Integer index);
 
     List<AreaEntity> findByRegionAndIndexNotIn(RegionEntity region, Collection<Integer> indexNotIn);
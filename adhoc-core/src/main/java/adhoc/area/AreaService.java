@@ -23,8 +23,10 @@
 package adhoc.area;
 
 import adhoc.server.ServerEntity;
+import adhoc.system.cache.AdhocCacheConfiguration;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -40,11 +42,13 @@ public class AreaService {
 
     private final AreaRepository areaRepository;
 
+    @Cacheable(cacheNames = AdhocCacheConfiguration.AREA_PAGES)
     @Transactional(readOnly = true)
     public Page<AreaDto> findAreas(Pageable pageable) {
         return areaRepository.findAll(pageable).map(this::toDto);
     }
 
+    @Cacheable(cacheNames = AdhocCacheConfiguration.AREAS)
     @Transactional(readOnly = true)
     public Optional<AreaDto> findArea(Long areaId) {
         return areaRepository.findById(areaId).map(this::toDto);
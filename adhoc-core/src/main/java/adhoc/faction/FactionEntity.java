@@ -22,7 +22,9 @@
 
 package adhoc.faction;
 
+import adhoc.score.ScoreDecayUtils;
 import adhoc.universe.UniverseEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -38,16 +40,23 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.DynamicInsert;
 import org.hibernate.annotations.DynamicUpdate;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 
 /** Each user is associated with a faction. */
 @Entity(name = "Faction")
 @Table(indexes = {
         @Index(name = "idx_faction_score", columnList = "score")
 })
+// scores are also written outside of Hibernate, so whatever writes them must evict the faction caches everywhere
+// (see AdhocCacheEvictionListener.evictEverywhere)
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "faction")
 @DynamicInsert
 @DynamicUpdate
 @NoArgsConstructor
@@ -80,13 +89,18 @@ public class FactionEntity {
     @Column(nullable = false, unique = true)
     private String color;
 
+    /** Score as it was at the time it was last normalised - see {@link ScoreDecayUtils}. */
     @Column(nullable = false)
     private BigDecimal score;
 
+    @Column(nullable = false)
+    private LocalDateTime scoreNormalised;
+
     public FactionEntity(Integer index, String name, String color, double score) {
         this.index = index;
         this.name = name;
         this.color = color;
         this.score = BigDecimal.valueOf(score);
+        this.scoreNormalised = ScoreDecayUtils.normalisedTime(LocalDateTime.now());
     }
 }
@@ -22,11 +22,16 @@
 
 package adhoc.faction;
 
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 public interface FactionRepository extends JpaRepository<FactionEntity, Long> {
@@ -34,13 +39,22 @@ public interface FactionRepository extends JpaRepository<FactionEntity, Long> {
     //@Lock(LockModeType.PESSIMISTIC_WRITE)
     //Optional<FactionEntity> findForUpdateById(Long id);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Optional<FactionEntity> findByIndex(Integer index);
 
+    @Query("select distinct f.scoreNormalised from Faction f where f.scoreNormalised <> ?1")
+    List<LocalDateTime> findDistinctScoreNormalisedByScoreNormalisedNot(LocalDateTime scoreNormalised);
+
+    /** A bulk update (without a version bump) so Hibernate invalidates the cached factions and query results when it commits. */
     @Modifying
-    @Query("update Faction f set f.version = f.version + 1, f.score = f.score + ?1 where f.id = ?2")
-    void updateScoreAddById(BigDecimal scoreAdd, Long id);
+    @Query("update Faction f set f.score = f.score + ?2 where f.id = ?1")
+    int updateScoreAddById(Long id, BigDecimal scoreAdd);
 
     @Modifying
-    @Query("update Faction f set f.version = f.version + 1, f.score = f.score * ?1")
-    void updateScoreMultiply(BigDecimal scoreMultiply);
+    @Query("update Faction f " +
+            "set f.version = f.version + 1, " +
+            "    f.score = f.score * ?1, " +
+            "    f.scoreNormalised = ?2 " +
+            "where f.scoreNormalised = ?3")
+    void updateScoreMultiplyAndScoreNormalisedByScoreNormalised(BigDecimal scoreMultiply, LocalDateTime scoreNormalised, LocalDateTime oldScoreNormalised);
 }
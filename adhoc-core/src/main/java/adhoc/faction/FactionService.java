@@ -22,13 +22,17 @@
 
 package adhoc.faction;
 
+import adhoc.score.ScoreDecayUtils;
+import adhoc.system.cache.AdhocCacheConfiguration;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Service
@@ -39,11 +43,13 @@ public class FactionService {
 
     private final FactionRepository factionRepository;
 
+    @Cacheable(cacheNames = AdhocCacheConfiguration.FACTION_PAGES)
     @Transactional(readOnly = true)
     public Page<FactionDto> findFactions(Pageable pageable) {
         return factionRepository.findAll(pageable).map(this::toDto);
     }
 
+    @Cacheable(cacheNames = AdhocCacheConfiguration.FACTIONS)
     @Transactional(readOnly = true)
     public Optional<FactionDto> findFaction(Long factionId) {
         return factionRepository.findById(factionId).map(this::toDto);
@@ -56,6 +62,6 @@ public class FactionService {
                 faction.getIndex(),
                 faction.getName(),
                 faction.getColor(),
-                faction.getScore());
+                ScoreDecayUtils.decayedScore(faction.getScore(), faction.getScoreNormalised(), LocalDateTime.now()));
     }
 }
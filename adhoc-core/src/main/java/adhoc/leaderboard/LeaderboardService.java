@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.leaderboard;
+
+import adhoc.faction.FactionEntity;
+import adhoc.faction.FactionRepository;
+import adhoc.score.ScoreDecayUtils;
+import adhoc.system.properties.CoreProperties;
+import adhoc.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/** The leaderboard is served from memory (see {@link LeaderboardStore}) so reading it doesn't touch the database. */
+@Service
+@Slf4j
+@RequiredArgsConstructor
+public class LeaderboardService {
+
+    private final CoreProperties coreProperties;
+
+    private final UserRepository userRepository;
+    private final FactionRepository factionRepository;
+
+    private final LeaderboardStore leaderboardStore;
+
+    /** The top users by score, overall or within the given faction. */
+    public List<LeaderboardEntryDto> findLeaderboard(Long factionId) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<LeaderboardEntry> entries = leaderboardStore.getEntries(factionId);
+
+        List<LeaderboardEntryDto> leaderboard = new ArrayList<>(entries.size());
+        for (LeaderboardEntry entry : entries) {
+            leaderboard.add(toDto(leaderboard.size() + 1, entry, now));
+        }
+        return leaderboard;
+    }
+
+    @Transactional(readOnly = true)
+    public void rebuildLeaderboard() {
+        Limit limit = Limit.of(coreProperties.getLeaderboardSize());
+
+        List<LeaderboardEntry> globalEntries = userRepository.findLeaderboardEntries_OrderByScoreDescIdDesc(limit);
+
+        Map<Long, List<LeaderboardEntry>> factionEntries = new HashMap<>();
+        for (FactionEntity faction : factionRepository.findAll()) {
+            factionEntries.put(faction.getId(),
+                    userRepository.findLeaderboardEntriesByFactionId_OrderByScoreDescIdDesc(faction.getId(), limit));
+        }
+
+        leaderboardStore.replaceEntries(globalEntries, factionEntries);
+
+        log.trace("rebuildLeaderboard: globalEntries={} factions={}", globalEntries.size(), factionEntries.size());
+    }
+
+    /** The user's score has changed - should be called once the change is committed. */
+    public void offerLeaderboardEntry(LeaderboardEntry entry) {
+        leaderboardStore.offerEntry(entry);
+    }
+
+    private LeaderboardEntryDto toDto(int rank, LeaderboardEntry entry, LocalDateTime now) {
+        return new LeaderboardEntryDto(
+                rank,
+                entry.getUserId(),
+                entry.getUserName(),
+                entry.isUserHuman(),
+                entry.getFactionId(),
+                ScoreDecayUtils.decayedScore(entry.getScore(), entry.getScoreNormalised(), now));
+    }
+}
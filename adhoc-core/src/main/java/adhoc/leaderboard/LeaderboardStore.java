@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.leaderboard;
+
+import adhoc.score.ScoreDecayUtils;
+import adhoc.system.properties.CoreProperties;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.math.MathContext;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.TreeSet;
+
+/**
+ * In-memory top users by score, overall and for each faction, so the leaderboard can be served without the database.
+ * <p>
+ * Each board is a sorted set bounded to the leaderboard size. Offering each user whose score changed keeps the boards
+ * correct as long as the score went up. When a score goes down (e.g. an admin edit) the user may stay on a board which
+ * someone who was never offered should now be on instead, until the next time the boards are rebuilt from the database
+ * (see {@link LeaderboardService#rebuildLeaderboard()}). The rebuild also picks up the changes which aren't offered,
+ * e.g. those made on other nodes and awards to a whole faction at once.
+ * <p>
+ * All the entries are kept normalised to the same time (see {@link adhoc.score.ScoreDecayUtils}) so they can be ordered
+ * by their scores. When an entry normalised to a later time is offered (i.e. the stored scores have been rebased)
+ * the rest of the entries are rebased the same way.
+ */
+@Component
+@RequiredArgsConstructor
+public class LeaderboardStore {
+
+    // highest score first, then the same order as the users scroll for ties
+    private static final Comparator<LeaderboardEntry> ORDER = Comparator.comparing(LeaderboardEntry::getScore).reversed()
+            .thenComparing(LeaderboardEntry::getUserId, Comparator.reverseOrder());
+
+    private final CoreProperties coreProperties;
+
+    private final NavigableSet<LeaderboardEntry> globalEntries = new TreeSet<>(ORDER);
+    private final Map<Long, NavigableSet<LeaderboardEntry>> factionEntries = new HashMap<>();
+
+    // every entry which is on at least one board
+    private final Map<Long, LeaderboardEntry> userEntries = new HashMap<>();
+
+    // the time all the entries are normalised to
+    private LocalDateTime scoreNormalised;
+
+    public synchronized List<LeaderboardEntry> getEntries(Long factionId) {
+        NavigableSet<LeaderboardEntry> entries = factionId == null ? globalEntries : factionEntries.get(factionId);
+        return entries == null ? List.of() : List.copyOf(entries);
+    }
+
+    public synchronized void replaceEntries(Collection<LeaderboardEntry> newGlobalEntries, Map<Long, ? extends Collection<LeaderboardEntry>> newFactionEntries) {
+        globalEntries.clear();
+        factionEntries.clear();
+        userEntries.clear();
+
+        newGlobalEntries.forEach(this::offerEntry);
+        newFactionEntries.values().forEach(entries -> entries.forEach(this::offerEntry));
+    }
+
+    /** The user's score has changed. */
+    public synchronized void offerEntry(LeaderboardEntry entry) {
+        if (scoreNormalised == null || entry.getScoreNormalised().isAfter(scoreNormalised)) {
+            rebaseEntries(entry.getScoreNormalised());
+        }
+        entry = rebase(entry, scoreNormalised);
+
+        LeaderboardEntry oldEntry = userEntries.remove(entry.getUserId());
+        if (oldEntry != null) {
+            globalEntries.remove(oldEntry);
+            factionEntries(oldEntry.getFactionId()).remove(oldEntry);
+        }
+
+        userEntries.put(entry.getUserId(), entry);
+        addBounded(globalEntries, entry);
+        addBounded(factionEntries(entry.getFactionId()), entry);
+    }
+
+    private void rebaseEntries(LocalDateTime newScoreNormalised) {
+        scoreNormalised = newScoreNormalised;
+
+        // as every score is multiplied by the same factor the boards keep the same users
+        List<LeaderboardEntry> oldGlobalEntries = List.copyOf(globalEntries);
+        globalEntries.clear();
+        oldGlobalEntries.forEach(entry -> globalEntries.add(rebase(entry, newScoreNormalised)));
+
+        factionEntries.replaceAll((factionId, oldEntries) -> {
+            NavigableSet<LeaderboardEntry> entries = new TreeSet<>(ORDER);
+            oldEntries.forEach(entry -> entries.add(rebase(entry, newScoreNormalised)));
+            return entries;
+        });
+
+        userEntries.replaceAll((userId, entry) -> rebase(entry, newScoreNormalised));
+    }
+
+    private static LeaderboardEntry rebase(LeaderboardEntry entry, LocalDateTime newScoreNormalised) {
+        if (entry.getScoreNormalised().equals(newScoreNormalised)) {
+            return entry;
+        }
+        return new LeaderboardEntry(entry.getUserId(), entry.getUserName(), entry.isUserHuman(), entry.getFactionId(),
+                entry.getScore().multiply(ScoreDecayUtils.decayFactor(entry.getScoreNormalised(), newScoreNormalised), MathContext.DECIMAL64),
+                newScoreNormalised);
+    }
+
+    private NavigableSet<LeaderboardEntry> factionEntries(Long factionId) {
+        return factionEntries.computeIfAbsent(factionId, id -> new TreeSet<>(ORDER));
+    }
+
+    private void addBounded(NavigableSet<LeaderboardEntry> entries, LeaderboardEntry entry) {
+        entries.add(entry);
+
+        List<LeaderboardEntry> droppedEntries = new ArrayList<>();
+        while (entries.size() > coreProperties.getLeaderboardSize()) {
+            droppedEntries.add(entries.pollLast());
+        }
+
+        for (LeaderboardEntry droppedEntry : droppedEntries) {
+            if (!globalEntries.contains(droppedEntry) && !factionEntries(droppedEntry.getFactionId()).contains(droppedEntry)) {
+                userEntries.remove(droppedEntry.getUserId(), droppedEntry);
+            }
+        }
+    }
+}
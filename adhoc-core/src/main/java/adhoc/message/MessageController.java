@@ -23,6 +23,7 @@
 package adhoc.message;
 
 import adhoc.system.auth.AdhocUserDetails;
+import adhoc.system.keyset.KeysetPageDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
@@ -32,6 +33,7 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.Optional;
@@ -57,6 +59,21 @@ public class MessageController {
         return messageService.findMessages(optionalUserId, pageable);
     }
 
+    @GetMapping("/messages/scroll")
+    public KeysetPageDto<MessageDto> getMessagesScroll(@RequestParam(required = false) String after,
+                                                       @RequestParam(defaultValue = "20") int size,
+                                                       Authentication authentication) {
+
+        Optional<Long> optionalUserId;
+        if (authentication != null && authentication.getPrincipal() instanceof AdhocUserDetails userDetails) {
+            optionalUserId = Optional.of(userDetails.getUserId());
+        } else {
+            optionalUserId = Optional.empty();
+        }
+
+        return messageService.findMessagesNewestFirst(optionalUserId, after, size);
+    }
+
     @GetMapping("/messages/{messageId}")
     public ResponseEntity<MessageDto> getMessage(Long messageId, Authentication authentication) {
 
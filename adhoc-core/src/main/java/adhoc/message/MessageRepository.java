@@ -22,17 +22,25 @@
 
 package adhoc.message;
 
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 
+import java.util.List;
 import java.util.Optional;
 
 public interface MessageRepository extends JpaRepository<MessageEntity, Long> {
 
     Page<MessageEntity> findByUserNullOrUserId(Long userId, Pageable pageable);
 
+    @Query("select m from Message m where (m.user is null or m.user.id = ?1) order by m.id desc")
+    List<MessageEntity> findBy_UserNullOrUserId_OrderByIdDesc(Long userId, Limit limit);
+
+    @Query("select m from Message m where m.id < ?2 and (m.user is null or m.user.id = ?1) order by m.id desc")
+    List<MessageEntity> findBy_UserNullOrUserId_AndIdLessThanOrderByIdDesc(Long userId, Long idBefore, Limit limit);
+
     @Query("select m from Message m where m.id = ?1 and (m.user is null or m.user.id = ?2)")
     Optional<MessageEntity> findByIdAnd_UserNullOrUserId_(Long id, Long userId);
 }
@@ -22,16 +22,20 @@
 
 package adhoc.message;
 
+import adhoc.system.keyset.KeysetPageDto;
 import adhoc.universe.UniverseRepository;
 import adhoc.universe.UniverseService;
+import com.google.common.base.Preconditions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
 
 @Service
@@ -49,6 +53,27 @@ public class MessageService {
         return messageRepository.findByUserNullOrUserId(optionalUserId.orElse(null), pageable).map(this::toDto);
     }
 
+    /** Messages (newest first) a page at a time - the after cursor is the ID of the last message of the previous page. */
+    @Transactional(readOnly = true)
+    public KeysetPageDto<MessageDto> findMessagesNewestFirst(Optional<Long> optionalUserId, String after, int size) {
+        Preconditions.checkArgument(size >= 1 && size <= 1000, "size must be 1 to 1000: %s", size);
+
+        // one more than asked for, to know whether there is a next page
+        Limit limit = Limit.of(size + 1);
+
+        List<MessageEntity> messages = after == null
+                ? messageRepository.findBy_UserNullOrUserId_OrderByIdDesc(optionalUserId.orElse(null), limit)
+                : messageRepository.findBy_UserNullOrUserId_AndIdLessThanOrderByIdDesc(optionalUserId.orElse(null), Long.valueOf(after), limit);
+
+        String nextAfter = null;
+        if (messages.size() > size) {
+            messages = messages.subList(0, size);
+            nextAfter = messages.getLast().getId().toString();
+        }
+
+        return new KeysetPageDto<>(messages.stream().map(this::toDto).toList(), nextAfter);
+    }
+
     @Transactional(readOnly = true)
     public Optional<MessageDto> findMessage(Long id, Optional<Long> optionalUserId) {
         // TODO
@@ -22,8 +22,10 @@
 
 package adhoc.objective;
 
+import adhoc.system.cache.AdhocCacheConfiguration;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -40,11 +42,13 @@ public class ObjectiveService {
 
     private final ObjectiveRepository objectiveRepository;
 
+    @Cacheable(cacheNames = AdhocCacheConfiguration.OBJECTIVE_PAGES)
     @Transactional(readOnly = true)
     public Page<ObjectiveDto> findObjectives(Pageable pageable) {
         return objectiveRepository.findAll(pageable).map(this::toDto);
     }
 
+    @Cacheable(cacheNames = AdhocCacheConfiguration.OBJECTIVES)
     @Transactional(readOnly = true)
     public Optional<ObjectiveDto> findObjective(Long objectiveId) {
         return objectiveRepository.findById(objectiveId).map(this::toDto);
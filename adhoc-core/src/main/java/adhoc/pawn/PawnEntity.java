@@ -28,12 +28,9 @@ import adhoc.user.UserEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Index;
 import jakarta.persistence.ManyToOne;
-import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import jakarta.persistence.Version;
 import lombok.Getter;
@@ -64,9 +61,8 @@ import java.util.UUID;
 @ToString(onlyExplicitlyIncluded = true)
 public class PawnEntity {
 
+    /** Assigned (from pawn_id_sequence) when the pawn is first reported rather than when it is first written. */
     @Id
-    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "PawnIdSequence")
-    @SequenceGenerator(name = "PawnIdSequence", initialValue = 1, allocationSize = 100)
     @ToString.Include
     private Long id;
 
@@ -22,6 +22,7 @@
 
 package adhoc.pawn;
 
+import adhoc.region.RegionEntity;
 import adhoc.server.ServerEntity;
 import adhoc.user.UserEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
@@ -30,6 +31,7 @@ import org.springframework.data.jpa.repository.Query;
 
 import java.time.LocalDateTime;
 import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -40,8 +42,16 @@ public interface PawnRepository extends JpaRepository<PawnEntity, Long> {
 
     Optional<PawnEntity> findByUuid(UUID uuid);
 
+    List<PawnEntity> findByUuidIn(Collection<UUID> uuids);
+
     Optional<PawnEntity> findFirstByServerAndUserOrderBySeenDescIdDesc(ServerEntity server, UserEntity user);
 
+    List<PawnEntity> findByServerRegionAndHumanFalse(RegionEntity region);
+
+    @Modifying
+    @Query("delete from Pawn p where p.server = ?1")
+    void deleteByServer(ServerEntity server);
+
     @Modifying
     @Query("delete from Pawn p where p.server = ?1 and p.uuid not in ?2")
     void deleteByServerAndUuidNotIn(ServerEntity server, Collection<UUID> uuidNotIn);
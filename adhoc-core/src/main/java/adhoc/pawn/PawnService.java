@@ -22,14 +22,23 @@
 
 package adhoc.pawn;
 
+import com.google.common.base.Preconditions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.function.Function;
 
 @Service
 @Transactional
@@ -37,15 +46,79 @@ import java.util.Optional;
 @RequiredArgsConstructor
 public class PawnService {
 
+    /** Properties the pawns in the {@link PawnStore} can be sorted by. */
+    private static final Map<String, Comparator<PawnDto>> STORE_SORT_PROPERTIES = Map.of(
+            "id", nullsLast(PawnDto::getId),
+            "serverId", nullsLast(PawnDto::getServerId),
+            "index", nullsLast(PawnDto::getIndex),
+            "name", nullsLast(PawnDto::getName),
+            "userId", nullsLast(PawnDto::getUserId),
+            "human", nullsLast(PawnDto::getHuman),
+            "factionId", nullsLast(PawnDto::getFactionId),
+            "factionIndex", nullsLast(PawnDto::getFactionIndex),
+            "seen", nullsLast(PawnDto::getSeen));
+
     private final PawnRepository pawnRepository;
+    private final PawnStore pawnStore;
 
     @Transactional(readOnly = true)
     public Page<PawnDto> findPawns(Pageable pageable) {
+        if (pawnStore.isEnabled()) {
+            return findStorePawns(pageable);
+        }
+
         return pawnRepository.findAll(pageable).map(this::toDto);
     }
 
+    /** Only keeps the pawns up to the end of the requested page, rather than sorting all the pawns in the store. */
+    private Page<PawnDto> findStorePawns(Pageable pageable) {
+        Comparator<PawnDto> comparator = toStoreComparator(pageable.getSort());
+
+        long end = pageable.getOffset() + pageable.getPageSize();
+        Preconditions.checkArgument(end <= Integer.MAX_VALUE, "page is too far along: %s", pageable);
+
+        // the pawns that sort last are at the head so they can be dropped once there are more than needed
+        PriorityQueue<PawnDto> pawns = new PriorityQueue<>(comparator.reversed());
+        pawnStore.streamPawns().forEach(pawn -> {
+            pawns.add(pawn);
+            if (pawns.size() > end) {
+                pawns.poll();
+            }
+        });
+
+        List<PawnDto> sortedPawns = new ArrayList<>(pawns);
+        sortedPawns.sort(comparator);
+
+        List<PawnDto> content = sortedPawns.stream().skip(pageable.getOffset()).toList();
+        return PageableExecutionUtils.getPage(content, pageable, pawnStore::countPawns);
+    }
+
+    private static Comparator<PawnDto> toStoreComparator(Sort sort) {
+        Comparator<PawnDto> comparator = null;
+        for (Sort.Order order : sort) {
+            Comparator<PawnDto> propertyComparator = STORE_SORT_PROPERTIES.get(order.getProperty());
+            Preconditions.checkArgument(propertyComparator != null, "unsupported sort property: %s", order.getProperty());
+            if (order.isDescending()) {
+                propertyComparator = propertyComparator.reversed();
+            }
+            comparator = comparator == null ? propertyComparator : comparator.thenComparing(propertyComparator);
+        }
+
+        // the order is always made unique by the UUID so pages don't overlap
+        Comparator<PawnDto> byUuid = Comparator.comparing(PawnDto::getUuid);
+        return comparator == null ? byUuid : comparator.thenComparing(byUuid);
+    }
+
+    private static <T extends Comparable<? super T>> Comparator<PawnDto> nullsLast(Function<PawnDto, T> property) {
+        return Comparator.comparing(property, Comparator.nullsLast(Comparator.naturalOrder()));
+    }
+
     @Transactional(readOnly = true)
     public Optional<PawnDto> findPawn(Long pawnId) {
+        if (pawnStore.isEnabled()) {
+            return pawnStore.findPawn(pawnId);
+        }
+
         return pawnRepository.findById(pawnId).map(this::toDto);
     }
 
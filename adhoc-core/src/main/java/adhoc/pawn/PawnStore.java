@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.pawn;
+
+import adhoc.system.properties.CoreProperties;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * In-memory store of the latest pawns reported by each server. As pawns only give an "at a glance" location,
+ * this is the authoritative copy in the manager (which receives the reports) and is only periodically written to the pawn table.
+ * Each server report replaces the whole snapshot for that server so readers always see a consistent set of pawns per server
+ * (a delta report is applied to a copy of the previous snapshot which then replaces it).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class PawnStore {
+
+    private final CoreProperties coreProperties;
+
+    private final Map<Long, List<PawnDto>> serverPawns = new ConcurrentHashMap<>();
+    private final Map<Long, LocalDateTime> serverSeen = new ConcurrentHashMap<>();
+
+    /** Pawn IDs as assigned when the pawns were first reported. */
+    private final Map<UUID, Long> pawnIds = new ConcurrentHashMap<>();
+
+    /** Servers whose pawns have changed since they were last written to the pawn table. */
+    private final Set<Long> dirtyServerIds = ConcurrentHashMap.newKeySet();
+
+    public boolean isEnabled() {
+        return coreProperties.isPawnStoreEnabled();
+    }
+
+    public Optional<LocalDateTime> findServerSeen(Long serverId) {
+        return Optional.ofNullable(serverSeen.get(serverId));
+    }
+
+    public Optional<Long> findPawnId(UUID uuid) {
+        return Optional.ofNullable(pawnIds.get(uuid));
+    }
+
+    /** The ID of the pawn with this UUID, or a new ID if the pawn is not (or is no longer) in the store. */
+    public Long assignPawnId(UUID uuid, LongSupplier newPawnId) {
+        Long pawnId = pawnIds.get(uuid);
+        if (pawnId != null) {
+            return pawnId;
+        }
+        // not computeIfAbsent as getting a new ID may need to go to the database
+        pawnId = newPawnId.getAsLong();
+        Long existingPawnId = pawnIds.putIfAbsent(uuid, pawnId);
+        return existingPawnId != null ? existingPawnId : pawnId;
+    }
+
+    public void putServerPawns(Long serverId, List<PawnDto> pawns, LocalDateTime seen) {
+        List<PawnDto> oldPawns = serverPawns.put(serverId, List.copyOf(pawns));
+        serverSeen.put(serverId, seen);
+        dirtyServerIds.add(serverId);
+
+        if (oldPawns != null) {
+            removePawnIds(oldPawns, pawns);
+        }
+    }
+
+    /** Apply a delta report: the changed (added or moved) pawns replace any with the same UUID, and the removed pawns are removed. */
+    public void updateServerPawns(Long serverId, List<PawnDto> changedPawns, Collection<UUID> removedUuids, LocalDateTime seen) {
+        serverPawns.compute(serverId, (id, oldPawns) -> {
+            Map<UUID, PawnDto> pawnsByUuid = new LinkedHashMap<>();
+            if (oldPawns != null) {
+                oldPawns.forEach(pawn -> pawnsByUuid.put(pawn.getUuid(), pawn));
+            }
+            removedUuids.forEach(pawnsByUuid::remove);
+            changedPawns.forEach(pawn -> pawnsByUuid.put(pawn.getUuid(), pawn));
+            return List.copyOf(pawnsByUuid.values());
+        });
+        serverSeen.put(serverId, seen);
+        dirtyServerIds.add(serverId);
+
+        Set<UUID> changedUuids = changedPawns.stream().map(PawnDto::getUuid).collect(Collectors.toSet());
+        removedUuids.stream()
+                .filter(uuid -> !changedUuids.contains(uuid))
+                .forEach(pawnIds::remove);
+    }
+
+    public void removeServerPawns(Long serverId) {
+        List<PawnDto> oldPawns = serverPawns.remove(serverId);
+        serverSeen.remove(serverId);
+
+        if (oldPawns != null) {
+            removePawnIds(oldPawns, List.of());
+        }
+    }
+
+    public void removeServerPawnsSeenBefore(LocalDateTime seenBefore) {
+        serverSeen.forEach((serverId, seen) -> {
+            if (seen.isBefore(seenBefore)) {
+                log.debug("Removing old pawns: serverId={}", serverId);
+                removeServerPawns(serverId);
+            }
+        });
+    }
+
+    public List<PawnDto> findServerPawns(Long serverId) {
+        return serverPawns.getOrDefault(serverId, List.of());
+    }
+
+    public Map<Long, List<PawnDto>> getServerPawns() {
+        return Map.copyOf(serverPawns);
+    }
+
+    /** Pawns of the servers which have changed since this was last called (see also {@link #markServersDirty(Collection)}). */
+    public Map<Long, List<PawnDto>> takeDirtyServerPawns() {
+        Set<Long> serverIds = new HashSet<>(dirtyServerIds);
+        dirtyServerIds.removeAll(serverIds);
+
+        Map<Long, List<PawnDto>> dirtyServerPawns = new LinkedHashMap<>();
+        for (Long serverId : serverIds) {
+            List<PawnDto> pawns = serverPawns.get(serverId);
+            if (pawns != null) {
+                dirtyServerPawns.put(serverId, pawns);
+            }
+        }
+        return dirtyServerPawns;
+    }
+
+    /** For when the pawns taken by {@link #takeDirtyServerPawns()} could not be written. */
+    public void markServersDirty(Collection<Long> serverIds) {
+        dirtyServerIds.addAll(serverIds);
+    }
+
+    public Stream<PawnDto> streamPawns() {
+        return serverPawns.values().stream().flatMap(Collection::stream);
+    }
+
+    public long countPawns() {
+        return serverPawns.values().stream().mapToLong(List::size).sum();
+    }
+
+    public Optional<PawnDto> findPawn(Long pawnId) {
+        return streamPawns().filter(pawn -> Objects.equals(pawn.getId(), pawnId)).findFirst();
+    }
+
+    public Optional<PawnDto> findLatestPawnByServerIdAndUserId(Long serverId, Long userId) {
+        return serverPawns.getOrDefault(serverId, List.of()).stream()
+                .filter(pawn -> Objects.equals(pawn.getUserId(), userId))
+                .max(Comparator.comparing(PawnDto::getSeen));
+    }
+
+    private void removePawnIds(List<PawnDto> oldPawns, List<PawnDto> newPawns) {
+        Set<UUID> newUuids = newPawns.stream().map(PawnDto::getUuid).collect(Collectors.toSet());
+        oldPawns.stream()
+                .map(PawnDto::getUuid)
+                .filter(uuid -> !newUuids.contains(uuid))
+                .forEach(pawnIds::remove);
+    }
+}
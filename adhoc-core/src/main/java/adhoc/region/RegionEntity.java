@@ -25,6 +25,7 @@ package adhoc.region;
 import adhoc.area.AreaEntity;
 import adhoc.server.ServerEntity;
 import adhoc.universe.UniverseEntity;
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.FetchType;
@@ -39,6 +40,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.DynamicInsert;
 import org.hibernate.annotations.DynamicUpdate;
 
@@ -52,6 +55,8 @@ import java.util.List;
  * without having to download the HTML5 client again.
  */
 @Entity(name = "Region")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "region")
 @DynamicInsert
 @DynamicUpdate
 @NoArgsConstructor
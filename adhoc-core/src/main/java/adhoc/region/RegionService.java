@@ -24,8 +24,10 @@ package adhoc.region;
 
 import adhoc.area.AreaEntity;
 import adhoc.server.ServerEntity;
+import adhoc.system.cache.AdhocCacheConfiguration;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -42,11 +44,13 @@ public class RegionService {
 
     private final RegionRepository regionRepository;
 
+    @Cacheable(cacheNames = AdhocCacheConfiguration.REGION_PAGES)
     @Transactional(readOnly = true)
     public Page<RegionDto> findRegions(Pageable pageable) {
         return regionRepository.findAll(pageable).map(this::toDto);
     }
 
+    @Cacheable(cacheNames = AdhocCacheConfiguration.REGIONS)
     @Transactional(readOnly = true)
     public Optional<RegionDto> findRegion(Long regionId) {
         return regionRepository.findById(regionId).map(this::toDto);
@@ -0,0 +1,64 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.score;
+
+import lombok.experimental.UtilityClass;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Scores decay over time, but rather than regularly rewriting every score we store each score as it was at the time it
+ * was last normalised and work out the decayed value when reading it. All scores are normalised to the start of the
+ * current day (see {@link #normalisedTime}) so ordering by the stored score is the same as ordering by the decayed score.
+ */
+@UtilityClass
+public class ScoreDecayUtils {
+
+    /** Scores decay by this factor every 10 seconds. */
+    private final double DECAY_PER_10_SECONDS = 0.999;
+
+    /** When scores should currently be normalised to. Scores normalised before this should be rebased. */
+    public LocalDateTime normalisedTime(LocalDateTime now) {
+        return now.truncatedTo(ChronoUnit.DAYS);
+    }
+
+    /** How much a score decays between the two times. */
+    public BigDecimal decayFactor(LocalDateTime from, LocalDateTime to) {
+        double seconds = Duration.between(from, to).toMillis() / 1000.0;
+        return BigDecimal.valueOf(Math.pow(DECAY_PER_10_SECONDS, seconds / 10.0));
+    }
+
+    /** The decayed value of a stored score as of now. */
+    public BigDecimal decayedScore(BigDecimal score, LocalDateTime scoreNormalised, LocalDateTime now) {
+        return score.multiply(decayFactor(scoreNormalised, now), MathContext.DECIMAL64);
+    }
+
+    /** The value to store for a score (or score increase) as of now, given the time the stored score is normalised to. */
+    public BigDecimal normalisedScore(BigDecimal score, LocalDateTime scoreNormalised, LocalDateTime now) {
+        return score.divide(decayFactor(scoreNormalised, now), MathContext.DECIMAL64);
+    }
+}
@@ -52,6 +52,7 @@ import java.util.List;
  * When a server is enabled, a server task (typically in the cloud) should be launched.
  * Once the server task is running, the server is considered active and users can navigate to it.
  * A server which is not enabled will have any associated task torn down and will eventually be purged.
+ * A server may also be enabled without any areas, so it is already running ("warm") when the next area group needs a server.
  */
 @Entity(name = "Server")
 @DynamicInsert
@@ -35,11 +35,11 @@ public interface ServerRepository extends JpaRepository<ServerEntity, Long> {
 
     Optional<ServerEntity> findFirstByRegionAndAreasContains(RegionEntity region, AreaEntity area);
 
-    Optional<ServerEntity> findFirstByRegionAndAreasEmpty(RegionEntity region);
+    Optional<ServerEntity> findFirstByRegionAndAreasEmptyOrderByEnabledDescActiveDescIdAsc(RegionEntity region);
 
     Stream<ServerEntity> streamByEnabledTrue();
 
-    Stream<ServerEntity> streamByRegionAndIdNotIn(RegionEntity region, Collection<Long> ids);
+    Stream<ServerEntity> streamByRegionAndIdNotInOrderByEnabledDescActiveDescIdAsc(RegionEntity region, Collection<Long> ids);
 
     Stream<ServerEntity> streamByAreasEmptyAndDestinedUserStatesEmptyAndUserStatesEmptyAndPawnsEmptyAndSeenBefore(LocalDateTime seenBefore);
 }
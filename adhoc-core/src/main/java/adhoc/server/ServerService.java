@@ -23,8 +23,10 @@
 package adhoc.server;
 
 import adhoc.area.AreaEntity;
+import adhoc.system.cache.AdhocCacheConfiguration;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -41,11 +43,13 @@ public class ServerService {
 
     private final ServerRepository serverRepository;
 
+    @Cacheable(cacheNames = AdhocCacheConfiguration.SERVER_PAGES)
     @Transactional(readOnly = true)
     public Page<ServerDto> findServers(Pageable pageable) {
         return serverRepository.findAll(pageable).map(this::toDto);
     }
 
+    @Cacheable(cacheNames = AdhocCacheConfiguration.SERVERS)
     @Transactional(readOnly = true)
     public Optional<ServerDto> findServer(Long serverId) {
         return serverRepository.findById(serverId).map(this::toDto);
@@ -0,0 +1,85 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.system;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.core.GenericTypeResolver;
+import org.springframework.core.MethodParameter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.converter.AbstractMessageConverter;
+import org.springframework.messaging.converter.MessageConversionException;
+import org.springframework.util.MimeType;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.JavaType;
+import tools.jackson.dataformat.cbor.CBORMapper;
+
+/**
+ * Converts messages with a content type of application/cbor (binary JSON) so the Unreal servers can send
+ * their frequent and larger messages (e.g. ServerPawns) more compactly than as JSON text.
+ * Only used when the message says it is CBOR, so JSON remains the default.
+ */
+public class AdhocCborMessageConverter extends AbstractMessageConverter {
+
+    public static final MimeType APPLICATION_CBOR = new MimeType("application", "cbor");
+
+    private final CBORMapper cborMapper;
+
+    public AdhocCborMessageConverter(CBORMapper cborMapper) {
+        super(APPLICATION_CBOR);
+        this.cborMapper = cborMapper;
+        setStrictContentTypeMatch(true);
+    }
+
+    @Override
+    protected boolean supports(@NonNull Class<?> clazz) {
+        return true;
+    }
+
+    @Override
+    protected Object convertFromInternal(@NonNull Message<?> message, @NonNull Class<?> targetClass, @Nullable Object conversionHint) {
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            throw new MessageConversionException(message, "CBOR message payload must be binary");
+        }
+
+        JavaType javaType = conversionHint instanceof MethodParameter parameter
+                ? cborMapper.constructType(GenericTypeResolver.resolveType(parameter.getNestedGenericParameterType(), parameter.getContainingClass()))
+                : cborMapper.constructType(targetClass);
+
+        try {
+            return cborMapper.readValue(payload, javaType);
+        } catch (JacksonException e) {
+            throw new MessageConversionException(message, "Could not read CBOR: " + e.getMessage(), e);
+        }
+    }
+
+    @Override
+    protected Object convertToInternal(@NonNull Object payload, @Nullable MessageHeaders headers, @Nullable Object conversionHint) {
+        try {
+            return cborMapper.writeValueAsBytes(payload);
+        } catch (JacksonException e) {
+            throw new MessageConversionException("Could not write CBOR: " + e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,146 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.system;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.support.MessageHandlingRunnable;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Executor for the inbound message channel which handles the messages of each session (e.g. each Unreal server) strictly in order,
+ * while different sessions are handled in parallel on virtual threads.
+ * <p>
+ * A message to one of the {@link #KEYFRAME_DESTINATIONS} (a full report of some state) makes the messages before it redundant:
+ * any still waiting to be handled for that state when it arrives from the same session are skipped.
+ * Messages which only make sense on top of the ones before them (e.g. delta reports) never skip anything.
+ */
+@Component
+@Slf4j
+public class AdhocSessionOrderedExecutor implements Executor {
+
+    // a full report of a server's pawns contains all its pawns, so any older report (full or delta) still waiting can be skipped
+    private static final Map<String, Set<String>> KEYFRAME_DESTINATIONS = Map.of(
+            "/app/ServerPawns", Set.of("/app/ServerPawns", "/app/ServerPawnsDelta"));
+
+    private final ExecutorService executorService = Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("inbound-", 0).factory());
+
+    private static class SessionTasks {
+        private final Deque<Runnable> tasks = new ArrayDeque<>();
+        private boolean running;
+    }
+
+    // NOTE: messages of a session are received one at a time so execute is never called concurrently for the same session
+    private final Map<String, SessionTasks> sessionsTasks = new ConcurrentHashMap<>();
+
+    @PreDestroy
+    public void preDestroy() {
+        executorService.shutdownNow();
+    }
+
+    @Override
+    public void execute(@NonNull Runnable task) {
+        String sessionId = task instanceof MessageHandlingRunnable messageTask
+                ? SimpMessageHeaderAccessor.getSessionId(messageTask.getMessage().getHeaders())
+                : null;
+
+        if (sessionId == null) {
+            executorService.execute(task);
+            return;
+        }
+
+        SessionTasks sessionTasks = sessionsTasks.computeIfAbsent(sessionId, id -> new SessionTasks());
+        boolean start;
+        synchronized (sessionTasks) {
+            Set<String> supersededDestinations = getSupersededDestinations(task);
+            if (supersededDestinations != null) {
+                sessionTasks.tasks.removeIf(queuedTask -> isSupersededBy(queuedTask, task, supersededDestinations));
+            }
+            sessionTasks.tasks.add(task);
+
+            start = !sessionTasks.running;
+            sessionTasks.running = true;
+        }
+
+        if (start) {
+            executorService.execute(() -> runSessionTasks(sessionId, sessionTasks));
+        }
+    }
+
+    private void runSessionTasks(String sessionId, SessionTasks sessionTasks) {
+        while (true) {
+            Runnable task;
+            synchronized (sessionTasks) {
+                task = sessionTasks.tasks.poll();
+                if (task == null) {
+                    sessionTasks.running = false;
+                    sessionsTasks.remove(sessionId, sessionTasks);
+                    return;
+                }
+            }
+
+            try {
+                task.run();
+            } catch (Throwable t) {
+                log.warn("Failed to handle message! sessionId={}", sessionId, t);
+            }
+        }
+    }
+
+    private static Set<String> getSupersededDestinations(Runnable task) {
+        if (task instanceof MessageHandlingRunnable messageTask) {
+            String destination = SimpMessageHeaderAccessor.getDestination(messageTask.getMessage().getHeaders());
+            return destination == null ? null : KEYFRAME_DESTINATIONS.get(destination);
+        }
+        return null;
+    }
+
+    /** There is a task per handler subscribed to the channel, so only a task for the same handler is superseded. */
+    private static boolean isSupersededBy(Runnable queuedTask, Runnable task, Set<String> supersededDestinations) {
+        if (queuedTask instanceof MessageHandlingRunnable queuedMessageTask && task instanceof MessageHandlingRunnable messageTask) {
+            MessageHeaders queuedHeaders = queuedMessageTask.getMessage().getHeaders();
+            String queuedDestination = SimpMessageHeaderAccessor.getDestination(queuedHeaders);
+
+            boolean superseded = queuedMessageTask.getMessageHandler() == messageTask.getMessageHandler()
+                    && queuedDestination != null && supersededDestinations.contains(queuedDestination);
+            if (superseded) {
+                log.debug("Skipping superseded message: sessionId={} destination={}",
+                        SimpMessageHeaderAccessor.getSessionId(queuedHeaders), queuedDestination);
+            }
+            return superseded;
+        }
+        return false;
+    }
+}
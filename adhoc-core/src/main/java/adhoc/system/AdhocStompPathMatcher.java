@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.system;
+
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.util.AntPathMatcher;
+
+/**
+ * Lets the simple broker (used when the embedded Artemis is disabled e.g. in tests) understand a trailing /# wildcard
+ * the same way Artemis does (see {@link EventTopics#ALL_EVENTS}), so the same subscriptions work with either broker.
+ */
+public class AdhocStompPathMatcher extends AntPathMatcher {
+
+    private static final String MULTI_WILDCARD = "/#";
+
+    @Override
+    public boolean isPattern(@Nullable String path) {
+        return path != null && (path.endsWith(MULTI_WILDCARD) || super.isPattern(path));
+    }
+
+    @Override
+    public boolean match(@NonNull String pattern, @NonNull String path) {
+        return super.match(toAntPattern(pattern), path);
+    }
+
+    private static String toAntPattern(String pattern) {
+        return pattern.endsWith(MULTI_WILDCARD)
+                ? pattern.substring(0, pattern.length() - MULTI_WILDCARD.length()) + "/**"
+                : pattern;
+    }
+}
@@ -22,26 +22,37 @@
 
 package adhoc.system;
 
+import adhoc.system.artemis.AdhocArtemisBrokerMessageHandler;
+import adhoc.system.event.AdhocEventReplayChannelInterceptor;
+import adhoc.system.event.AdhocOutboundConflationChannelInterceptor;
 import adhoc.system.exception.AdhocStompSubProtocolErrorHandler;
 import adhoc.system.logging.AdhocMdcExecutorChannelInterceptor;
 import adhoc.system.properties.CoreProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.boot.artemis.autoconfigure.ArtemisMode;
 import org.springframework.boot.artemis.autoconfigure.ArtemisProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.converter.MessageConverter;
 import org.springframework.messaging.simp.config.ChannelRegistration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.scheduling.TaskScheduler;
 import org.springframework.session.Session;
 import org.springframework.session.web.socket.config.annotation.AbstractSessionWebSocketMessageBrokerConfigurer;
 import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
+import org.springframework.web.socket.config.annotation.WebSocketTransportRegistration;
 import org.springframework.web.socket.server.standard.ServletServerContainerFactoryBean;
 import org.springframework.web.socket.server.support.HttpSessionHandshakeInterceptor;
+import tools.jackson.dataformat.cbor.CBORMapper;
 
 import java.time.Duration;
+import java.util.List;
 
 @Configuration
 @EnableWebSocketMessageBroker
@@ -55,7 +66,11 @@ public class AdhocWebSocketConfiguration {
     @Bean
     public AbstractSessionWebSocketMessageBrokerConfigurer<Session> adhocWebSocketMessageBrokerConfigurer(
             AdhocStompSubProtocolErrorHandler adhocStompSubProtocolErrorHandler,
-            AdhocMdcExecutorChannelInterceptor adhocMdcExecutorChannelInterceptor) {
+            AdhocMdcExecutorChannelInterceptor adhocMdcExecutorChannelInterceptor,
+            AdhocEventReplayChannelInterceptor adhocEventReplayChannelInterceptor,
+            AdhocOutboundConflationChannelInterceptor adhocOutboundConflationChannelInterceptor,
+            AdhocSessionOrderedExecutor adhocSessionOrderedExecutor,
+            CBORMapper cborMapper) {
         //@Lazy TaskScheduler taskScheduler) {
 
         return new AbstractSessionWebSocketMessageBrokerConfigurer<>() {
@@ -83,8 +98,6 @@ public class AdhocWebSocketConfiguration {
                         .setHeartbeatTime(Duration.ofSeconds(15).toMillis());
                 //.setTaskScheduler(taskScheduler);
 
-                registry.setPreserveReceiveOrder(true);
-
                 registry.setErrorHandler(adhocStompSubProtocolErrorHandler);
             }
 
@@ -101,6 +114,14 @@ public class AdhocWebSocketConfiguration {
                 if (artemisProperties.getMode() == ArtemisMode.EMBEDDED && !artemisProperties.getEmbedded().isEnabled()) {
                     config.enableSimpleBroker("/queue", "/topic");
                     //.setTaskScheduler(taskScheduler);
+                    // so subscriptions to e.g. /topic/events/# work the same as with Artemis
+                    config.setPathMatcher(new AdhocStompPathMatcher());
+
+                } else if (isInVmBroker()) {
+                    // the relay is still registered (so there is no simple broker) but is never started
+                    // as adhocArtemisBrokerMessageHandler handles the broker destinations instead
+                    config.enableStompBrokerRelay("/queue", "/topic")
+                            .setAutoStartup(false);
 
                 } else {
                     config.enableStompBrokerRelay("/queue", "/topic")
@@ -112,16 +133,80 @@ public class AdhocWebSocketConfiguration {
                 }
             }
 
+            @Override
+            public boolean configureMessageConverters(@NonNull List<MessageConverter> messageConverters) {
+                // Unreal servers may send messages as CBOR (content-type:application/cbor) rather than JSON
+                // (the CBOR mapper Boot configures has the same spring.jackson settings and modules as the JSON one).
+                // NOTE: converters can't be limited to the server endpoint, but this one is only used for messages which say they are CBOR
+                messageConverters.add(new AdhocCborMessageConverter(cborMapper));
+                return true; // still add the default converters (e.g. for JSON)
+            }
+
             @Override
             public void configureClientInboundChannel(@NonNull ChannelRegistration registration) {
                 super.configureClientInboundChannel(registration);
 
+                // rather than registry.setPreserveReceiveOrder(true) - messages of each session are still handled in order
+                // (but sessions in parallel on virtual threads) and superseded pawn reports are skipped
                 registration
-                        .interceptors(adhocMdcExecutorChannelInterceptor);
+                        .executor(adhocSessionOrderedExecutor)
+                        .interceptors(adhocMdcExecutorChannelInterceptor, adhocEventReplayChannelInterceptor);
+            }
+
+            @Override
+            public void configureClientOutboundChannel(@NonNull ChannelRegistration registration) {
+                super.configureClientOutboundChannel(registration);
+
+                registration
+                        .interceptors(adhocEventReplayChannelInterceptor);
+
+                // only the in-VM broker sends through the conflation interceptor's session channels (with the relay or simple broker
+                // messages wait in Spring's own ordered channel instead) - it sends the next message of a session once each has been handled
+                if (isInVmBroker()) {
+                    registration
+                            .interceptors(adhocOutboundConflationChannelInterceptor);
+                }
+            }
+
+            @Override
+            public void configureWebSocketTransport(@NonNull WebSocketTransportRegistration registration) {
+                super.configureWebSocketTransport(registration);
+
+                // sessions which can't keep up are closed rather than buffering ever more messages for them
+                registration
+                        .setSendTimeLimit(Math.toIntExact(coreProperties.getWebsocketSendTimeLimit().toMillis()))
+                        .setSendBufferSizeLimit(coreProperties.getWebsocketSendBufferSizeLimit());
             }
         };
     }
 
+    @Bean
+    public AdhocArtemisBrokerMessageHandler adhocArtemisBrokerMessageHandler(
+            @Qualifier("clientInboundChannel") SubscribableChannel clientInboundChannel,
+            @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+            @Qualifier("brokerChannel") SubscribableChannel brokerChannel,
+            @Qualifier("messageBrokerTaskScheduler") TaskScheduler messageBrokerTaskScheduler,
+            AdhocOutboundConflationChannelInterceptor adhocOutboundConflationChannelInterceptor) {
+
+        AdhocArtemisBrokerMessageHandler handler = new AdhocArtemisBrokerMessageHandler(
+                clientInboundChannel, clientOutboundChannel, brokerChannel, List.of("/queue", "/topic"),
+                artemisProperties.getEmbedded().getServerId());
+        handler.setPreservePublishOrder(true);
+        // messages waiting for a session are queued where superseded ones can still be skipped
+        handler.setSessionOutboundChannelFactory(adhocOutboundConflationChannelInterceptor::createSessionChannel);
+        // same as the simple broker default (clients which want heart-beats get them, and are disconnected if theirs stop)
+        handler.setHeartbeatValue(new long[]{10000, 10000});
+        handler.setTaskScheduler(messageBrokerTaskScheduler);
+        handler.setAutoStartup(isInVmBroker());
+        return handler;
+    }
+
+    private boolean isInVmBroker() {
+        return artemisProperties.getMode() == ArtemisMode.EMBEDDED
+                && artemisProperties.getEmbedded().isEnabled()
+                && coreProperties.isMessageBrokerInVm();
+    }
+
     @Bean
     public ServletServerContainerFactoryBean adhocWebSocketContainer() {
         ServletServerContainerFactoryBean container = new ServletServerContainerFactoryBean();
@@ -22,14 +22,44 @@
 
 package adhoc.system;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonPropertyOrder;
 
 /** Stomp events we can emit should implement this interface to provide an automatic eventType property based on the class name of the event. */
 @JsonPropertyOrder("eventType")
 public interface Event {
 
+    /** Header of the event type so listeners can skip events without parsing them. */
+    String EVENT_TYPE_HEADER = "adhoc-event-type";
+
     // for output in JSON
     default String getEventType() {
         return getClass().getSimpleName().replaceFirst("Event$", "");
     }
+
+    /** Where to send this event. Events only of interest to a region or server should override this (see {@link EventTopics}). */
+    @JsonIgnore
+    default String getDestination() {
+        return EventTopics.EVENTS;
+    }
+
+    /**
+     * Events which are superseded by a later event of the same type with the same key (e.g. a server ID) can return that key
+     * so only the latest needs to be sent. Events which must all be sent should return null.
+     */
+    @JsonIgnore
+    default Object getConflationKey() {
+        return null;
+    }
+
+    /** Whether a later event of the same type and conflation key makes this one redundant (i.e. it need never be sent once there is a later one). */
+    @JsonIgnore
+    default boolean isSupersedable() {
+        return getConflationKey() != null;
+    }
+
+    /** Combine this (held) event with a later one of the same type and conflation key. By default the later event just replaces this one. */
+    default Event conflate(Event later) {
+        return later;
+    }
 }
@@ -0,0 +1,54 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.system;
+
+/**
+ * Stomp destinations for {@link Event}s.
+ * <p>
+ * Events that only matter to a particular region or server can be sent to a destination under {@link #EVENTS}
+ * so the message broker only delivers them to the subscribers interested in that region or server
+ * (e.g. a server subscribing to just its own region and server as well as the global events).
+ * Subscribing to {@link #ALL_EVENTS} receives every event (e.g. the map in the web browser).
+ * <p>
+ * NOTE: the Unreal servers currently only subscribe to {@link #EVENTS}, so the manager only sends to the
+ * region and server destinations when adhoc.event.scoped-destinations-enabled is set.
+ */
+public final class EventTopics {
+
+    /** Global events e.g. server and universe updates. */
+    public static final String EVENTS = "/topic/events";
+
+    /** Wildcard (the message broker uses / as the delimiter) matching the global events and every region and server. */
+    public static final String ALL_EVENTS = EVENTS + "/#";
+
+    private EventTopics() {
+    }
+
+    public static String regionEvents(Long regionId) {
+        return EVENTS + "/regions/" + regionId;
+    }
+
+    public static String serverEvents(Long serverId) {
+        return EVENTS + "/servers/" + serverId;
+    }
+}
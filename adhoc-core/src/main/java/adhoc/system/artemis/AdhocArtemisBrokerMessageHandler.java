@@ -0,0 +1,481 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.system.artemis;
+
+import com.google.common.base.Preconditions;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.ActiveMQQueueExistsException;
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.jspecify.annotations.NonNull;
+import org.jspecify.annotations.Nullable;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.util.MimeType;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledFuture;
+import java.util.function.Function;
+
+/**
+ * Message broker handler which talks to the embedded Artemis broker in the same JVM (via its in-VM acceptor using the core API)
+ * rather than relaying STOMP frames over a TCP connection to the STOMP acceptor.
+ * Addresses, routing and clustering are the same as for the relay (each subscription to a topic gets its own temporary queue,
+ * and a queue destination's queue is deleted once it has no consumers). Only used when adhoc.message-broker.in-vm is set.
+ * <p>
+ * Each client session gets its own Artemis session, and its own ordered channel to the client, so its messages are delivered in order.
+ * Message headers are carried as string properties, and the payload as the message body,
+ * so these messages are interchangeable with those sent via STOMP.
+ * <p>
+ * Heart-beats are negotiated with each client the same way as the simple broker does (given a task scheduler to send and check them):
+ * a client which stops sending anything for several of its heart-beat intervals is disconnected.
+ */
+@Slf4j
+public class AdhocArtemisBrokerMessageHandler extends AbstractBrokerMessageHandler {
+
+    /** Message property holding the STOMP content-type header. */
+    public static final String CONTENT_TYPE_PROPERTY = "content-type";
+
+    private static final byte[] EMPTY_PAYLOAD = new byte[0];
+
+    // how many heart-beat intervals without hearing from a client before it is disconnected (as for the simple broker)
+    private static final long HEARTBEAT_MULTIPLIER = 3;
+
+    private static final String QUEUE_PREFIX = "/queue/";
+
+    // STOMP frame headers which describe the frame rather than the message, so are not carried over
+    private static final Set<String> FRAME_HEADERS = Set.of(
+            "destination", "content-type", "content-length", "receipt", "transaction", "message-id", "subscription", "ack", "id");
+
+    private final int serverId;
+
+    private Function<String, MessageChannel> sessionOutboundChannelFactory;
+
+    private long[] heartbeatValue = {0, 0};
+    private TaskScheduler taskScheduler;
+    private ScheduledFuture<?> heartbeatFuture;
+
+    private ServerLocator serverLocator;
+    private ClientSessionFactory sessionFactory;
+
+    // shared by everything sending to the broker, so only used by one thread at a time
+    private ClientSession producerSession;
+    private ClientProducer producer;
+
+    private record Subscription(String queueName, ClientConsumer consumer, boolean temporary) {
+    }
+
+    private record ClientSubscriptions(ClientSession clientSession, Map<String, Subscription> subscriptions) {
+    }
+
+    // by session ID
+    private final Map<String, ClientSubscriptions> sessions = new ConcurrentHashMap<>();
+
+    // by session ID (the same channel must be used for all the messages of a session to keep them in order)
+    private final Map<String, MessageChannel> sessionOutboundChannels = new ConcurrentHashMap<>();
+
+    private static class SessionHeartbeat {
+        private final long readInterval;
+        private final long writeInterval;
+        private volatile long lastReadTime;
+        private volatile long lastWriteTime;
+
+        private SessionHeartbeat(long readInterval, long writeInterval, long now) {
+            this.readInterval = readInterval;
+            this.writeInterval = writeInterval;
+            this.lastReadTime = now;
+            this.lastWriteTime = now;
+        }
+    }
+
+    // by session ID (only for sessions which negotiated heart-beats)
+    private final Map<String, SessionHeartbeat> sessionHeartbeats = new ConcurrentHashMap<>();
+
+    public AdhocArtemisBrokerMessageHandler(SubscribableChannel clientInboundChannel, MessageChannel clientOutboundChannel,
+                                            SubscribableChannel brokerChannel, Collection<String> destinationPrefixes,
+                                            int serverId) {
+        super(clientInboundChannel, clientOutboundChannel, brokerChannel, destinationPrefixes);
+        this.serverId = serverId;
+    }
+
+    /** Creates the channel to each client session (by default the usual ordered channel, see {@link #setPreservePublishOrder(boolean)}). */
+    public void setSessionOutboundChannelFactory(Function<String, MessageChannel> sessionOutboundChannelFactory) {
+        this.sessionOutboundChannelFactory = sessionOutboundChannelFactory;
+    }
+
+    /** How often heart-beats can be sent to, and should be received from, each client (in milliseconds, zero for never). */
+    public void setHeartbeatValue(long[] heartbeatValue) {
+        Preconditions.checkArgument(heartbeatValue.length == 2 && heartbeatValue[0] >= 0 && heartbeatValue[1] >= 0,
+                "heartbeatValue must be two non-negative intervals");
+        this.heartbeatValue = heartbeatValue;
+    }
+
+    /** Used to send and check heart-beats (without one no heart-beats are negotiated). */
+    public void setTaskScheduler(TaskScheduler taskScheduler) {
+        this.taskScheduler = taskScheduler;
+    }
+
+    /** The heart-beat actually offered to clients. */
+    public long[] getHeartbeatValue() {
+        return taskScheduler == null ? new long[]{0, 0} : heartbeatValue;
+    }
+
+    @Override
+    protected void startInternal() {
+        try {
+            serverLocator = ArtemisInVmUtils.createServerLocator(serverId);
+            sessionFactory = serverLocator.createSessionFactory();
+
+            producerSession = sessionFactory.createSession();
+            producer = producerSession.createProducer();
+            producerSession.start();
+
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to connect to embedded message broker! serverId=" + serverId, e);
+        }
+
+        log.info("Connected to embedded message broker in-VM: serverId={}", serverId);
+        publishBrokerAvailableEvent();
+
+        long[] heartbeatValue = getHeartbeatValue();
+        long heartbeatCheckInterval = Math.min(
+                heartbeatValue[0] > 0 ? heartbeatValue[0] : Long.MAX_VALUE,
+                heartbeatValue[1] > 0 ? heartbeatValue[1] : Long.MAX_VALUE);
+        if (heartbeatCheckInterval < Long.MAX_VALUE) {
+            heartbeatFuture = taskScheduler.scheduleWithFixedDelay(this::checkHeartbeats, Duration.ofMillis(heartbeatCheckInterval));
+        }
+    }
+
+    @Override
+    protected void stopInternal() {
+        publishBrokerUnavailableEvent();
+
+        if (heartbeatFuture != null) {
+            heartbeatFuture.cancel(false);
+            heartbeatFuture = null;
+        }
+
+        for (String sessionId : List.copyOf(sessions.keySet())) {
+            closeClientSession(sessionId);
+        }
+
+        try {
+            if (producerSession != null) {
+                producerSession.close();
+            }
+        } catch (ActiveMQException e) {
+            log.warn("Failed to close producer session!", e);
+        }
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+        if (serverLocator != null) {
+            serverLocator.close();
+        }
+    }
+
+    @Override
+    protected void handleMessageInternal(@NonNull Message<?> message) {
+        MessageHeaders headers = message.getHeaders();
+        SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(headers);
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+        String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+
+        // anything from the client (including heart-beats and messages to the application) shows it is still there
+        SessionHeartbeat sessionHeartbeat = sessionId == null ? null : sessionHeartbeats.get(sessionId);
+        if (sessionHeartbeat != null) {
+            sessionHeartbeat.lastReadTime = System.currentTimeMillis();
+        }
+
+        if (messageType == null || !checkDestinationPrefix(destination)) {
+            return;
+        }
+
+        try {
+            switch (messageType) {
+            case MESSAGE -> sendToBroker(destination, message);
+            case CONNECT -> connectAck(sessionId, message);
+            case DISCONNECT -> {
+                closeClientSession(sessionId);
+                disconnectAck(sessionId, message);
+            }
+            case SUBSCRIBE -> subscribe(sessionId, subscriptionId, destination);
+            case UNSUBSCRIBE -> unsubscribe(sessionId, subscriptionId);
+            default -> {
+            }
+            }
+
+        } catch (ActiveMQException e) {
+            log.warn("Failed to handle message! messageType={} sessionId={} destination={}", messageType, sessionId, destination, e);
+        }
+    }
+
+    private void sendToBroker(String destination, Message<?> message) throws ActiveMQException {
+        if (!(message.getPayload() instanceof byte[] payload)) {
+            log.warn("Ignoring message with unexpected payload type! destination={} payloadType={}", destination, message.getPayload().getClass());
+            return;
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+
+        synchronized (producer) {
+            ClientMessage clientMessage = producerSession.createMessage(org.apache.activemq.artemis.api.core.Message.BYTES_TYPE, false);
+            clientMessage.setRoutingType(destination.startsWith(QUEUE_PREFIX) ? RoutingType.ANYCAST : RoutingType.MULTICAST);
+            clientMessage.getBodyBuffer().writeBytes(payload);
+
+            MimeType contentType = accessor.getContentType();
+            if (contentType != null) {
+                clientMessage.putStringProperty(CONTENT_TYPE_PROPERTY, contentType.toString());
+            }
+            for (Map.Entry<String, List<String>> nativeHeader : accessor.toNativeHeaderMap().entrySet()) {
+                if (!FRAME_HEADERS.contains(nativeHeader.getKey()) && !nativeHeader.getValue().isEmpty()) {
+                    clientMessage.putStringProperty(nativeHeader.getKey(), nativeHeader.getValue().getFirst());
+                }
+            }
+
+            producer.send(destination, clientMessage);
+        }
+    }
+
+    private void sendToClient(String sessionId, String subscriptionId, ClientMessage clientMessage) {
+        try {
+            byte[] payload = ArtemisInVmUtils.readBody(clientMessage);
+
+            StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+            accessor.setSessionId(sessionId);
+            accessor.setSubscriptionId(subscriptionId);
+            accessor.setDestination(clientMessage.getAddress());
+
+            for (SimpleString propertyName : clientMessage.getPropertyNames()) {
+                String name = propertyName.toString();
+                if (name.startsWith("_")) {
+                    continue; // Artemis internal properties
+                }
+                String value = String.valueOf(clientMessage.getObjectProperty(propertyName));
+                if (CONTENT_TYPE_PROPERTY.equals(name)) {
+                    accessor.setContentType(MimeType.valueOf(value));
+                } else {
+                    accessor.setNativeHeader(name, value);
+                }
+            }
+
+            getSessionOutboundChannel(sessionId).send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+            wrote(sessionId);
+
+            clientMessage.acknowledge();
+
+        } catch (Exception e) {
+            log.warn("Failed to send message to client! sessionId={} subscriptionId={} address={}",
+                    sessionId, subscriptionId, clientMessage.getAddress(), e);
+        }
+    }
+
+    /** Channel which sends messages to the client of a session in order, after those already sent to it by this broker. */
+    public MessageChannel getSessionOutboundChannel(String sessionId) {
+        return sessionOutboundChannels.computeIfAbsent(sessionId, id -> sessionOutboundChannelFactory != null
+                ? sessionOutboundChannelFactory.apply(id)
+                : getClientOutboundChannelForSession(id));
+    }
+
+    private void connectAck(String sessionId, Message<?> connectMessage) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        accessor.setSessionId(sessionId);
+        accessor.setUser(SimpMessageHeaderAccessor.getUser(connectMessage.getHeaders()));
+        accessor.setHeader(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER, connectMessage);
+
+        // each side sends heart-beats at the slower of the rates it can send and the other side wants to receive (zero for never)
+        long[] heartbeatValue = getHeartbeatValue();
+        long[] clientHeartbeat = Objects.requireNonNullElse(SimpMessageHeaderAccessor.getHeartbeat(connectMessage.getHeaders()), new long[]{0, 0});
+        long readInterval = clientHeartbeat[0] > 0 && heartbeatValue[1] > 0 ? Math.max(clientHeartbeat[0], heartbeatValue[1]) : 0;
+        long writeInterval = clientHeartbeat[1] > 0 && heartbeatValue[0] > 0 ? Math.max(clientHeartbeat[1], heartbeatValue[0]) : 0;
+        if (readInterval > 0 || writeInterval > 0) {
+            sessionHeartbeats.put(sessionId, new SessionHeartbeat(readInterval, writeInterval, System.currentTimeMillis()));
+        }
+        accessor.setHeader(SimpMessageHeaderAccessor.HEART_BEAT_HEADER, heartbeatValue);
+
+        getClientOutboundChannel().send(MessageBuilder.createMessage(EMPTY_PAYLOAD, accessor.getMessageHeaders()));
+    }
+
+    /** The disconnect message is null when the broker disconnects the client (which closes the connection). */
+    private void disconnectAck(String sessionId, @Nullable Message<?> disconnectMessage) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT_ACK);
+        accessor.setSessionId(sessionId);
+        if (disconnectMessage != null) {
+            accessor.setUser(SimpMessageHeaderAccessor.getUser(disconnectMessage.getHeaders()));
+            accessor.setHeader(SimpMessageHeaderAccessor.DISCONNECT_MESSAGE_HEADER, disconnectMessage);
+        }
+
+        getClientOutboundChannel().send(MessageBuilder.createMessage(EMPTY_PAYLOAD, accessor.getMessageHeaders()));
+    }
+
+    /** Sends heart-beats to clients which haven't been sent anything lately, and disconnects those not heard from. */
+    void checkHeartbeats() {
+        long now = System.currentTimeMillis();
+
+        for (Map.Entry<String, SessionHeartbeat> entry : sessionHeartbeats.entrySet()) {
+            String sessionId = entry.getKey();
+            SessionHeartbeat sessionHeartbeat = entry.getValue();
+            try {
+                if (sessionHeartbeat.readInterval > 0 && now - sessionHeartbeat.lastReadTime > sessionHeartbeat.readInterval * HEARTBEAT_MULTIPLIER) {
+                    log.debug("Disconnecting client which stopped sending heart-beats: sessionId={} readInterval={}", sessionId, sessionHeartbeat.readInterval);
+                    closeClientSession(sessionId);
+                    disconnectAck(sessionId, null);
+
+                } else if (sessionHeartbeat.writeInterval > 0 && now - sessionHeartbeat.lastWriteTime >= sessionHeartbeat.writeInterval) {
+                    SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.HEARTBEAT);
+                    accessor.setSessionId(sessionId);
+                    getSessionOutboundChannel(sessionId).send(MessageBuilder.createMessage(EMPTY_PAYLOAD, accessor.getMessageHeaders()));
+                    wrote(sessionId);
+                }
+
+            } catch (Exception e) {
+                log.warn("Failed to check heart-beat! sessionId={}", sessionId, e);
+            }
+        }
+    }
+
+    private void wrote(String sessionId) {
+        SessionHeartbeat sessionHeartbeat = sessionHeartbeats.get(sessionId);
+        if (sessionHeartbeat != null) {
+            sessionHeartbeat.lastWriteTime = System.currentTimeMillis();
+        }
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, String destination) throws ActiveMQException {
+        ClientSubscriptions clientSubscriptions = sessions.get(sessionId);
+        if (clientSubscriptions == null) {
+            ClientSession clientSession = sessionFactory.createSession();
+            clientSession.start();
+            clientSubscriptions = new ClientSubscriptions(clientSession, new ConcurrentHashMap<>());
+            sessions.put(sessionId, clientSubscriptions);
+        }
+
+        synchronized (clientSubscriptions) {
+            ClientSession clientSession = clientSubscriptions.clientSession();
+
+            String queueName;
+            boolean temporary;
+            if (destination.startsWith(QUEUE_PREFIX)) {
+                // consumers of a queue destination share the queue, which the broker deletes once it has no consumers
+                // (as for queues the broker creates for STOMP subscriptions)
+                queueName = destination;
+                temporary = false;
+                if (!clientSession.queueQuery(SimpleString.of(queueName)).isExists()) {
+                    try {
+                        clientSession.createQueue(QueueConfiguration.of(queueName)
+                                .setAddress(destination)
+                                .setRoutingType(RoutingType.ANYCAST)
+                                .setDurable(false)
+                                .setAutoCreated(true)
+                                .setAutoDelete(true)
+                                .setAutoDeleteDelay(0L)
+                                .setAutoDeleteMessageCount(-1L)
+                                .setAutoCreateAddress(true));
+                    } catch (ActiveMQQueueExistsException e) {
+                        log.trace("Queue already created by another session: queueName={}", queueName);
+                    }
+                }
+            } else {
+                // each subscriber to a topic destination gets its own queue (which goes away with the session)
+                queueName = UUID.randomUUID().toString();
+                temporary = true;
+                clientSession.createQueue(QueueConfiguration.of(queueName)
+                        .setAddress(destination)
+                        .setRoutingType(RoutingType.MULTICAST)
+                        .setDurable(false)
+                        .setTemporary(true)
+                        .setAutoCreateAddress(true));
+            }
+
+            ClientConsumer consumer = clientSession.createConsumer(queueName);
+            consumer.setMessageHandler(clientMessage -> sendToClient(sessionId, subscriptionId, clientMessage));
+
+            clientSubscriptions.subscriptions().put(subscriptionId, new Subscription(queueName, consumer, temporary));
+        }
+
+        log.debug("Subscribed: sessionId={} subscriptionId={} destination={}", sessionId, subscriptionId, destination);
+    }
+
+    private void unsubscribe(String sessionId, String subscriptionId) throws ActiveMQException {
+        ClientSubscriptions clientSubscriptions = sessions.get(sessionId);
+        if (clientSubscriptions == null) {
+            return;
+        }
+
+        synchronized (clientSubscriptions) {
+            Subscription subscription = clientSubscriptions.subscriptions().remove(subscriptionId);
+            if (subscription != null) {
+                subscription.consumer().close();
+                if (subscription.temporary()) {
+                    clientSubscriptions.clientSession().deleteQueue(subscription.queueName());
+                }
+            }
+        }
+
+        log.debug("Unsubscribed: sessionId={} subscriptionId={}", sessionId, subscriptionId);
+    }
+
+    private void closeClientSession(String sessionId) {
+        sessionHeartbeats.remove(sessionId);
+        sessionOutboundChannels.remove(sessionId);
+
+        ClientSubscriptions clientSubscriptions = sessions.remove(sessionId);
+        if (clientSubscriptions == null) {
+            return;
+        }
+
+        synchronized (clientSubscriptions) {
+            try {
+                // temporary queues are removed along with the session
+                clientSubscriptions.clientSession().close();
+            } catch (ActiveMQException e) {
+                log.warn("Failed to close client session! sessionId={}", sessionId, e);
+            }
+        }
+    }
+}
@@ -22,11 +22,13 @@
 
 package adhoc.system.artemis;
 
+import adhoc.system.EventTopics;
 import adhoc.system.properties.CoreProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.activemq.artemis.api.core.TransportConfiguration;
 import org.apache.activemq.artemis.core.config.ClusterConnectionConfiguration;
+import org.apache.activemq.artemis.core.config.WildcardConfiguration;
 import org.apache.activemq.artemis.core.remoting.impl.netty.NettyAcceptorFactory;
 import org.apache.activemq.artemis.core.remoting.impl.netty.NettyConnectorFactory;
 import org.apache.activemq.artemis.core.remoting.impl.netty.TransportConstants;
@@ -64,7 +66,7 @@ public class AdhocArtemisConfiguration {
     public TopicConfiguration eventsTopic() {
         TopicConfigurationImpl topicConfiguration = new TopicConfigurationImpl();
         topicConfiguration.setName("events");
-        topicConfiguration.setBindings("/topic/events");
+        topicConfiguration.setBindings(EventTopics.EVENTS);
         return topicConfiguration;
     }
 
@@ -81,7 +83,10 @@ public class AdhocArtemisConfiguration {
         return new ArtemisConfigurationCustomizer() {
             @Override
             public void customize(org.apache.activemq.artemis.core.config.Configuration configuration) {
-                configuration.addAddressSetting("/topic/events", eventsAddressSettings());
+                // stomp destinations use / so use that for wildcards too e.g. /topic/events/# for all region and server events
+                configuration.setWildCardConfiguration(new WildcardConfiguration().setDelimiter('/'));
+
+                configuration.addAddressSetting(EventTopics.ALL_EVENTS, eventsAddressSettings());
                 configuration.addAddressSetting("/queue/server_emissions", serverEmissionsAddressSettings());
 
                 configuration.addAcceptorConfiguration(
@@ -0,0 +1,61 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.system.artemis;
+
+import lombok.experimental.UtilityClass;
+import org.apache.activemq.artemis.api.core.ActiveMQBuffer;
+import org.apache.activemq.artemis.api.core.Message;
+import org.apache.activemq.artemis.api.core.SimpleString;
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.api.core.client.ActiveMQClient;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.activemq.artemis.core.remoting.impl.invm.InVMConnectorFactory;
+import org.apache.activemq.artemis.core.remoting.impl.invm.TransportConstants;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+/** For talking to the embedded message broker in-VM (rather than over the network). */
+@UtilityClass
+public class ArtemisInVmUtils {
+
+    private static final byte[] EMPTY_BODY = new byte[0];
+
+    public ServerLocator createServerLocator(int serverId) {
+        return ActiveMQClient.createServerLocatorWithoutHA(new TransportConfiguration(
+                InVMConnectorFactory.class.getName(), Map.of(TransportConstants.SERVER_ID_PROP_NAME, serverId)));
+    }
+
+    /** The body as bytes, whether it was sent as text (e.g. by a STOMP client over the network) or as bytes. */
+    public byte[] readBody(ClientMessage clientMessage) {
+        ActiveMQBuffer bodyBuffer = clientMessage.getBodyBuffer();
+        if (clientMessage.getType() == Message.TEXT_TYPE) {
+            SimpleString text = bodyBuffer.readNullableSimpleString();
+            return text == null ? EMPTY_BODY : text.toString().getBytes(StandardCharsets.UTF_8);
+        }
+        byte[] body = new byte[bodyBuffer.readableBytes()];
+        bodyBuffer.readBytes(body);
+        return body;
+    }
+}
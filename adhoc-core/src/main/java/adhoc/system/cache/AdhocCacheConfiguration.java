@@ -22,11 +22,42 @@
 
 package adhoc.system.cache;
 
+import org.springframework.boot.cache.autoconfigure.CacheManagerCustomizer;
 import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.util.List;
+
+/**
+ * Caches of what the kiosks (and manager) serve to the browsers, which rarely changes between polls.
+ * Each entity has a cache of single entities (by ID) and a cache of pages (by pageable).
+ * See {@link AdhocCacheEvictionListener} for how entries are evicted when the entities change.
+ */
 @Configuration
 @EnableCaching
 public class AdhocCacheConfiguration {
-    // TODO
+
+    public static final String FACTIONS = "factions";
+    public static final String FACTION_PAGES = "factionPages";
+    public static final String REGIONS = "regions";
+    public static final String REGION_PAGES = "regionPages";
+    public static final String AREAS = "areas";
+    public static final String AREA_PAGES = "areaPages";
+    public static final String OBJECTIVES = "objectives";
+    public static final String OBJECTIVE_PAGES = "objectivePages";
+    public static final String SERVERS = "servers";
+    public static final String SERVER_PAGES = "serverPages";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> adhocCacheManagerCustomizer() {
+        // create the caches up front (rather than on first use) so they all get cache metrics
+        return cacheManager -> cacheManager.setCacheNames(List.of(
+                FACTIONS, FACTION_PAGES,
+                REGIONS, REGION_PAGES,
+                AREAS, AREA_PAGES,
+                OBJECTIVES, OBJECTIVE_PAGES,
+                SERVERS, SERVER_PAGES));
+    }
 }
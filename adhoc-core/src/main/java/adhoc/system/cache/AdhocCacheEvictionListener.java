@@ -0,0 +1,305 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.system.cache;
+
+import adhoc.area.AreaEntity;
+import adhoc.faction.FactionEntity;
+import adhoc.region.RegionEntity;
+import adhoc.system.Event;
+import adhoc.system.EventTopics;
+import adhoc.system.artemis.ArtemisInVmUtils;
+import adhoc.system.transaction.TransactionUtils;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientProducer;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.springframework.boot.artemis.autoconfigure.ArtemisMode;
+import org.springframework.boot.artemis.autoconfigure.ArtemisProperties;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Evicts cache entries (including from the Hibernate second level cache) when the events which change them are seen,
+ * so every node (manager or kiosk) stays coherent with the others in the Artemis cluster. The events are consumed from the embedded broker in-VM, just like
+ * a browser subscribing to all events. When there is no embedded broker the caches only expire.
+ * <p>
+ * Only events of the types which affect a cache (see {@link Event#EVENT_TYPE_HEADER}) are parsed.
+ * <p>
+ * Changes which are not announced by an event (e.g. admin edits and faction scores) are instead announced
+ * to every node on {@link #CACHE_EVICTIONS_ADDRESS} using {@link #evictEverywhere(String...)}.
+ */
+@Component
+@Slf4j
+public class AdhocCacheEvictionListener implements SmartLifecycle {
+
+    /** Not a STOMP destination, so only the nodes themselves can send or receive on it. */
+    public static final String CACHE_EVICTIONS_ADDRESS = "cache-evictions";
+
+    private static final String CACHE_NAMES_PROPERTY = "adhoc-cache-names";
+
+    /** Entities in the second level cache which are also in one of our caches. */
+    private static final Map<String, Class<?>> CACHE_ENTITY_CLASSES = Map.of(
+            AdhocCacheConfiguration.FACTIONS, FactionEntity.class,
+            AdhocCacheConfiguration.REGIONS, RegionEntity.class,
+            AdhocCacheConfiguration.AREAS, AreaEntity.class);
+
+    private final ArtemisProperties artemisProperties;
+    private final CacheManager cacheManager;
+    private final ObjectMapper objectMapper;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private ServerLocator serverLocator;
+    private ClientSessionFactory sessionFactory;
+    private ClientSession session;
+    private ClientSession producerSession;
+    private ClientProducer producer;
+
+    private volatile boolean running;
+
+    public AdhocCacheEvictionListener(ArtemisProperties artemisProperties, CacheManager cacheManager, ObjectMapper objectMapper,
+                                      EntityManagerFactory entityManagerFactory) {
+        this.artemisProperties = artemisProperties;
+        this.cacheManager = cacheManager;
+        this.objectMapper = objectMapper;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @Override
+    public void start() {
+        if (artemisProperties.getMode() != ArtemisMode.EMBEDDED || !artemisProperties.getEmbedded().isEnabled()) {
+            log.info("No embedded message broker - caches will only expire");
+            return;
+        }
+
+        int serverId = artemisProperties.getEmbedded().getServerId();
+        try {
+            serverLocator = ArtemisInVmUtils.createServerLocator(serverId);
+            sessionFactory = serverLocator.createSessionFactory();
+            session = sessionFactory.createSession();
+
+            String eventsQueueName = "cache-eviction-" + UUID.randomUUID();
+            createTemporaryQueue(eventsQueueName, EventTopics.ALL_EVENTS);
+            ClientConsumer eventsConsumer = session.createConsumer(eventsQueueName);
+            eventsConsumer.setMessageHandler(this::handleMessage);
+
+            String cacheEvictionsQueueName = "cache-eviction-" + UUID.randomUUID();
+            createTemporaryQueue(cacheEvictionsQueueName, CACHE_EVICTIONS_ADDRESS);
+            ClientConsumer cacheEvictionsConsumer = session.createConsumer(cacheEvictionsQueueName);
+            cacheEvictionsConsumer.setMessageHandler(this::handleCacheEvictionMessage);
+
+            session.start();
+
+            // sessions are not thread safe so sending (from any thread) gets its own
+            producerSession = sessionFactory.createSession();
+            producer = producerSession.createProducer(CACHE_EVICTIONS_ADDRESS);
+
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to listen for cache evicting events! serverId=" + serverId, e);
+        }
+
+        running = true;
+    }
+
+    private void createTemporaryQueue(String queueName, String address) throws ActiveMQException {
+        session.createQueue(QueueConfiguration.of(queueName)
+                .setAddress(address)
+                .setRoutingType(RoutingType.MULTICAST)
+                .setDurable(false)
+                .setTemporary(true));
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+
+        try {
+            if (producerSession != null) {
+                producerSession.close();
+            }
+            if (session != null) {
+                session.close();
+            }
+        } catch (ActiveMQException e) {
+            log.warn("Failed to close cache eviction session!", e);
+        }
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+        if (serverLocator != null) {
+            serverLocator.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void handleMessage(ClientMessage clientMessage) {
+        try {
+            String eventType = clientMessage.getStringProperty(Event.EVENT_TYPE_HEADER);
+            if (eventType != null && isEvicting(eventType)) {
+                evict(objectMapper.readTree(ArtemisInVmUtils.readBody(clientMessage)));
+            }
+
+            clientMessage.acknowledge();
+
+        } catch (Exception e) {
+            // the entries will still expire eventually
+            log.warn("Failed to evict caches for event! address={}", clientMessage.getAddress(), e);
+        }
+    }
+
+    /**
+     * Clear the named caches (and the matching entities from the second level cache) on every node once the current transaction commits.
+     * For changes which are not announced by an event. When there is no embedded broker only this node's caches are cleared.
+     */
+    public void evictEverywhere(String... cacheNames) {
+        List<String> names = List.of(cacheNames);
+        TransactionUtils.afterCommit(() -> {
+            if (!running) {
+                clearAll(names);
+                return;
+            }
+            try {
+                synchronized (producer) {
+                    ClientMessage clientMessage = producerSession.createMessage(false);
+                    clientMessage.putStringProperty(CACHE_NAMES_PROPERTY, String.join(",", names));
+                    producer.send(clientMessage);
+                }
+            } catch (ActiveMQException e) {
+                // the entries will still expire eventually
+                log.warn("Failed to send cache eviction! cacheNames={}", names, e);
+                clearAll(names);
+            }
+        });
+    }
+
+    private void handleCacheEvictionMessage(ClientMessage clientMessage) {
+        try {
+            String cacheNames = clientMessage.getStringProperty(CACHE_NAMES_PROPERTY);
+            if (cacheNames != null) {
+                clearAll(List.of(cacheNames.split(",")));
+            }
+
+            clientMessage.acknowledge();
+
+        } catch (Exception e) {
+            // the entries will still expire eventually
+            log.warn("Failed to evict caches! cacheNames={}", clientMessage.getStringProperty(CACHE_NAMES_PROPERTY), e);
+        }
+    }
+
+    private void clearAll(List<String> cacheNames) {
+        log.trace("Clearing caches: cacheNames={}", cacheNames);
+
+        boolean entitiesEvicted = false;
+        for (String cacheName : cacheNames) {
+            clear(cacheName);
+            Class<?> entityClass = CACHE_ENTITY_CLASSES.get(cacheName);
+            if (entityClass != null) {
+                entityManagerFactory.getCache().evict(entityClass);
+                entitiesEvicted = true;
+            }
+        }
+        // the changes may have been written outside of Hibernate (e.g. faction scores) so cached query results can't be trusted either
+        if (entitiesEvicted) {
+            entityManagerFactory.getCache().unwrap(org.hibernate.Cache.class).evictQueryRegions();
+        }
+    }
+
+    private static boolean isEvicting(String eventType) {
+        return switch (eventType) {
+            case "ObjectiveTaken", "ServerUpdated", "ServerStarted", "UniverseUpdated" -> true;
+            default -> false;
+        };
+    }
+
+    private void evict(JsonNode event) {
+        String eventType = event.path("eventType").asString();
+        log.trace("Evicting caches for event: eventType={}", eventType);
+
+        switch (eventType) {
+            case "ObjectiveTaken" -> {
+                evict(AdhocCacheConfiguration.OBJECTIVES, event.path("objectiveId").asLong());
+                clear(AdhocCacheConfiguration.OBJECTIVE_PAGES);
+                // the faction is also updated (as it has a new objective)
+                evict(AdhocCacheConfiguration.FACTIONS, event.path("factionId").asLong());
+                clear(AdhocCacheConfiguration.FACTION_PAGES);
+                entityManagerFactory.getCache().evict(FactionEntity.class, event.path("factionId").asLong());
+            }
+            case "ServerUpdated" -> {
+                evict(AdhocCacheConfiguration.SERVERS, event.path("serverId").asLong());
+                clear(AdhocCacheConfiguration.SERVER_PAGES);
+                // areas may have moved to or from this server (and we don't know which areas it had before)
+                clear(AdhocCacheConfiguration.AREAS);
+                clear(AdhocCacheConfiguration.AREA_PAGES);
+                evict(AdhocCacheConfiguration.REGIONS, event.path("regionId").asLong());
+                clear(AdhocCacheConfiguration.REGION_PAGES);
+                entityManagerFactory.getCache().evict(AreaEntity.class);
+                entityManagerFactory.getCache().evict(RegionEntity.class, event.path("regionId").asLong());
+            }
+            case "ServerStarted" -> {
+                evict(AdhocCacheConfiguration.SERVERS, event.path("serverId").asLong());
+                clear(AdhocCacheConfiguration.SERVER_PAGES);
+            }
+            case "UniverseUpdated" -> {
+                for (String cacheName : cacheManager.getCacheNames()) {
+                    clear(cacheName);
+                }
+                entityManagerFactory.getCache().evictAll();
+            }
+            default -> {
+            }
+        }
+    }
+
+    private void evict(String cacheName, Long key) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.evict(key);
+        }
+    }
+
+    private void clear(String cacheName) {
+        Cache cache = cacheManager.getCache(cacheName);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+}
@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.system.event;
+
+import adhoc.system.EventTopics;
+import adhoc.system.artemis.AdhocArtemisBrokerMessageHandler;
+import adhoc.system.artemis.ArtemisInVmUtils;
+import adhoc.system.properties.CoreProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.activemq.artemis.api.core.ActiveMQException;
+import org.apache.activemq.artemis.api.core.QueueConfiguration;
+import org.apache.activemq.artemis.api.core.RoutingType;
+import org.apache.activemq.artemis.api.core.client.ClientConsumer;
+import org.apache.activemq.artemis.api.core.client.ClientMessage;
+import org.apache.activemq.artemis.api.core.client.ClientSession;
+import org.apache.activemq.artemis.api.core.client.ClientSessionFactory;
+import org.apache.activemq.artemis.api.core.client.ServerLocator;
+import org.apache.commons.logging.Log;
+import org.apache.commons.logging.LogFactory;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.artemis.autoconfigure.ArtemisMode;
+import org.springframework.boot.artemis.autoconfigure.ArtemisProperties;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.OrderedMessageChannelDecorator;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeType;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Keeps the most recent events (those with a {@link #SEQUENCE_HEADER}) sent anywhere in the Artemis cluster.
+ * They are consumed from the embedded broker in-VM (like {@link adhoc.system.cache.AdhocCacheEvictionListener}) so that
+ * events sent while this node has no subscribers (e.g. while its clients are reconnecting) are kept too.
+ * When there is no embedded broker only the events this node sends to its clients are kept.
+ * <p>
+ * A client which reconnects can subscribe with a {@link #SINCE_HEADER} of the last sequence number it received
+ * and will be sent just the events it missed for that subscription. If this node no longer has all the events since then
+ * (or has restarted) the client is sent an EventReplayIncomplete event instead, and should then reload everything.
+ * <p>
+ * The missed events are sent once the broker has handled the subscription, in order via the same per-session channel as the
+ * broker uses where possible (see {@link AdhocArtemisBrokerMessageHandler#getSessionOutboundChannel(String)}).
+ * Events the broker sends to the new subscription in the meantime may arrive before the replayed events.
+ */
+@Component
+@Slf4j
+public class AdhocEventReplayChannelInterceptor implements ExecutorChannelInterceptor, SmartLifecycle {
+
+    public static final String SEQUENCE_HEADER = "adhoc-sequence";
+    public static final String SINCE_HEADER = "adhoc-since";
+
+    private static final Log ORDERED_LOG = LogFactory.getLog(AdhocEventReplayChannelInterceptor.class);
+
+    private static final byte[] REPLAY_INCOMPLETE_PAYLOAD = "{\"eventType\":\"EventReplayIncomplete\"}".getBytes(StandardCharsets.UTF_8);
+
+    private final CoreProperties coreProperties;
+    private final ArtemisProperties artemisProperties;
+    private final MessageChannel clientOutboundChannel;
+
+    private record BufferedEvent(String destination, MimeType contentType, byte[] payload) {
+    }
+
+    // the same event is seen once per subscriber, and not always in sequence order, so keep them keyed by sequence number
+    private final NavigableMap<Long, BufferedEvent> bufferedEvents = new TreeMap<>();
+
+    // sequence after which all events are still buffered (sequence numbers aren't contiguous as not every event is seen,
+    // so this tracks the latest event no longer buffered rather than looking for gaps)
+    private long completeAfter = Long.MAX_VALUE;
+
+    private ServerLocator serverLocator;
+    private ClientSessionFactory sessionFactory;
+    private ClientSession session;
+
+    private volatile boolean running;
+
+    public AdhocEventReplayChannelInterceptor(CoreProperties coreProperties, ArtemisProperties artemisProperties,
+                                              @Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel) {
+        this.coreProperties = coreProperties;
+        this.artemisProperties = artemisProperties;
+        this.clientOutboundChannel = clientOutboundChannel;
+    }
+
+    @Override
+    public void start() {
+        if (artemisProperties.getMode() != ArtemisMode.EMBEDDED || !artemisProperties.getEmbedded().isEnabled()) {
+            log.info("No embedded message broker - only events sent to this node's clients can be replayed");
+            return;
+        }
+
+        int serverId = artemisProperties.getEmbedded().getServerId();
+        try {
+            serverLocator = ArtemisInVmUtils.createServerLocator(serverId);
+            sessionFactory = serverLocator.createSessionFactory();
+            session = sessionFactory.createSession();
+
+            String queueName = "event-replay-" + UUID.randomUUID();
+            session.createQueue(QueueConfiguration.of(queueName)
+                    .setAddress(EventTopics.ALL_EVENTS)
+                    .setRoutingType(RoutingType.MULTICAST)
+                    .setDurable(false)
+                    .setTemporary(true));
+            ClientConsumer consumer = session.createConsumer(queueName);
+            consumer.setMessageHandler(this::handleMessage);
+
+            session.start();
+
+        } catch (Exception e) {
+            throw new IllegalStateException("Failed to listen for events to replay! serverId=" + serverId, e);
+        }
+
+        running = true;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+
+        try {
+            if (session != null) {
+                session.close();
+            }
+        } catch (ActiveMQException e) {
+            log.warn("Failed to close event replay session!", e);
+        }
+        if (sessionFactory != null) {
+            sessionFactory.close();
+        }
+        if (serverLocator != null) {
+            serverLocator.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void handleMessage(ClientMessage clientMessage) {
+        try {
+            String sequence = clientMessage.getStringProperty(SEQUENCE_HEADER);
+            if (sequence != null) {
+                String contentType = clientMessage.getStringProperty(AdhocArtemisBrokerMessageHandler.CONTENT_TYPE_PROPERTY);
+                bufferEvent(Long.parseLong(sequence), new BufferedEvent(clientMessage.getAddress(),
+                        contentType == null ? null : MimeType.valueOf(contentType), ArtemisInVmUtils.readBody(clientMessage)));
+            }
+
+            clientMessage.acknowledge();
+
+        } catch (Exception e) {
+            // a client missing this event will be told its replay is incomplete (once it is no longer buffered)
+            log.warn("Failed to buffer event! address={}", clientMessage.getAddress(), e);
+        }
+    }
+
+    @Override
+    public Message<?> preSend(@NonNull Message<?> message, @NonNull MessageChannel channel) {
+        if (running) {
+            return message; // every event is already buffered as it passes through the broker
+        }
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+
+        if (accessor.getMessageType() == SimpMessageType.MESSAGE
+                && message.getPayload() instanceof byte[] payload) {
+
+            String sequence = accessor.getFirstNativeHeader(SEQUENCE_HEADER);
+            if (sequence != null) {
+                bufferEvent(Long.parseLong(sequence), new BufferedEvent(accessor.getDestination(), accessor.getContentType(), payload));
+            }
+        }
+
+        return message;
+    }
+
+    /** Replays once the broker has subscribed (the messages of a session are handled in order, see {@link adhoc.system.AdhocSessionOrderedExecutor}). */
+    @Override
+    public void afterMessageHandled(@NonNull Message<?> message, @NonNull MessageChannel channel, @NonNull MessageHandler handler, Exception ex) {
+        if (!(handler instanceof AbstractBrokerMessageHandler) || ex != null) {
+            return;
+        }
+
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+
+        if (accessor.getCommand() == StompCommand.SUBSCRIBE) {
+            String since = accessor.getFirstNativeHeader(SINCE_HEADER);
+            if (since != null) {
+                replayEvents(handler, accessor.getSessionId(), accessor.getSubscriptionId(), accessor.getDestination(), Long.parseLong(since));
+            }
+        }
+    }
+
+    private synchronized void bufferEvent(long sequence, BufferedEvent bufferedEvent) {
+        if (bufferedEvents.putIfAbsent(sequence, bufferedEvent) == null) {
+            if (completeAfter == Long.MAX_VALUE) {
+                // nothing before the first event seen by this node can be replayed
+                completeAfter = sequence - 1;
+            }
+            while (bufferedEvents.size() > coreProperties.getEventReplayBufferSize()) {
+                completeAfter = Math.max(completeAfter, bufferedEvents.pollFirstEntry().getKey());
+            }
+        }
+    }
+
+    private void replayEvents(MessageHandler brokerHandler, String sessionId, String subscriptionId, String subscriptionDestination, long since) {
+        boolean complete;
+        List<Map.Entry<Long, BufferedEvent>> missedEvents;
+        synchronized (this) {
+            complete = since >= completeAfter;
+            missedEvents = complete ? new ArrayList<>(bufferedEvents.tailMap(since, false).entrySet()) : List.of();
+        }
+
+        MessageChannel sessionOutboundChannel = brokerHandler instanceof AdhocArtemisBrokerMessageHandler artemisBrokerHandler
+                ? artemisBrokerHandler.getSessionOutboundChannel(sessionId)
+                // at least keep the replayed events in order (the broker's own per-session channel isn't accessible)
+                : new OrderedMessageChannelDecorator(clientOutboundChannel, ORDERED_LOG);
+
+        if (!complete) {
+            log.debug("Event replay incomplete: sessionId={} subscriptionDestination={} since={} completeAfter={}",
+                    sessionId, subscriptionDestination, since, completeAfter);
+            sendToSubscription(sessionOutboundChannel, sessionId, subscriptionId, subscriptionDestination, null, MimeTypeUtils.APPLICATION_JSON, REPLAY_INCOMPLETE_PAYLOAD);
+            return;
+        }
+
+        int replayed = 0;
+        for (Map.Entry<Long, BufferedEvent> missedEvent : missedEvents) {
+            BufferedEvent bufferedEvent = missedEvent.getValue();
+            if (matches(subscriptionDestination, bufferedEvent.destination())) {
+                sendToSubscription(sessionOutboundChannel, sessionId, subscriptionId, bufferedEvent.destination(), missedEvent.getKey(), bufferedEvent.contentType(), bufferedEvent.payload());
+                replayed++;
+            }
+        }
+
+        log.debug("Event replay: sessionId={} subscriptionDestination={} since={} replayed={}", sessionId, subscriptionDestination, since, replayed);
+    }
+
+    private static void sendToSubscription(MessageChannel sessionOutboundChannel, String sessionId, String subscriptionId, String destination,
+                                           Long sequence, MimeType contentType, byte[] payload) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        if (contentType != null) {
+            accessor.setContentType(contentType);
+        }
+        if (sequence != null) {
+            accessor.setNativeHeader(SEQUENCE_HEADER, sequence.toString());
+        }
+
+        sessionOutboundChannel.send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+    }
+
+    /** Subscriptions may use a trailing /# wildcard (see {@link adhoc.system.EventTopics#ALL_EVENTS}). */
+    private static boolean matches(String subscriptionDestination, String destination) {
+        if (subscriptionDestination.endsWith("/#")) {
+            String prefix = subscriptionDestination.substring(0, subscriptionDestination.length() - 2);
+            return destination.equals(prefix) || destination.startsWith(prefix + "/");
+        }
+        return subscriptionDestination.equals(destination);
+    }
+}
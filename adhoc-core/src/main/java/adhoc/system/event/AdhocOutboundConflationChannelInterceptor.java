@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.system.event;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NonNull;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Provides each session with its own ordered queue of messages waiting to be sent to it (see {@link #createSessionChannel(String)}),
+ * used instead of the broker's usual ordered channel, and keeps track of how many messages are waiting in each.
+ * <p>
+ * Messages are passed on to the client outbound channel one at a time, the next once the previous has been handled
+ * (so messages only wait here, where they can still be skipped). A queued event with a {@link #CONFLATION_KEY_HEADER}
+ * is skipped when a later event with the same key is queued for the same subscription - so a session which is falling behind
+ * is only sent the latest state of e.g. a server.
+ * <p>
+ * Sessions which fall too far behind are disconnected by the websocket transport (see the send limits in
+ * {@link adhoc.system.properties.CoreProperties}) and resume from the last event they received when they reconnect
+ * (see {@link AdhocEventReplayChannelInterceptor}).
+ * <p>
+ * Only used with the in-VM broker (adhoc.message-broker.in-vm), as the relay and simple broker queue the messages of each session
+ * in Spring's own ordered channel where they can't be skipped or counted.
+ */
+@Component
+@Slf4j
+public class AdhocOutboundConflationChannelInterceptor implements ExecutorChannelInterceptor {
+
+    public static final String CONFLATION_KEY_HEADER = "adhoc-conflation-key";
+
+    // task to send the next message of the session once this one has been handled
+    private static final String NEXT_MESSAGE_TASK_HEADER = "adhocNextMessageTask";
+
+    private record LatestKey(String subscriptionId, String destination, String conflationKey) {
+    }
+
+    private final MessageChannel clientOutboundChannel;
+
+    // by session ID
+    private final Map<String, SessionChannel> sessionChannels = new ConcurrentHashMap<>();
+
+    private final DistributionSummary queueDepthSummary;
+    private final Counter supersededCounter;
+
+    public AdhocOutboundConflationChannelInterceptor(@Lazy @Qualifier("clientOutboundChannel") MessageChannel clientOutboundChannel,
+                                                     MeterRegistry meterRegistry) {
+        this.clientOutboundChannel = clientOutboundChannel;
+
+        queueDepthSummary = DistributionSummary.builder("adhoc.websocket.outbound.queue.depth")
+                .description("Messages waiting to be sent to a session (including the message just queued)")
+                .register(meterRegistry);
+        Gauge.builder("adhoc.websocket.outbound.queue.depth.max", this, AdhocOutboundConflationChannelInterceptor::getMaxQueueDepth)
+                .description("Most messages waiting to be sent to any one session")
+                .register(meterRegistry);
+        Gauge.builder("adhoc.websocket.outbound.queue.depth.total", this, AdhocOutboundConflationChannelInterceptor::getTotalQueueDepth)
+                .description("Messages waiting to be sent to all sessions")
+                .register(meterRegistry);
+        supersededCounter = Counter.builder("adhoc.websocket.outbound.superseded")
+                .description("Messages not sent as a later message for the same session superseded them")
+                .register(meterRegistry);
+    }
+
+    /** A new channel to send the messages of a session through (the same one must be used for all of them to keep them in order). */
+    public MessageChannel createSessionChannel(String sessionId) {
+        SessionChannel sessionChannel = new SessionChannel(sessionId);
+        sessionChannels.put(sessionId, sessionChannel);
+        return sessionChannel;
+    }
+
+    @Override
+    public void afterMessageHandled(@NonNull Message<?> message, @NonNull MessageChannel channel, @NonNull MessageHandler handler, Exception ex) {
+        if (message.getHeaders().get(NEXT_MESSAGE_TASK_HEADER) instanceof Runnable nextMessageTask) {
+            nextMessageTask.run();
+        }
+    }
+
+    @EventListener
+    public void handleSessionDisconnect(SessionDisconnectEvent event) {
+        sessionChannels.remove(event.getSessionId());
+    }
+
+    private int getMaxQueueDepth() {
+        return sessionChannels.values().stream().mapToInt(SessionChannel::getQueueDepth).max().orElse(0);
+    }
+
+    private int getTotalQueueDepth() {
+        return sessionChannels.values().stream().mapToInt(SessionChannel::getQueueDepth).sum();
+    }
+
+    private static LatestKey latestKey(Message<?> message) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+        if (accessor.getMessageType() != SimpMessageType.MESSAGE) {
+            return null;
+        }
+        String conflationKey = accessor.getFirstNativeHeader(CONFLATION_KEY_HEADER);
+        return conflationKey == null ? null : new LatestKey(accessor.getSubscriptionId(), accessor.getDestination(), conflationKey);
+    }
+
+    private class SessionChannel implements MessageChannel {
+
+        private final String sessionId;
+
+        private final Deque<Message<?>> messages = new ArrayDeque<>();
+        private boolean sendInProgress;
+
+        private SessionChannel(String sessionId) {
+            this.sessionId = sessionId;
+        }
+
+        @Override
+        public boolean send(@NonNull Message<?> message, long timeout) {
+            LatestKey latestKey = latestKey(message);
+
+            int queueDepth;
+            boolean startSending;
+            synchronized (this) {
+                if (latestKey != null) {
+                    int queued = messages.size();
+                    messages.removeIf(queuedMessage -> latestKey.equals(latestKey(queuedMessage)));
+                    if (messages.size() < queued) {
+                        log.trace("Skipping superseded messages: sessionId={} destination={} conflationKey={} skipped={}",
+                                sessionId, latestKey.destination(), latestKey.conflationKey(), queued - messages.size());
+                        supersededCounter.increment(queued - messages.size());
+                    }
+                }
+                messages.add(message);
+
+                queueDepth = messages.size() + (sendInProgress ? 1 : 0);
+                startSending = !sendInProgress;
+                sendInProgress = true;
+            }
+
+            queueDepthSummary.record(queueDepth);
+
+            if (startSending) {
+                sendNextMessage();
+            }
+            return true;
+        }
+
+        private void sendNextMessage() {
+            Message<?> message;
+            synchronized (this) {
+                message = messages.poll();
+                if (message == null) {
+                    sendInProgress = false;
+                    return;
+                }
+            }
+
+            StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+            accessor.setHeader(NEXT_MESSAGE_TASK_HEADER, (Runnable) this::sendNextMessage);
+
+            boolean sent = false;
+            try {
+                sent = clientOutboundChannel.send(MessageBuilder.createMessage(message.getPayload(), accessor.getMessageHeaders()));
+            } catch (Exception e) {
+                log.warn("Failed to send message! sessionId={}", sessionId, e);
+            }
+            if (!sent) {
+                // it won't be handled so carry on with the next one
+                sendNextMessage();
+            }
+        }
+
+        private synchronized int getQueueDepth() {
+            return messages.size() + (sendInProgress ? 1 : 0);
+        }
+    }
+}
@@ -33,6 +33,7 @@ import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 import org.springframework.stereotype.Component;
 
 import java.io.IOException;
+import java.time.Duration;
 import java.util.List;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
@@ -57,6 +58,9 @@ public class CoreProperties {
     private int messageBrokerStompPort;
     @Value("${adhoc.message-broker.core-port}")
     private int messageBrokerCorePort;
+    // when the message broker is embedded, talk to it directly in the same JVM rather than relaying STOMP over TCP
+    @Value("${adhoc.message-broker.in-vm}")
+    private boolean messageBrokerInVm;
 
     @Value("${adhoc.manager-message-broker-host}")
     private String managerMessageBrokerHost;
@@ -100,6 +104,28 @@ public class CoreProperties {
     @Value("${adhoc.quick-login-password-encryption-key}")
     private String quickLoginPasswordEncryptionKey;
 
+    // only the manager receives the pawn reports from the servers so only it can serve pawns from memory
+    @Value("${adhoc.pawn-store.enabled}")
+    private boolean pawnStoreEnabled;
+
+    // how many of the most recent events each node keeps so reconnecting clients can be sent just the events they missed
+    @Value("${adhoc.event-replay.buffer-size}")
+    private int eventReplayBufferSize;
+
+    // browser sessions which take longer than this to send a message to, or which have more than this many bytes waiting to be sent,
+    // are disconnected (they can then reconnect and pick up from the last event they received)
+    @Value("${adhoc.websocket.send-time-limit}")
+    private Duration websocketSendTimeLimit;
+    @Value("${adhoc.websocket.send-buffer-size-limit}")
+    private int websocketSendBufferSizeLimit;
+
+    // how many users each node keeps in memory for the overall leaderboard and for each faction's leaderboard,
+    // and how often those are rebuilt from the database (to pick up score changes made elsewhere)
+    @Value("${adhoc.leaderboard.size}")
+    private int leaderboardSize;
+    @Value("${adhoc.leaderboard.rebuild-interval}")
+    private Duration leaderboardRebuildInterval;
+
     @PostConstruct
     public void postConstruct() {
         // TODO: also find region maps
@@ -126,6 +152,7 @@ public class CoreProperties {
         log.info("serverPortHttp={}", serverPortHttp);
         log.info("featureFlags={}", featureFlags);
         log.info("messageBrokerHost={} messageBrokerStompPort={} messageBrokerCorePort={}", messageBrokerHost, messageBrokerStompPort, messageBrokerCorePort);
+        log.info("messageBrokerInVm={}", messageBrokerInVm);
         log.info("managerMessageBrokerHost={} managerMessageBrokerCorePort={}", managerMessageBrokerHost, managerMessageBrokerCorePort);
         log.info("kioskMessageBrokerHost={} kioskMessageBrokerCorePort={}", kioskMessageBrokerHost, kioskMessageBrokerCorePort);
         log.info("managerHost={} kioskHost={}", managerHost, kioskHost);
@@ -134,6 +161,10 @@ public class CoreProperties {
         log.info("thirdPartyDomains={}", thirdPartyDomains);
         log.info("unrealProjectName={} unrealProjectRegionMaps={}", unrealProjectName, unrealProjectRegionMaps);
         log.info("serverBasicAuthUsername={} serverBasicAuthPassword?={}", serverBasicAuthUsername, !Strings.isNullOrEmpty(serverBasicAuthPassword));
+        log.info("pawnStoreEnabled={}", pawnStoreEnabled);
+        log.info("eventReplayBufferSize={}", eventReplayBufferSize);
+        log.info("websocketSendTimeLimit={} websocketSendBufferSizeLimit={}", websocketSendTimeLimit, websocketSendBufferSizeLimit);
+        log.info("leaderboardSize={} leaderboardRebuildInterval={}", leaderboardSize, leaderboardRebuildInterval);
         //log.info("quickLoginPasswordEncryptionKey?={}", !Strings.isNullOrEmpty(quickLoginPasswordEncryptionKey));
     }
 }
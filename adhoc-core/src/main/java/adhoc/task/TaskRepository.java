@@ -24,16 +24,10 @@ package adhoc.task;
 
 import org.springframework.data.jpa.repository.JpaRepository;
 
-import java.time.LocalDateTime;
-import java.util.Collection;
 import java.util.Optional;
 
 // TODO
 public interface TaskRepository extends JpaRepository<TaskEntity, Long> {
 
     Optional<TaskEntity> findByTaskIdentifier(String taskIdentifier);
-
-    void deleteByTaskIdentifierNotInAndSeenBefore(Collection<String> taskIdentifiers, LocalDateTime seenBefore);
-
-    void deleteByTaskIdentifierNotInAndInitiatedBefore(Collection<String> taskIdentifiers, LocalDateTime initiatedBefore);
 }
@@ -32,13 +32,15 @@ import java.util.Optional;
 // TODO: common
 public interface ServerTaskRepository extends JpaRepository<ServerTaskEntity, Long> {
 
-    @Query("select st.taskIdentifier " +
+    @Query("select st " +
             "from ServerTask st " +
             "where st.initiated < ?1 " +
             "and not exists (from Server s where s.enabled and s.id = st.serverId)")
-    List<String> findTaskIdentifierByInitiatedBeforeAndServerNotEnabled(LocalDateTime initiatedBefore);
+    List<ServerTaskEntity> findByInitiatedBeforeAndServerNotEnabled(LocalDateTime initiatedBefore);
 
     Optional<ServerTaskEntity> findFirstByServerId(Long serverId);
 
+    Optional<ServerTaskEntity> findByTaskIdentifier(String taskIdentifier);
+
     void deleteByTaskIdentifier(String taskIdentifier);
 }
@@ -22,6 +22,7 @@
 
 package adhoc.universe;
 
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.GeneratedValue;
@@ -33,6 +34,8 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
 import lombok.ToString;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.DynamicInsert;
 import org.hibernate.annotations.DynamicUpdate;
 
@@ -41,6 +44,8 @@ import org.hibernate.annotations.DynamicUpdate;
  * Currently, we can only have one universe per database.
  */
 @Entity(name = "Universe")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "universe")
 @DynamicInsert
 @DynamicUpdate
 @NoArgsConstructor
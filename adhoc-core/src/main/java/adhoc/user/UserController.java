@@ -23,6 +23,7 @@
 package adhoc.user;
 
 import adhoc.system.auth.AdhocUserDetails;
+import adhoc.system.keyset.KeysetPageDto;
 import adhoc.user.current.CurrentUserDto;
 import adhoc.user.current.CurrentUserService;
 import adhoc.user.navigate.UserNavigateRequest;
@@ -47,6 +48,7 @@ import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.net.URI;
@@ -67,6 +69,12 @@ public class UserController {
         return userService.findUsers(pageable);
     }
 
+    @GetMapping("/users/scroll")
+    public KeysetPageDto<UserDto> getUsersScroll(@RequestParam(required = false) String after,
+                                                 @RequestParam(defaultValue = "20") int size) {
+        return userService.findUsersByScore(after, size);
+    }
+
     @GetMapping("/users/{userId}")
     public ResponseEntity<UserDto> getUser(@PathVariable Long userId) {
         return ResponseEntity.of(userService.findUser(userId));
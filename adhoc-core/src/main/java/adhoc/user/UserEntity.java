@@ -24,6 +24,7 @@ package adhoc.user;
 
 import adhoc.faction.FactionEntity;
 import adhoc.pawn.PawnEntity;
+import adhoc.score.ScoreDecayUtils;
 import adhoc.user.state.UserStateEntity;
 import com.google.common.base.Verify;
 import jakarta.persistence.CascadeType;
@@ -71,7 +72,9 @@ import java.util.stream.Collectors;
 @Entity(name = "User")
 @Table(name = "user_", indexes = {
         @Index(name = "idx_user_email", columnList = "email"),
-        @Index(name = "idx_user_score", columnList = "score"),
+        @Index(name = "idx_user_score_id", columnList = "score, id"),
+        @Index(name = "idx_user_faction_id_score_id", columnList = "faction_id, score, id"),
+        @Index(name = "idx_user_score_normalised", columnList = "score_normalised"),
         @Index(name = "idx_user_created", columnList = "created"),
         @Index(name = "idx_user_updated", columnList = "updated"),
         @Index(name = "idx_user_last_login", columnList = "last_login")
@@ -117,9 +120,13 @@ public class UserEntity {
     @ManyToOne(optional = false, fetch = FetchType.LAZY)
     private FactionEntity faction;
 
+    /** Score as it was at the time it was last normalised - see {@link ScoreDecayUtils}. */
     @Column(nullable = false)
     private BigDecimal score;
 
+    @Column(nullable = false)
+    private LocalDateTime scoreNormalised;
+
     @Column(nullable = false)
     private String roles;
 
@@ -139,6 +146,7 @@ public class UserEntity {
         this.roles = roles;
         this.faction = faction;
         this.score = BigDecimal.valueOf(score);
+        this.scoreNormalised = ScoreDecayUtils.normalisedTime(LocalDateTime.now());
     }
 
     public UserStateEntity getState() {
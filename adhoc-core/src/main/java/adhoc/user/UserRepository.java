@@ -22,13 +22,16 @@
 
 package adhoc.user;
 
+import adhoc.leaderboard.LeaderboardEntry;
 import adhoc.server.ServerEntity;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Stream;
@@ -45,6 +48,30 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
     Stream<UserEntity> streamForWriteByStateServerNotNull();
 
+    List<UserEntity> findByOrderByScoreDescIdDesc(Limit limit);
+
+    // the redundant score <= ?1 gives the (score, id) index a range to seek to
+    @Query("select u from User u " +
+            "where u.score <= ?1 and (u.score < ?1 or u.id < ?2) " +
+            "order by u.score desc, u.id desc")
+    List<UserEntity> findBy_ScoreAndIdBefore_OrderByScoreDescIdDesc(BigDecimal score, Long id, Limit limit);
+
+    @Query("select new adhoc.leaderboard.LeaderboardEntry(u.id, u.name, u.human, u.faction.id, u.score, u.scoreNormalised) " +
+            "from User u " +
+            "order by u.score desc, u.id desc")
+    List<LeaderboardEntry> findLeaderboardEntries_OrderByScoreDescIdDesc(Limit limit);
+
+    @Query("select new adhoc.leaderboard.LeaderboardEntry(u.id, u.name, u.human, u.faction.id, u.score, u.scoreNormalised) " +
+            "from User u " +
+            "where u.faction.id = ?1 " +
+            "order by u.score desc, u.id desc")
+    List<LeaderboardEntry> findLeaderboardEntriesByFactionId_OrderByScoreDescIdDesc(Long factionId, Limit limit);
+
+    @Query("select new adhoc.leaderboard.LeaderboardEntry(u.id, u.name, u.human, u.faction.id, u.score, u.scoreNormalised) " +
+            "from User u " +
+            "where u.id in ?1")
+    List<LeaderboardEntry> findLeaderboardEntriesByIdIn(Collection<Long> ids);
+
     @Query("select u.id from User u where u.created < ?1 and u.state.seen is null and u.password is null and u.pawns is empty")
     List<Long> findIdsByCreatedBeforeAndSeenIsNullAndPasswordIsNullAndPawnsIsEmpty(LocalDateTime createdBefore);
 
@@ -56,10 +83,6 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
             "where u.human and ((u.state.destinationServer = ?1 and u.state.navigated > ?2) or (u.state.server = ?1))")
     boolean existsByHumanTrueAnd_DestinationServerAndNavigatedAfterOrServer_(ServerEntity server, LocalDateTime navigatedAfter);
 
-    @Modifying
-    @Query("update User u set u.version = u.version + 1, u.score = u.score + ?1 where u.id = ?2")
-    void updateScoreAddById(BigDecimal scoreAdd, Long id);
-
     @Modifying
     @Query("update User u " +
             "set u.version = u.version + 1, " +
@@ -68,7 +91,14 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
             "    and (select us.seen from u.state us) > ?4")
     void updateScoreAddByFactionIdAndStateSeenAfter(BigDecimal scoreAddHuman, BigDecimal scoreAddNonHuman, Long factionId, LocalDateTime seenAfter);
 
+    @Query("select distinct u.scoreNormalised from User u where u.scoreNormalised <> ?1")
+    List<LocalDateTime> findDistinctScoreNormalisedByScoreNormalisedNot(LocalDateTime scoreNormalised);
+
     @Modifying
-    @Query("update User u set u.version = u.version + 1, u.score = u.score * ?1")
-    void updateScoreMultiply(BigDecimal scoreMultiply);
+    @Query("update User u " +
+            "set u.version = u.version + 1, " +
+            "    u.score = u.score * ?1, " +
+            "    u.scoreNormalised = ?2 " +
+            "where u.scoreNormalised = ?3")
+    void updateScoreMultiplyAndScoreNormalisedByScoreNormalised(BigDecimal scoreMultiply, LocalDateTime scoreNormalised, LocalDateTime oldScoreNormalised);
 }
@@ -23,20 +23,28 @@
 package adhoc.user;
 
 import adhoc.region.RegionEntity;
+import adhoc.score.ScoreDecayUtils;
 import adhoc.server.ServerEntity;
+import adhoc.system.keyset.KeysetPageDto;
 import adhoc.system.properties.CoreProperties;
 import adhoc.user.state.UserStateEntity;
+import com.google.common.base.Preconditions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.LockAcquisitionException;
 import org.springframework.dao.TransientDataAccessException;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.resilience.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.math.MathContext;
 import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -55,6 +63,53 @@ public class UserService {
         return userRepository.findAll(pageable).map(this::toDto);
     }
 
+    /**
+     * Users by score (highest first) a page at a time - the after cursor is the stored score and ID of the last user of the previous page,
+     * along with the time that score was normalised to. If the scores have been rebased since, the cursor's score is rebased the same way
+     * (though the user at the boundary may then be repeated or skipped if the rebased scores are rounded differently).
+     */
+    @Transactional(readOnly = true)
+    public KeysetPageDto<UserDto> findUsersByScore(String after, int size) {
+        Preconditions.checkArgument(size >= 1 && size <= 1000, "size must be 1 to 1000: %s", size);
+
+        // one more than asked for, to know whether there is a next page
+        Limit limit = Limit.of(size + 1);
+
+        List<UserEntity> users;
+        if (after == null) {
+            users = userRepository.findByOrderByScoreDescIdDesc(limit);
+        } else {
+            // the normalised time contains colons so it goes last
+            String[] cursor = after.split(":", 3);
+            Preconditions.checkArgument(cursor.length == 3, "after must be score:id:scoreNormalised: %s", after);
+            BigDecimal score = new BigDecimal(cursor[0]);
+            Long id = Long.valueOf(cursor[1]);
+            LocalDateTime scoreNormalised;
+            try {
+                scoreNormalised = LocalDateTime.parse(cursor[2]);
+            } catch (DateTimeParseException e) {
+                throw new IllegalArgumentException("after must be score:id:scoreNormalised: " + after, e);
+            }
+
+            LocalDateTime currentScoreNormalised = ScoreDecayUtils.normalisedTime(LocalDateTime.now());
+            if (!scoreNormalised.equals(currentScoreNormalised)) {
+                score = score.multiply(ScoreDecayUtils.decayFactor(scoreNormalised, currentScoreNormalised), MathContext.DECIMAL64);
+            }
+
+            users = userRepository.findBy_ScoreAndIdBefore_OrderByScoreDescIdDesc(score, id, limit);
+        }
+
+        String nextAfter = null;
+        if (users.size() > size) {
+            users = users.subList(0, size);
+            UserEntity lastUser = users.getLast();
+            // NOTE: the stored score rather than the decayed score in the DTO
+            nextAfter = lastUser.getScore().toPlainString() + ":" + lastUser.getId() + ":" + lastUser.getScoreNormalised();
+        }
+
+        return new KeysetPageDto<>(users.stream().map(this::toDto).toList(), nextAfter);
+    }
+
     @Transactional(readOnly = true)
     public Optional<UserDto> findUser(Long userId) {
         return userRepository.findById(userId).map(this::toDto);
@@ -77,7 +132,7 @@ public class UserService {
                 user.getName(),
                 user.isHuman(),
                 user.getFaction().getId(),
-                user.getScore(),
+                ScoreDecayUtils.decayedScore(user.getScore(), user.getScoreNormalised(), LocalDateTime.now()),
                 Optional.ofNullable(user.getState()).map(UserStateEntity::getRegion).map(RegionEntity::getId).orElse(null),
                 Optional.ofNullable(user.getState()).map(UserStateEntity::getSeen).orElse(null),
                 user.getUserRoles().stream().map(UserRole::name).collect(Collectors.toList()),
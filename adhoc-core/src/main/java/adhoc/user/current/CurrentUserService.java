@@ -23,6 +23,7 @@
 package adhoc.user.current;
 
 import adhoc.region.RegionEntity;
+import adhoc.score.ScoreDecayUtils;
 import adhoc.server.ServerEntity;
 import adhoc.system.auth.AdhocUserDetails;
 import adhoc.system.properties.CoreProperties;
@@ -36,6 +37,7 @@ import org.springframework.security.core.Authentication;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 import java.util.stream.Collectors;
 
@@ -68,7 +70,7 @@ public class CurrentUserService {
                 quickLoginCode,
                 user.isHuman(),
                 user.getFaction().getId(),
-                user.getScore(),
+                ScoreDecayUtils.decayedScore(user.getScore(), user.getScoreNormalised(), LocalDateTime.now()),
                 Optional.ofNullable(user.getState()).map(UserStateEntity::getRegion).map(RegionEntity::getId).orElse(null),
                 user.getUserRoles().stream().map(UserRole::name).collect(Collectors.toList()),
                 Optional.ofNullable(user.getState()).map(UserStateEntity::getDestinationServer).map(ServerEntity::getId).orElse(null),
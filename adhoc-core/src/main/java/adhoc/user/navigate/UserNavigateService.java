@@ -96,7 +96,7 @@ public class UserNavigateService {
         // if no server specified (or server from area above) then just pick a random active/enabled server
         if (destinationServer == null) {
             List<ServerEntity> servers = serverRepository.findAll().stream()
-                    .filter(server -> server.isEnabled() && server.isActive()).toList();
+                    .filter(server -> server.isEnabled() && server.isActive() && !server.getAreas().isEmpty()).toList();
             Verify.verify(!servers.isEmpty());
 
             destinationServer = servers.get(ThreadLocalRandom.current().nextInt(servers.size()));
@@ -23,6 +23,7 @@
 package adhoc.user.register;
 
 import adhoc.faction.FactionRepository;
+import adhoc.score.ScoreDecayUtils;
 import adhoc.system.properties.CoreProperties;
 import adhoc.system.uuid.UUIDUtils;
 import adhoc.user.UserEntity;
@@ -130,6 +131,7 @@ public class UserRegisterService {
         }
 
         user.setScore(BigDecimal.valueOf(0.0));
+        user.setScoreNormalised(ScoreDecayUtils.normalisedTime(now));
         user.setUserRoles(Sets.newHashSet(UserRole.USER)); //, UserRole.DEBUG, UserRole.ADMIN));
 
         String quickLoginPassword = UUIDUtils.randomUUID().toString().replaceAll("-", "");
@@ -22,7 +22,13 @@
 
 package adhoc.user.state;
 
+import adhoc.region.RegionEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 public interface UserStateRepository extends JpaRepository<UserStateEntity, Long> {
+
+    List<UserStateEntity> findByRegionAndSeenAfterAndUserHumanTrue(RegionEntity region, LocalDateTime seenAfter);
 }
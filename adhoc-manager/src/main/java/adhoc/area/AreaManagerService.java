@@ -27,6 +27,9 @@ import adhoc.region.RegionEntity;
 import adhoc.region.RegionRepository;
 import adhoc.server.ServerEntity;
 import adhoc.server.ServerRepository;
+import adhoc.server.allocate.ServerAllocateDirtyTracker;
+import adhoc.system.cache.AdhocCacheConfiguration;
+import adhoc.system.cache.AdhocCacheEvictionListener;
 import com.google.common.base.Preconditions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -52,6 +55,8 @@ public class AreaManagerService {
     private final ServerRepository serverRepository;
 
     private final AreaService areaService;
+    private final ServerAllocateDirtyTracker serverAllocateDirtyTracker;
+    private final AdhocCacheEvictionListener adhocCacheEvictionListener;
 
     @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
             maxRetries = 3, delay = 100, jitter = 10, multiplier = 1, maxDelay = 1000)
@@ -69,6 +74,12 @@ public class AreaManagerService {
             Preconditions.checkArgument(unique, "Area index not unique: %s", areaDto.getIndex());
         }
 
+        serverAllocateDirtyTracker.markRegionDirty(serverRegion.getId());
+        // objectives of deleted areas are unlinked from them
+        adhocCacheEvictionListener.evictEverywhere(
+                AdhocCacheConfiguration.AREAS, AdhocCacheConfiguration.AREA_PAGES,
+                AdhocCacheConfiguration.OBJECTIVES, AdhocCacheConfiguration.OBJECTIVE_PAGES);
+
         List<AreaEntity> unusedAreas = areaRepository.findByRegionAndIndexNotIn(serverRegion, areaIndexes);
         for (AreaEntity unusedArea : unusedAreas) {
             log.info("Deleting unused area: {}", unusedArea);
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.area.groups;
+
+import adhoc.area.AreaEntity;
+import adhoc.pawn.PawnEntity;
+import adhoc.pawn.PawnRepository;
+import adhoc.pawn.PawnStore;
+import adhoc.region.RegionEntity;
+import adhoc.server.ServerEntity;
+import adhoc.system.properties.ManagerProperties;
+import adhoc.user.state.UserStateEntity;
+import adhoc.user.state.UserStateRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Packs adjacent areas onto the same server while the humans and bots in them would fit on one server.
+ * Groups are built up from the current server assignments: a group is only split once it exceeds the maximum players/bots,
+ * and groups are only merged while their combined load stays below {@link ManagerProperties#getAreaGroupsMergeLoadFraction()}
+ * of the maximums, so areas don't flap between servers from one allocation to the next.
+ * <p>
+ * Enabled by the area-groups-load-aware profile (otherwise each area gets its own server, see {@link SimpleAreaGroupsFactory}).
+ */
+@Component
+@Profile("area-groups-load-aware")
+@Slf4j
+@RequiredArgsConstructor
+public class LoadAwareAreaGroupsFactory implements AreaGroupsFactory {
+
+    /** Gap allowed between two areas (as a fraction of the smaller area's size on that axis) for them to still be adjacent. */
+    private static final double ADJACENT_GAP_FRACTION = 0.1;
+
+    private final ManagerProperties managerProperties;
+
+    private final UserStateRepository userStateRepository;
+    private final PawnRepository pawnRepository;
+
+    private final PawnStore pawnStore;
+
+    @Override
+    public List<Set<AreaEntity>> determineAreaGroups(RegionEntity region) {
+        List<AreaEntity> areas = region.getAreas().stream()
+                .sorted(Comparator.comparing(AreaEntity::getIndex))
+                .toList();
+
+        Map<AreaEntity, Load> areaLoads = determineAreaLoads(region, areas);
+
+        // start from the current grouping (areas represented by the same server)
+        Map<Object, List<AreaEntity>> currentGroups = new LinkedHashMap<>();
+        for (AreaEntity area : areas) {
+            Object key = Optional.ofNullable(area.getServer()).<Object>map(ServerEntity::getId).orElse(area);
+            currentGroups.computeIfAbsent(key, k -> new ArrayList<>()).add(area);
+        }
+
+        // split up any groups which no longer fit on one server
+        List<AreaGroup> groups = new ArrayList<>();
+        for (List<AreaEntity> currentGroup : currentGroups.values()) {
+            AreaGroup group = new AreaGroup(currentGroup, areaLoads);
+            if (currentGroup.size() > 1 && !fits(group.load, 1.0)) {
+                log.debug("Splitting area group {} in region {} as load {} is too high", currentGroup, region.getId(), group.load);
+                currentGroup.forEach(area -> groups.add(new AreaGroup(List.of(area), areaLoads)));
+            } else {
+                groups.add(group);
+            }
+        }
+
+        // repeatedly merge the pair of adjacent groups with the lowest combined load (while it stays under the merge threshold)
+        double mergeLoadFraction = managerProperties.getAreaGroupsMergeLoadFraction();
+        while (true) {
+            AreaGroup bestGroup1 = null;
+            AreaGroup bestGroup2 = null;
+            Load bestLoad = null;
+
+            for (int i = 0; i < groups.size(); i++) {
+                for (int j = i + 1; j < groups.size(); j++) {
+                    AreaGroup group1 = groups.get(i);
+                    AreaGroup group2 = groups.get(j);
+
+                    Load load = group1.load.plus(group2.load);
+                    if (fits(load, mergeLoadFraction)
+                            && (bestLoad == null || weight(load) < weight(bestLoad))
+                            && adjacent(group1, group2)) {
+                        bestGroup1 = group1;
+                        bestGroup2 = group2;
+                        bestLoad = load;
+                    }
+                }
+            }
+
+            if (bestLoad == null) {
+                break;
+            }
+
+            log.debug("Merging area groups {} and {} in region {} with combined load {}", bestGroup1.areas, bestGroup2.areas, region.getId(), bestLoad);
+            groups.remove(bestGroup2);
+            bestGroup1.areas.addAll(bestGroup2.areas);
+            bestGroup1.load = bestLoad;
+        }
+
+        // keep areas (and so the area used to look up the existing server for each group) in a stable order
+        return groups.stream()
+                .map(group -> group.areas.stream()
+                        .sorted(Comparator.comparing(AreaEntity::getIndex))
+                        .collect(Collectors.toCollection(LinkedHashSet::new)))
+                .sorted(Comparator.comparing(areaGroup -> areaGroup.iterator().next().getIndex()))
+                .collect(Collectors.toList());
+    }
+
+    private Map<AreaEntity, Load> determineAreaLoads(RegionEntity region, List<AreaEntity> areas) {
+        Map<AreaEntity, Load> areaLoads = new LinkedHashMap<>();
+        areas.forEach(area -> areaLoads.put(area, new Load(0, 0)));
+
+        // humans are counted by where the user was last seen
+        LocalDateTime seenAfter = LocalDateTime.now().minusMinutes(1);
+        for (UserStateEntity userState : userStateRepository.findByRegionAndSeenAfterAndUserHumanTrue(region, seenAfter)) {
+            findArea(areas, userState.getX(), userState.getY(), userState.getZ())
+                    .ifPresent(area -> areaLoads.merge(area, new Load(1, 0), Load::plus));
+        }
+
+        // bots are counted by where their pawns are
+        if (pawnStore.isEnabled()) {
+            Set<Long> serverIds = region.getServers().stream().map(ServerEntity::getId).collect(Collectors.toSet());
+            pawnStore.streamPawns()
+                    .filter(pawn -> !pawn.getHuman() && serverIds.contains(pawn.getServerId()))
+                    .forEach(pawn -> findArea(areas, pawn.getX(), pawn.getY(), pawn.getZ())
+                            .ifPresent(area -> areaLoads.merge(area, new Load(0, 1), Load::plus)));
+        } else {
+            for (PawnEntity pawn : pawnRepository.findByServerRegionAndHumanFalse(region)) {
+                findArea(areas, pawn.getX(), pawn.getY(), pawn.getZ())
+                        .ifPresent(area -> areaLoads.merge(area, new Load(0, 1), Load::plus));
+            }
+        }
+
+        log.trace("Region {} area loads: {}", region.getId(), areaLoads);
+        return areaLoads;
+    }
+
+    private static Optional<AreaEntity> findArea(List<AreaEntity> areas, BigDecimal x, BigDecimal y, BigDecimal z) {
+        if (x == null || y == null || z == null) {
+            return Optional.empty();
+        }
+        return areas.stream()
+                .filter(area -> within(x, area.getX(), area.getSizeX())
+                        && within(y, area.getY(), area.getSizeY())
+                        && within(z, area.getZ(), area.getSizeZ()))
+                .findFirst();
+    }
+
+    private static boolean within(BigDecimal value, BigDecimal centre, BigDecimal size) {
+        return Math.abs(value.doubleValue() - centre.doubleValue()) <= size.doubleValue() / 2;
+    }
+
+    private static boolean adjacent(AreaGroup group1, AreaGroup group2) {
+        for (AreaEntity area1 : group1.areas) {
+            for (AreaEntity area2 : group2.areas) {
+                if (adjacent(area1.getX(), area1.getSizeX(), area2.getX(), area2.getSizeX())
+                        && adjacent(area1.getY(), area1.getSizeY(), area2.getY(), area2.getSizeY())
+                        && adjacent(area1.getZ(), area1.getSizeZ(), area2.getZ(), area2.getSizeZ())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private static boolean adjacent(BigDecimal centre1, BigDecimal size1, BigDecimal centre2, BigDecimal size2) {
+        double gap = Math.abs(centre1.doubleValue() - centre2.doubleValue()) - (size1.doubleValue() + size2.doubleValue()) / 2;
+        return gap <= Math.min(size1.doubleValue(), size2.doubleValue()) * ADJACENT_GAP_FRACTION;
+    }
+
+    private boolean fits(Load load, double fraction) {
+        return load.humans <= managerProperties.getMaxPlayers() * fraction
+                && load.bots <= managerProperties.getMaxBots() * fraction;
+    }
+
+    private double weight(Load load) {
+        return (double) load.humans / managerProperties.getMaxPlayers() + (double) load.bots / managerProperties.getMaxBots();
+    }
+
+    private record Load(int humans, int bots) {
+
+        Load plus(Load other) {
+            return new Load(humans + other.humans, bots + other.bots);
+        }
+    }
+
+    private static class AreaGroup {
+
+        private final List<AreaEntity> areas;
+        private Load load;
+
+        AreaGroup(List<AreaEntity> areas, Map<AreaEntity, Load> areaLoads) {
+            this.areas = new ArrayList<>(areas);
+            this.load = areas.stream().map(areaLoads::get).reduce(new Load(0, 0), Load::plus);
+        }
+    }
+}
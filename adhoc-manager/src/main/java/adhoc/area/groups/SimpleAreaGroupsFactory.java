@@ -26,6 +26,7 @@ import adhoc.area.AreaEntity;
 import adhoc.region.RegionEntity;
 import jakarta.annotation.PostConstruct;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.util.ArrayList;
@@ -34,6 +35,7 @@ import java.util.List;
 import java.util.Set;
 
 @Component
+@Profile("!area-groups-load-aware")
 @Slf4j
 public class SimpleAreaGroupsFactory implements AreaGroupsFactory {
 
@@ -22,9 +22,14 @@
 
 package adhoc.dns;
 
+import java.util.Map;
 import java.util.Set;
 
 public interface DnsService {
 
-    void createOrUpdate(String domain, Set<String> ips);
+    /** Current A records (domain to IPs) of the DNS zone. */
+    Map<String, Set<String>> findRecords();
+
+    /** Create/update and delete the given A records, in as few calls to the DNS provider as possible. */
+    void changeRecords(Map<String, Set<String>> upserts, Set<String> deletes);
 }
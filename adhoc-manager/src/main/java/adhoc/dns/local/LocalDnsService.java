@@ -27,17 +27,58 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
 
+/**
+ * Keeps the DNS records in memory (assuming they are set up some other way e.g. in Windows hosts file).
+ * Counts the calls and changes that would have been made so the DNS reconciliation can be measured locally.
+ */
 @Service
 @Profile({"dns-local"})
 @Slf4j
 public class LocalDnsService implements DnsService {
 
+    private final Map<String, Set<String>> records = new ConcurrentHashMap<>();
+
+    private final AtomicLong findRecordsCalls = new AtomicLong();
+    private final AtomicLong changeRecordsCalls = new AtomicLong();
+    private final AtomicLong changes = new AtomicLong();
+
     @Override
-    public void createOrUpdate(String domain, Set<String> ips) {
-        log.info("Assuming DNS entry (e.g. in Windows hosts file): domain={} ips={}", domain, ips);
+    public Map<String, Set<String>> findRecords() {
+        findRecordsCalls.incrementAndGet();
+        return Map.copyOf(records);
+    }
+
+    @Override
+    public void changeRecords(Map<String, Set<String>> upserts, Set<String> deletes) {
+        changeRecordsCalls.incrementAndGet();
+        changes.addAndGet(upserts.size() + deletes.size());
+
+        upserts.forEach((domain, ips) -> {
+            log.info("Assuming DNS entry (e.g. in Windows hosts file): domain={} ips={}", domain, ips);
+            records.put(domain, Set.copyOf(ips));
+        });
+        deletes.forEach(domain -> {
+            log.info("Assuming DNS entry removed: domain={}", domain);
+            records.remove(domain);
+        });
+
+        log.debug("findRecordsCalls={} changeRecordsCalls={} changes={}", findRecordsCalls.get(), changeRecordsCalls.get(), changes.get());
+    }
+
+    public long getFindRecordsCalls() {
+        return findRecordsCalls.get();
+    }
+
+    public long getChangeRecordsCalls() {
+        return changeRecordsCalls.get();
+    }
 
-        // TODO: actually look at hosts file to check the mapping is there?
+    public long getChanges() {
+        return changes.get();
     }
 }
@@ -24,6 +24,10 @@ package adhoc.dns.route53;
 
 import adhoc.dns.DnsService;
 import adhoc.dns.route53.properties.Route53DnsProperties;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.RateLimiter;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Profile;
@@ -40,12 +44,19 @@ import software.amazon.awssdk.services.route53.model.ChangeResourceRecordSetsRes
 import software.amazon.awssdk.services.route53.model.HostedZone;
 import software.amazon.awssdk.services.route53.model.ListHostedZonesByNameRequest;
 import software.amazon.awssdk.services.route53.model.ListHostedZonesByNameResponse;
+import software.amazon.awssdk.services.route53.model.ListResourceRecordSetsRequest;
 import software.amazon.awssdk.services.route53.model.RRType;
 import software.amazon.awssdk.services.route53.model.ResourceRecord;
 import software.amazon.awssdk.services.route53.model.ResourceRecordSet;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 
 @Service
 @Profile({"dns-route53"})
@@ -53,14 +64,35 @@ import java.util.Set;
 @RequiredArgsConstructor
 public class Route53DnsService implements DnsService {
 
+    /** Route 53 allows up to 1000 changes in one change batch. */
+    private static final int MAX_CHANGES_PER_BATCH = 1000;
+
+    /** Route 53 allows 5 requests per second per account. */
+    private static final double MAX_REQUESTS_PER_SECOND = 5;
+
     private final Route53DnsProperties route53DnsProperties;
 
-    private Route53Client route53Client() {
-        return Route53Client.builder()
+    private final RateLimiter rateLimiter = RateLimiter.create(MAX_REQUESTS_PER_SECOND);
+
+    /** Record sets as last read, as deleting a record set requires its exact current values. */
+    private final Map<String, ResourceRecordSet> recordSets = new ConcurrentHashMap<>();
+
+    private Route53Client route53Client;
+
+    private volatile String hostedZoneId;
+
+    @PostConstruct
+    public void postConstruct() {
+        route53Client = Route53Client.builder()
                 .region(Region.AWS_GLOBAL)
                 .credentialsProvider(credentialsProvider()).build();
     }
 
+    @PreDestroy
+    public void preDestroy() {
+        route53Client.close();
+    }
+
     private AwsCredentialsProvider credentialsProvider() {
         return DefaultCredentialsProvider.builder()
                 .profileName(route53DnsProperties.getAwsProfileForRoute53())
@@ -68,37 +100,94 @@ public class Route53DnsService implements DnsService {
     }
 
     @Override
-    public void createOrUpdate(String domain, Set<String> ips) {
-        log.atInfo().addKeyValue("domain", domain).addKeyValue("ips", ips).log("Route 53 DNS update.");
+    public Map<String, Set<String>> findRecords() {
+        String hostedZoneId = getHostedZoneId();
+
+        ListResourceRecordSetsRequest listResourceRecordSetsRequest = ListResourceRecordSetsRequest.builder()
+                .hostedZoneId(hostedZoneId)
+                .build();
+        log.debug("listResourceRecordSetsRequest: {}", listResourceRecordSetsRequest);
+
+        recordSets.clear();
+        Map<String, Set<String>> records = new LinkedHashMap<>();
+
+        rateLimiter.acquire();
+        for (ResourceRecordSet recordSet : route53Client.listResourceRecordSetsPaginator(listResourceRecordSetsRequest).resourceRecordSets()) {
+            if (recordSet.type() == RRType.A && recordSet.hasResourceRecords()) {
+                String domain = recordSet.name().replaceFirst("\\.$", "");
+
+                recordSets.put(domain, recordSet);
+                records.put(domain, recordSet.resourceRecords().stream()
+                        .map(ResourceRecord::value)
+                        .collect(Collectors.toCollection(LinkedHashSet::new)));
+            }
+        }
+        log.debug("records: {}", records);
+
+        return records;
+    }
+
+    @Override
+    public void changeRecords(Map<String, Set<String>> upserts, Set<String> deletes) {
+        log.atInfo().addKeyValue("upserts", upserts).addKeyValue("deletes", deletes).log("Route 53 DNS update.");
+
+        List<Change> changes = new ArrayList<>();
+
+        upserts.forEach((domain, ips) -> {
+            //  TODO
+            if (domain.contains("local") || ips.isEmpty()) {
+                log.warn("Ignoring attempt to set DNS! domain={} ips={}", domain, ips);
+                return;
+            }
+            changes.add(upsert(domain, ips));
+        });
+
+        for (String domain : deletes) {
+            ResourceRecordSet recordSet = recordSets.get(domain);
+            if (recordSet == null) {
+                log.warn("Ignoring attempt to delete unknown DNS record! domain={}", domain);
+                continue;
+            }
+            changes.add(Change.builder()
+                    .action(ChangeAction.DELETE)
+                    .resourceRecordSet(recordSet).build());
+        }
 
-        //  TODO
-        if (domain.contains("local") || ips.isEmpty()) {
-            log.warn("Ignoring attempt to set DNS! domain={} ips={}", domain, ips);
+        if (changes.isEmpty()) {
             return;
         }
 
-        try (Route53Client route53Client = route53Client()) {
-            String hostedZoneId = getHostedZoneId(route53Client);
+        String hostedZoneId = getHostedZoneId();
 
+        for (List<Change> batchChanges : Lists.partition(changes, MAX_CHANGES_PER_BATCH)) {
             ChangeResourceRecordSetsRequest changeResourceRecordSetsRequest = ChangeResourceRecordSetsRequest.builder()
                     .hostedZoneId(hostedZoneId)
                     .changeBatch(ChangeBatch.builder()
-                            .changes(upsert(domain, ips)).build()).build();
+                            .changes(batchChanges).build()).build();
             log.debug("changeResourceRecordSetsRequest: {}", changeResourceRecordSetsRequest);
 
+            rateLimiter.acquire();
             ChangeResourceRecordSetsResponse changeResourceRecordSetsResponse =
                     route53Client.changeResourceRecordSets(changeResourceRecordSetsRequest);
             log.debug("changeResourceRecordSetsResponse: {}", changeResourceRecordSetsResponse);
         }
+
+        deletes.forEach(recordSets::remove);
     }
 
-    private String getHostedZoneId(Route53Client route53Client) {
+    private String getHostedZoneId() {
+        // the hosted zone doesn't change so only needs to be looked up once
+        if (hostedZoneId != null) {
+            return hostedZoneId;
+        }
+
         ListHostedZonesByNameRequest listHostedZonesByNameRequest = ListHostedZonesByNameRequest.builder()
                 .dnsName(route53DnsProperties.getRoute53Zone())
                 .maxItems("1")
                 .build();
         log.debug("listHostedZonesByNameRequest: {}", listHostedZonesByNameRequest);
 
+        rateLimiter.acquire();
         ListHostedZonesByNameResponse listHostedZonesByNameResponse =
                 route53Client.listHostedZonesByName(listHostedZonesByNameRequest);
         log.debug("listHostedZonesByNameResponse: {}", listHostedZonesByNameResponse);
@@ -113,9 +202,8 @@ public class Route53DnsService implements DnsService {
             throw new IllegalStateException("expected hosted zone with name " + route53DnsProperties.getRoute53Zone() + ". but got: " + hostedZone.name());
         }
 
-        String hostedZoneId = hostedZone.id().replace("/hostedzone/", "");
+        hostedZoneId = hostedZone.id().replace("/hostedzone/", "");
         log.debug("hostedZoneId: {}", hostedZoneId);
-        // TODO: cache this
         return hostedZoneId;
     }
 
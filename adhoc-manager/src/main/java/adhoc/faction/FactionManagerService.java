@@ -22,12 +22,16 @@
 
 package adhoc.faction;
 
+import adhoc.score.ScoreDecayUtils;
+import adhoc.system.cache.AdhocCacheConfiguration;
+import adhoc.system.cache.AdhocCacheEvictionListener;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -39,10 +43,13 @@ public class FactionManagerService {
     private final FactionRepository factionRepository;
 
     private final FactionService factionService;
+    private final AdhocCacheEvictionListener adhocCacheEvictionListener;
 
     public FactionDto updateFaction(FactionDto factionDto) {
         FactionEntity faction = toEntity(factionDto, factionRepository.getReferenceById(factionDto.getId()));
 
+        adhocCacheEvictionListener.evictEverywhere(AdhocCacheConfiguration.FACTIONS, AdhocCacheConfiguration.FACTION_PAGES);
+
         return factionService.toDto(faction);
     }
 
@@ -55,7 +62,7 @@ public class FactionManagerService {
         faction.setIndex(faction.getIndex());
         faction.setName(factionDto.getName());
         faction.setColor(factionDto.getColor());
-        faction.setScore(factionDto.getScore());
+        faction.setScore(ScoreDecayUtils.normalisedScore(factionDto.getScore(), faction.getScoreNormalised(), LocalDateTime.now()));
 
         return faction;
     }
@@ -23,8 +23,8 @@
 package adhoc.faction.awarddecay;
 
 import adhoc.faction.FactionEntity;
-import adhoc.faction.FactionRepository;
 import adhoc.objective.ObjectiveRepository;
+import adhoc.score.ScoreService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.LockAcquisitionException;
@@ -34,6 +34,7 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
@@ -42,18 +43,20 @@ import java.util.List;
 @RequiredArgsConstructor
 public class FactionAwardDecayService {
 
-    private final FactionRepository factionRepository;
+    private final ScoreService scoreService;
     private final ObjectiveRepository objectiveRepository;
 
     /**
      * Award faction score according to how many objectives the faction currently owns.
-     * Also decay all faction scores.
+     * Faction scores decay lazily (see {@link adhoc.score.ScoreDecayUtils}) so this only needs to rebase them once a day.
      */
     @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
             maxRetries = 3, delay = 100, jitter = 10, multiplier = 1, maxDelay = 1000)
     public void awardAndDecayFactionScores() {
         log.trace("Awarding and decaying faction scores...");
 
+        scoreService.normaliseFactionScores(LocalDateTime.now());
+
         List<ObjectiveRepository.FactionObjectiveCount> factionObjectiveCounts =
                 objectiveRepository.getFactionObjectiveCounts();
 
@@ -63,12 +66,7 @@ public class FactionAwardDecayService {
 
             BigDecimal scoreAdd = BigDecimal.valueOf(0.01).multiply(BigDecimal.valueOf(objectiveCount));
 
-            factionRepository.updateScoreAddById(scoreAdd, faction.getId());
+            scoreService.addFactionScore(faction.getId(), scoreAdd);
         }
-
-        // TODO: multiplier property
-        BigDecimal scoreMultiply = BigDecimal.valueOf(0.999);
-
-        factionRepository.updateScoreMultiply(scoreMultiply);
     }
 }
@@ -37,4 +37,13 @@ public interface HostingService {
     TaskDto startServerTask(Long serverId, Long regionId, String mapName, List<Integer> areaIndexes);
 
     void stopServerTask(String taskIdentifier);
+
+    /**
+     * Reassign an idle running server task to a different server (rather than stopping it and starting a new one).
+     * Subsequent polls (including after a manager restart) should report the task against the new server ID.
+     * The returned task has no public web socket port when that doesn't change.
+     * <p>
+     * This only changes what the hosting service reports - the Unreal server itself is told via a {@link adhoc.task.server.ServerTaskReassignedEvent}.
+     */
+    TaskDto reassignServerTask(String taskIdentifier, Long serverId);
 }
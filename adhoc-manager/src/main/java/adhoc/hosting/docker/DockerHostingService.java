@@ -32,10 +32,13 @@ import adhoc.task.kiosk.KioskTaskEntity;
 import adhoc.task.manager.ManagerTaskEntity;
 import adhoc.task.server.ServerTaskEntity;
 import com.github.dockerjava.api.DockerClient;
+import com.github.dockerjava.api.async.ResultCallback;
 import com.github.dockerjava.api.command.CreateContainerResponse;
 import com.github.dockerjava.api.command.InspectContainerResponse;
 import com.github.dockerjava.api.model.Container;
 import com.github.dockerjava.api.model.ContainerNetwork;
+import com.github.dockerjava.api.model.Event;
+import com.github.dockerjava.api.model.EventType;
 import com.github.dockerjava.api.model.ExposedPort;
 import com.github.dockerjava.api.model.HostConfig;
 import com.github.dockerjava.api.model.PortBinding;
@@ -45,20 +48,27 @@ import com.github.dockerjava.core.DockerClientConfig;
 import com.github.dockerjava.core.DockerClientImpl;
 import com.github.dockerjava.transport.DockerHttpClient;
 import com.github.dockerjava.zerodep.ZerodepDockerHttpClient;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.web.server.autoconfigure.ServerProperties;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 
+import java.io.Closeable;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -78,12 +88,53 @@ public class DockerHostingService implements HostingService {
 
     private static final Pattern SERVER_ID_PATTERN = Pattern.compile("^SERVER_ID=([0-9]+)$");
 
+    /**
+     * A reassigned container is renamed to record the server it now is, so this survives a manager restart
+     * (the SERVER_ID environment variable and labels of a container can't be changed once it is created).
+     */
+    private static final Pattern REASSIGNED_CONTAINER_NAME_PATTERN = Pattern.compile("^/?adhoc_server_([0-9]+)_[0-9a-f]+$");
+
     private final CoreProperties coreProperties;
     private final ManagerProperties managerProperties;
     private final DockerHostingProperties dockerHostingProperties;
 
     private final ServerProperties serverProperties;
 
+    /** Our containers as last seen via the Docker events (or the periodic full list of containers). */
+    private final Map<String, ContainerTask> containerTasks = new ConcurrentHashMap<>();
+
+    private DockerClient dockerClient;
+    private DockerClient dockerEventsClient;
+
+    private volatile Closeable eventsSubscription;
+    private volatile boolean eventsSubscribed;
+
+    private LocalDateTime lastFullPoll;
+
+    private record ContainerTask(
+            TaskEntity.Type type,
+            String containerId,
+            String privateIp,
+            // the SERVER_ID the container was created with (which its port is based on)
+            Long initialServerId,
+            Long serverId
+    ) {
+    }
+
+    @PostConstruct
+    public void postConstruct() {
+        dockerClient = DockerClientImpl.getInstance(dockerClientConfig(), dockerHttpClient(Duration.ofSeconds(5)));
+        // the events stream is long-lived so should not have a response timeout
+        dockerEventsClient = DockerClientImpl.getInstance(dockerClientConfig(), dockerHttpClient(null));
+    }
+
+    @PreDestroy
+    public void preDestroy() throws IOException {
+        closeEventsSubscription();
+        dockerEventsClient.close();
+        dockerClient.close();
+    }
+
     private DockerClientConfig dockerClientConfig() {
         return new DefaultDockerClientConfig.Builder()
                 .withDockerHost(dockerHostingProperties.getDockerHost())
@@ -93,102 +144,232 @@ public class DockerHostingService implements HostingService {
                 .build();
     }
 
-    private DockerHttpClient dockerHttpClient() {
+    private DockerHttpClient dockerHttpClient(Duration responseTimeout) {
         //return new ApacheDockerHttpClient.Builder()
-        return new ZerodepDockerHttpClient.Builder()
+        ZerodepDockerHttpClient.Builder builder = new ZerodepDockerHttpClient.Builder()
                 .dockerHost(dockerClientConfig().getDockerHost())
-                .connectionTimeout(Duration.ofSeconds(5))
-                .responseTimeout(Duration.ofSeconds(5))
-                .build();
-    }
-
-    private DockerClient dockerClient() {
-        return DockerClientImpl.getInstance(dockerClientConfig(), dockerHttpClient());
+                .connectionTimeout(Duration.ofSeconds(5));
+        if (responseTimeout != null) {
+            builder.responseTimeout(responseTimeout);
+        }
+        return builder.build();
     }
 
     @Override
     public List<TaskEntity> poll() {
-        log.debug("Polling Docker...");
+        // containers may have changed while not subscribed, so a full poll is also needed straight after (re)subscribing
+        boolean resubscribed = false;
+        if (!eventsSubscribed) {
+            resubscribed = subscribeEvents();
+        }
+
+        // only list (and inspect any unknown) containers periodically, or when the events are not available
+        LocalDateTime now = LocalDateTime.now();
+        if (!eventsSubscribed || resubscribed || lastFullPoll == null
+                || lastFullPoll.isBefore(now.minus(dockerHostingProperties.getFullPollInterval()))) {
+            fullPoll();
+            lastFullPoll = now;
+        }
+
+        List<TaskEntity> tasks = new ArrayList<>();
+
+        boolean managerFound = false;
+        boolean kioskFound = false;
+
+        for (ContainerTask containerTask : containerTasks.values()) {
+            switch (containerTask.type()) {
+            case MANAGER -> {
+                ManagerTaskEntity managerTask = new ManagerTaskEntity();
+                managerTask.setTaskIdentifier(containerTask.containerId());
+                managerTask.setPrivateIp(containerTask.privateIp());
+                managerTask.setPublicIp("127.0.0.1");
+                tasks.add(managerTask);
+                managerFound = true;
+            }
+            case KIOSK -> {
+                KioskTaskEntity kioskTask = new KioskTaskEntity();
+                kioskTask.setTaskIdentifier(containerTask.containerId());
+                kioskTask.setPrivateIp(containerTask.privateIp());
+                kioskTask.setPublicIp("127.0.0.1");
+                tasks.add(kioskTask);
+                kioskFound = true;
+            }
+            case SERVER -> {
+                ServerTaskEntity serverTask = new ServerTaskEntity();
+                serverTask.setTaskIdentifier(containerTask.containerId());
+                serverTask.setPrivateIp(containerTask.privateIp());
+                serverTask.setPublicIp("127.0.0.1");
+                // port is bound when the container is created so stays based on the original server ID
+                serverTask.setPublicWebSocketPort(calculatePublicWebSocketPort(containerTask.initialServerId()));
+                serverTask.setServerId(containerTask.serverId());
+                tasks.add(serverTask);
+            }
+            }
+        }
+
+        // assume manager running on Docker host (unless we found an adhoc_manager container in Docker)
+        if (!managerFound) {
+            ManagerTaskEntity defaultManagerTask = new ManagerTaskEntity();
+            defaultManagerTask.setTaskIdentifier("host manager task");
+            defaultManagerTask.setPrivateIp("host.docker.internal");
+            defaultManagerTask.setPublicIp("127.0.0.1");
+            tasks.add(defaultManagerTask);
+        }
+        // assume kiosk running on Docker host (unless we found an adhoc_kiosk container in Docker)
+        if (!kioskFound) {
+            KioskTaskEntity defaultKioskTask = new KioskTaskEntity();
+            defaultKioskTask.setTaskIdentifier("host kiosk task");
+            defaultKioskTask.setPrivateIp("host.docker.internal");
+            defaultKioskTask.setPublicIp("127.0.0.1");
+            tasks.add(defaultKioskTask);
+        }
 
-        DockerClient dockerClient = dockerClient();
+        return tasks;
+    }
+
+    /** Returns true if now subscribed. */
+    private boolean subscribeEvents() {
+        closeEventsSubscription();
+
+        try {
+            log.debug("Subscribing to Docker events...");
+
+            ResultCallback.Adapter<Event> callback = new ResultCallback.Adapter<>() {
+                @Override
+                public void onNext(Event event) {
+                    handleContainerEvent(event);
+                }
+
+                @Override
+                public void onError(Throwable throwable) {
+                    // ignore an old subscription ending because it was closed
+                    if (eventsSubscription == this) {
+                        log.warn("Docker events failed - will resubscribe and do a full poll", throwable);
+                        eventsSubscribed = false;
+                    }
+                }
+
+                @Override
+                public void onComplete() {
+                    if (eventsSubscription == this) {
+                        log.debug("Docker events completed - will resubscribe and do a full poll");
+                        eventsSubscribed = false;
+                    }
+                }
+            };
+
+            // set before subscribing in case the subscription fails straight away
+            eventsSubscription = callback;
+            eventsSubscribed = true;
+
+            dockerEventsClient.eventsCmd()
+                    .withEventTypeFilter(EventType.CONTAINER)
+                    .withEventFilter("start", "die", "destroy")
+                    .exec(callback);
+
+            return true;
+
+        } catch (Exception e) {
+            log.warn("Failed to subscribe to Docker events - will do a full poll", e);
+            eventsSubscribed = false;
+            return false;
+        }
+    }
+
+    private void closeEventsSubscription() {
+        if (eventsSubscription != null) {
+            try {
+                eventsSubscription.close();
+            } catch (IOException e) {
+                log.warn("Failed to close Docker events subscription!", e);
+            }
+            eventsSubscription = null;
+        }
+    }
+
+    private void handleContainerEvent(Event event) {
+        log.trace("event: {}", event);
+
+        String containerId = event.getId();
+        if (containerId == null) {
+            return;
+        }
+
+        if ("start".equals(event.getAction())) {
+            try {
+                inspectContainer(containerId).ifPresent(containerTask -> containerTasks.put(containerId, containerTask));
+            } catch (Exception e) {
+                log.warn("Failed to inspect started container {} - will be picked up by the next full poll", containerId, e);
+            }
+        } else {
+            containerTasks.remove(containerId);
+        }
+    }
+
+    private void fullPoll() {
+        log.debug("Polling Docker...");
 
         List<Container> containers = dockerClient.listContainersCmd().exec();
         log.trace("containers: {}", containers);
 
-        List<TaskEntity> tasks = new ArrayList<>();
-
-        // assume manager running on Docker host (unless we find an adhoc_manager container in Docker)
-        ManagerTaskEntity defaultManagerTask = new ManagerTaskEntity();
-        defaultManagerTask.setTaskIdentifier("host manager task");
-        defaultManagerTask.setPrivateIp("host.docker.internal");
-        defaultManagerTask.setPublicIp("127.0.0.1");
-        tasks.add(defaultManagerTask);
-        // assume kiosk running on Docker host (unless we find an adhoc_kiosk container in Docker)
-        KioskTaskEntity defaultKioskTask = new KioskTaskEntity();
-        defaultKioskTask.setTaskIdentifier("host kiosk task");
-        defaultKioskTask.setPrivateIp("host.docker.internal");
-        defaultKioskTask.setPublicIp("127.0.0.1");
-        tasks.add(defaultKioskTask);
+        List<String> containerIds = containers.stream().map(Container::getId).toList();
+        containerTasks.keySet().retainAll(containerIds);
 
+        // only need to inspect containers of ours that we don't already know about
         for (Container container : containers) {
-            //log.debug("state: {}", container.getState());
+            String containerImage = container.getImage();
+            log.trace("containerImage: {}", containerImage);
 
-            InspectContainerResponse inspectedContainer = dockerClient.inspectContainerCmd(container.getId()).exec();
-            log.trace("inspectedContainer: {}", inspectedContainer);
-            log.trace("env: {}", (Object[]) inspectedContainer.getConfig().getEnv());
-            log.trace("networks: {}", inspectedContainer.getNetworkSettings().getNetworks());
+            if (!containerTasks.containsKey(container.getId())
+                    && (containerImage.contains(managerProperties.getManagerImage())
+                    || containerImage.contains(managerProperties.getKioskImage())
+                    || containerImage.contains(managerProperties.getServerImage()))) {
 
-            ContainerNetwork bridgeNetwork = inspectedContainer.getNetworkSettings().getNetworks().get("bridge");
-            if (bridgeNetwork == null) {
-                continue;
+                inspectContainer(container.getId()).ifPresent(containerTask -> containerTasks.put(container.getId(), containerTask));
             }
+        }
+    }
 
-            String privateIp = bridgeNetwork.getIpAddress();
-            log.debug("privateIp: {}", privateIp);
-            String containerImage = container.getImage();
-            log.debug("containerImage: {}", containerImage);
+    private Optional<ContainerTask> inspectContainer(String containerId) {
+        InspectContainerResponse inspectedContainer = dockerClient.inspectContainerCmd(containerId).exec();
+        log.trace("inspectedContainer: {}", inspectedContainer);
+        log.trace("env: {}", (Object[]) inspectedContainer.getConfig().getEnv());
+        log.trace("networks: {}", inspectedContainer.getNetworkSettings().getNetworks());
 
-            if (containerImage.contains(managerProperties.getManagerImage())) {
-                // as we have found a manager - remove the default assumption that the manager is the docker host
-                tasks.remove(defaultManagerTask);
+        ContainerNetwork bridgeNetwork = inspectedContainer.getNetworkSettings().getNetworks().get("bridge");
+        if (bridgeNetwork == null) {
+            return Optional.empty();
+        }
 
-                ManagerTaskEntity managerTask = new ManagerTaskEntity();
-                managerTask.setTaskIdentifier(inspectedContainer.getId());
-                managerTask.setPrivateIp(privateIp);
-                managerTask.setPublicIp("127.0.0.1");
-                tasks.add(managerTask);
+        String privateIp = bridgeNetwork.getIpAddress();
+        log.debug("privateIp: {}", privateIp);
+        String containerImage = inspectedContainer.getConfig().getImage();
+        log.debug("containerImage: {}", containerImage);
 
-            } else if (containerImage.contains(managerProperties.getKioskImage())) {
-                // as we have found a kiosk - remove the default assumption that the kiosk is the docker host
-                tasks.remove(defaultKioskTask);
+        if (containerImage.contains(managerProperties.getManagerImage())) {
+            return Optional.of(new ContainerTask(TaskEntity.Type.MANAGER, inspectedContainer.getId(), privateIp, null, null));
 
-                KioskTaskEntity kioskTask = new KioskTaskEntity();
-                kioskTask.setTaskIdentifier(inspectedContainer.getId());
-                kioskTask.setPrivateIp(privateIp);
-                kioskTask.setPublicIp("127.0.0.1");
-                tasks.add(kioskTask);
+        } else if (containerImage.contains(managerProperties.getKioskImage())) {
+            return Optional.of(new ContainerTask(TaskEntity.Type.KIOSK, inspectedContainer.getId(), privateIp, null, null));
+
+        } else if (containerImage.contains(managerProperties.getServerImage())) {
+            for (String env : Objects.requireNonNull(inspectedContainer.getConfig().getEnv())) {
+                Matcher serverIdMatcher = SERVER_ID_PATTERN.matcher(env);
+                if (serverIdMatcher.matches()) {
+                    Long initialServerId = parseServerId(serverIdMatcher.group(1));
 
-            } else if (containerImage.contains(managerProperties.getServerImage())) {
-                for (String env : Objects.requireNonNull(inspectedContainer.getConfig().getEnv())) {
-                    Matcher serverIdMatcher = SERVER_ID_PATTERN.matcher(env);
-                    if (serverIdMatcher.matches()) {
-                        Long serverId = parseServerId(serverIdMatcher.group(1));
-
-                        ServerTaskEntity task = new ServerTaskEntity();
-                        task.setTaskIdentifier(inspectedContainer.getId());
-                        task.setPrivateIp(privateIp);
-                        task.setPublicIp("127.0.0.1");
-                        task.setPublicWebSocketPort(calculatePublicWebSocketPort(serverId));
-                        task.setServerId(serverId);
-
-                        tasks.add(task);
-                        break;
+                    Long serverId = initialServerId;
+                    Matcher reassignedMatcher = REASSIGNED_CONTAINER_NAME_PATTERN.matcher(Objects.requireNonNullElse(inspectedContainer.getName(), ""));
+                    if (reassignedMatcher.matches()) {
+                        serverId = parseServerId(reassignedMatcher.group(1));
                     }
+
+                    return Optional.of(new ContainerTask(TaskEntity.Type.SERVER, inspectedContainer.getId(), privateIp, initialServerId, serverId));
                 }
             }
         }
 
-        return tasks;
+        return Optional.empty();
     }
 
     @Override
@@ -196,8 +377,6 @@ public class DockerHostingService implements HostingService {
         log.debug("Starting Docker container for server {}", serverId); // linked to managers {}", managerHosts);
         int publicWebSocketPort = calculatePublicWebSocketPort(serverId);
 
-        DockerClient dockerClient = dockerClient();
-
         CreateContainerResponse createdContainer = dockerClient
                 .createContainerCmd(managerProperties.getServerImage() + ":latest")
                 //.withName(server.getId() + "-" + managerProperties.getServerImage())
@@ -251,10 +430,31 @@ public class DockerHostingService implements HostingService {
 
     @Override
     public void stopServerTask(String taskIdentifier) {
-        dockerClient()
+        dockerClient
                 .removeContainerCmd(taskIdentifier)
                 .withForce(true)
                 .exec();
+
+        containerTasks.remove(taskIdentifier);
+    }
+
+    @Override
+    public TaskDto reassignServerTask(String taskIdentifier, Long serverId) {
+        log.debug("Reassigning Docker container {} to server {}", taskIdentifier, serverId);
+
+        dockerClient.renameContainerCmd(taskIdentifier)
+                .withName(String.format("adhoc_server_%d_%s", serverId, taskIdentifier.substring(0, Math.min(12, taskIdentifier.length()))))
+                .exec();
+
+        containerTasks.computeIfPresent(taskIdentifier, (containerId, containerTask) -> new ContainerTask(
+                containerTask.type(), containerId, containerTask.privateIp(), containerTask.initialServerId(), serverId));
+
+        TaskDto serverTask = TaskDto.builder()
+                .taskIdentifier(taskIdentifier)
+                .serverId(serverId)
+                .build();
+
+        return serverTask;
     }
 
     private static Long parseServerId(String serverIdString) {
@@ -29,6 +29,8 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
+
 @Component
 @Profile("hosting-docker")
 @Slf4j
@@ -41,10 +43,15 @@ public class DockerHostingProperties {
     @Value("${adhoc.docker.auto-remove}")
     private Boolean autoRemove;
 
+    // containers are tracked via Docker events, but every so often all containers are listed in case any events were missed
+    @Value("${adhoc.docker.full-poll-interval}")
+    private Duration fullPollInterval;
+
     @PostConstruct
     public void postConstruct() {
         log.info("dockerHost={}", dockerHost);
         log.info("autoRemove={}", autoRemove);
+        log.info("fullPollInterval={}", fullPollInterval);
     }
 }
 
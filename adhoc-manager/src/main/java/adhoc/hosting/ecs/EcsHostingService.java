@@ -32,6 +32,9 @@ import adhoc.task.kiosk.KioskTaskEntity;
 import adhoc.task.manager.ManagerTaskEntity;
 import adhoc.task.server.ServerTaskEntity;
 import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.web.server.autoconfigure.ServerProperties;
@@ -40,6 +43,7 @@ import org.springframework.stereotype.Service;
 import software.amazon.awssdk.auth.credentials.AwsCredentialsProvider;
 import software.amazon.awssdk.auth.credentials.DefaultCredentialsProvider;
 import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.ec2.Ec2AsyncClient;
 import software.amazon.awssdk.services.ec2.Ec2Client;
 import software.amazon.awssdk.services.ec2.model.DescribeNetworkInterfacesRequest;
 import software.amazon.awssdk.services.ec2.model.DescribeNetworkInterfacesResponse;
@@ -51,6 +55,7 @@ import software.amazon.awssdk.services.ec2.model.Filter;
 import software.amazon.awssdk.services.ec2.model.NetworkInterface;
 import software.amazon.awssdk.services.ec2.model.NetworkInterfaceAssociation;
 import software.amazon.awssdk.services.ec2.model.SecurityGroup;
+import software.amazon.awssdk.services.ecs.EcsAsyncClient;
 import software.amazon.awssdk.services.ecs.EcsClient;
 import software.amazon.awssdk.services.ecs.model.AssignPublicIp;
 import software.amazon.awssdk.services.ecs.model.Attachment;
@@ -62,19 +67,23 @@ import software.amazon.awssdk.services.ecs.model.DescribeTasksRequest;
 import software.amazon.awssdk.services.ecs.model.DescribeTasksResponse;
 import software.amazon.awssdk.services.ecs.model.KeyValuePair;
 import software.amazon.awssdk.services.ecs.model.ListTasksRequest;
-import software.amazon.awssdk.services.ecs.model.ListTasksResponse;
 import software.amazon.awssdk.services.ecs.model.NetworkConfiguration;
 import software.amazon.awssdk.services.ecs.model.RunTaskRequest;
 import software.amazon.awssdk.services.ecs.model.RunTaskResponse;
 import software.amazon.awssdk.services.ecs.model.StopTaskRequest;
+import software.amazon.awssdk.services.ecs.model.Tag;
+import software.amazon.awssdk.services.ecs.model.TagResourceRequest;
+import software.amazon.awssdk.services.ecs.model.TaskField;
 import software.amazon.awssdk.services.ecs.model.TaskOverride;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
@@ -87,29 +96,60 @@ import java.util.stream.Stream;
 @RequiredArgsConstructor
 public class EcsHostingService implements HostingService {
 
+    /** Tag recording the server a task has been reassigned to (the SERVER_ID environment variable is only the initial server). */
+    private static final String SERVER_ID_TAG = "adhoc-server-id";
+
+    private static final int DESCRIBE_TASKS_MAX = 100;
+
     private final CoreProperties coreProperties;
     private final ManagerProperties managerProperties;
     private final ServerProperties serverProperties;
     private final EcsHostingProperties ecsHostingProperties;
 
-    private Ec2Client ec2Client() {
-        return Ec2Client.builder()
-                .region(Region.of(ecsHostingProperties.getAwsRegion()))
-                .credentialsProvider(credentialsProvider())
+    private Ec2Client ec2Client;
+    private EcsClient ecsClient;
+
+    private Ec2AsyncClient ec2AsyncClient;
+    private EcsAsyncClient ecsAsyncClient;
+
+    @PostConstruct
+    public void postConstruct() {
+        AwsCredentialsProvider credentialsProvider = DefaultCredentialsProvider.builder()
+                .profileName(ecsHostingProperties.getAwsProfile())
                 .build();
-    }
 
-    private EcsClient ecsClient() {
-        return EcsClient.builder()
+        ec2Client = Ec2Client.builder()
+                .region(Region.of(ecsHostingProperties.getAwsRegion()))
+                .credentialsProvider(credentialsProvider)
+                .build();
+        ecsClient = EcsClient.builder()
                 .region(Region.of(ecsHostingProperties.getAwsRegion()))
-                .credentialsProvider(credentialsProvider())
+                .credentialsProvider(credentialsProvider)
                 .build();
+
+        if (ecsHostingProperties.isAsync()) {
+            ec2AsyncClient = Ec2AsyncClient.builder()
+                    .region(Region.of(ecsHostingProperties.getAwsRegion()))
+                    .credentialsProvider(credentialsProvider)
+                    .build();
+            ecsAsyncClient = EcsAsyncClient.builder()
+                    .region(Region.of(ecsHostingProperties.getAwsRegion()))
+                    .credentialsProvider(credentialsProvider)
+                    .build();
+        }
     }
 
-    private AwsCredentialsProvider credentialsProvider() {
-        return DefaultCredentialsProvider.builder()
-                .profileName(ecsHostingProperties.getAwsProfile())
-                .build();
+    @PreDestroy
+    public void preDestroy() {
+        ec2Client.close();
+        ecsClient.close();
+
+        if (ec2AsyncClient != null) {
+            ec2AsyncClient.close();
+        }
+        if (ecsAsyncClient != null) {
+            ecsAsyncClient.close();
+        }
     }
 
     public List<TaskEntity> poll() {
@@ -120,145 +160,144 @@ public class EcsHostingService implements HostingService {
         Map<String, KioskTaskEntity> kioskNetworkInterfaceIds = new LinkedHashMap<>();
         Map<String, ServerTaskEntity> serverNetworkInterfaceIds = new LinkedHashMap<>();
 
-        try (EcsClient ecsClient = ecsClient(); Ec2Client ec2Client = ec2Client()) {
+        List<String> taskArns = listTaskArns();
+        log.trace("taskArns={}", taskArns);
 
-            ListTasksResponse listTasksResponse = ecsClient.listTasks(ListTasksRequest.builder()
-                    .cluster(ecsHostingProperties.getEcsCluster()).build());
-            log.trace("listTasksResponse={}", listTasksResponse);
+        if (taskArns.isEmpty()) {
+            log.debug("No ECS tasks to examine");
+            return Collections.emptyList();
+        }
 
-            if (!listTasksResponse.hasTaskArns() || listTasksResponse.taskArns().isEmpty()) {
-                log.debug("No ECS tasks to examine");
-                return Collections.emptyList();
-            }
+        List<software.amazon.awssdk.services.ecs.model.Task> tasks = describeTasks(taskArns);
 
-            DescribeTasksResponse describeTasksResponse = ecsClient.describeTasks(DescribeTasksRequest.builder()
-                    .cluster(ecsHostingProperties.getEcsCluster())
-                    .tasks(listTasksResponse.taskArns()).build());
-            log.trace("describeTasksResponse={}", describeTasksResponse);
+        for (software.amazon.awssdk.services.ecs.model.Task task : tasks) {
+            log.trace("task={}", task);
 
-            for (software.amazon.awssdk.services.ecs.model.Task task : describeTasksResponse.tasks()) {
-                log.trace("task={}", task);
+            String networkInterfaceId = null;
+            String privateIp = null;
 
-                String networkInterfaceId = null;
-                String privateIp = null;
+            // get information about the network interface (we want the network interface ID and private IP address)
+            for (Attachment attachment : task.attachments()) {
+                log.trace("attachment={}", attachment);
 
-                // get information about the network interface (we want the network interface ID and private IP address)
-                for (Attachment attachment : task.attachments()) {
-                    log.trace("attachment={}", attachment);
+                if ("ElasticNetworkInterface".equals(attachment.type())) {
+                    for (KeyValuePair detail : attachment.details()) {
+                        log.trace("detail={}", detail);
 
-                    if ("ElasticNetworkInterface".equals(attachment.type())) {
-                        for (KeyValuePair detail : attachment.details()) {
-                            log.trace("detail={}", detail);
+                        if ("networkInterfaceId".equals(detail.name())) {
+                            networkInterfaceId = detail.value();
+                            log.trace("networkInterfaceId={}", networkInterfaceId);
 
-                            if ("networkInterfaceId".equals(detail.name())) {
-                                networkInterfaceId = detail.value();
-                                log.trace("networkInterfaceId={}", networkInterfaceId);
-
-                            } else if ("privateIPv4Address".equals(detail.name())) {
-                                privateIp = detail.value();
-                                log.trace("privateIp={}", privateIp);
-                            }
+                        } else if ("privateIPv4Address".equals(detail.name())) {
+                            privateIp = detail.value();
+                            log.trace("privateIp={}", privateIp);
                         }
                     }
                 }
+            }
 
-                if (networkInterfaceId != null) {
+            if (networkInterfaceId != null) {
 
-                    // check the type of task
-                    for (Container container : task.containers()) {
-                        log.trace("container={}", container);
+                // check the type of task
+                for (Container container : task.containers()) {
+                    log.trace("container={}", container);
 
-                        String containerName = container.name();
-                        log.trace("containerName={}", containerName);
+                    String containerName = container.name();
+                    log.trace("containerName={}", containerName);
 
-                        if (managerProperties.getManagerImage().equals(containerName)) {
-                            log.debug("Found manager: networkInterfaceId={} privateIp={}", networkInterfaceId, privateIp);
+                    if (managerProperties.getManagerImage().equals(containerName)) {
+                        log.debug("Found manager: networkInterfaceId={} privateIp={}", networkInterfaceId, privateIp);
 
-                            ManagerTaskEntity managerTask = new ManagerTaskEntity();
-                            managerTask.setTaskIdentifier(task.taskArn());
-                            managerTask.setPrivateIp(privateIp);
-                            managerNetworkInterfaceIds.put(networkInterfaceId, managerTask);
+                        ManagerTaskEntity managerTask = new ManagerTaskEntity();
+                        managerTask.setTaskIdentifier(task.taskArn());
+                        managerTask.setPrivateIp(privateIp);
+                        managerNetworkInterfaceIds.put(networkInterfaceId, managerTask);
 
-                        } else if (managerProperties.getKioskImage().equals(containerName)) {
-                            log.debug("Found kiosk: networkInterfaceId={} privateIp={}", networkInterfaceId, privateIp);
+                    } else if (managerProperties.getKioskImage().equals(containerName)) {
+                        log.debug("Found kiosk: networkInterfaceId={} privateIp={}", networkInterfaceId, privateIp);
 
-                            KioskTaskEntity kioskTask = new KioskTaskEntity();
-                            kioskTask.setTaskIdentifier(task.taskArn());
-                            kioskTask.setPrivateIp(privateIp);
-                            kioskNetworkInterfaceIds.put(networkInterfaceId, kioskTask);
+                        KioskTaskEntity kioskTask = new KioskTaskEntity();
+                        kioskTask.setTaskIdentifier(task.taskArn());
+                        kioskTask.setPrivateIp(privateIp);
+                        kioskNetworkInterfaceIds.put(networkInterfaceId, kioskTask);
 
-                        } else if (managerProperties.getServerImage().equals(containerName)) {
-                            log.debug("Found server: networkInterfaceId={} privateIp={}", networkInterfaceId, privateIp);
+                    } else if (managerProperties.getServerImage().equals(containerName)) {
+                        log.debug("Found server: networkInterfaceId={} privateIp={}", networkInterfaceId, privateIp);
 
-                            // get the environment variable for server ID that was set when the container was launched
-                            for (ContainerOverride containerOverride : task.overrides().containerOverrides()) {
-                                log.trace("containerOverride={}", containerOverride);
+                        // get the environment variable for server ID that was set when the container was launched
+                        for (ContainerOverride containerOverride : task.overrides().containerOverrides()) {
+                            log.trace("containerOverride={}", containerOverride);
 
-                                for (KeyValuePair env : containerOverride.environment()) {
-                                    log.trace("env.name={}", env.name());
+                            for (KeyValuePair env : containerOverride.environment()) {
+                                log.trace("env.name={}", env.name());
 
-                                    if ("SERVER_ID".equals(env.name())) {
-                                        long serverId = parseServerId(env.value());
-                                        log.trace("serverId={}", serverId);
+                                if ("SERVER_ID".equals(env.name())) {
+                                    long serverId = task.tags().stream()
+                                            .filter(tag -> SERVER_ID_TAG.equals(tag.key()))
+                                            .findFirst()
+                                            .map(tag -> parseServerId(tag.value()))
+                                            .orElseGet(() -> parseServerId(env.value()));
+                                    log.trace("serverId={}", serverId);
 
-                                        ServerTaskEntity serverTask = new ServerTaskEntity();
-                                        serverTask.setTaskIdentifier(task.taskArn());
-                                        serverTask.setPrivateIp(privateIp);
-                                        serverTask.setServerId(serverId);
-                                        serverNetworkInterfaceIds.put(networkInterfaceId, serverTask);
-                                    }
+                                    ServerTaskEntity serverTask = new ServerTaskEntity();
+                                    serverTask.setTaskIdentifier(task.taskArn());
+                                    serverTask.setPrivateIp(privateIp);
+                                    serverTask.setServerId(serverId);
+                                    serverNetworkInterfaceIds.put(networkInterfaceId, serverTask);
                                 }
                             }
                         }
                     }
                 }
             }
+        }
 
-            Set<String> networkInterfaceIds = new LinkedHashSet<>();
-            networkInterfaceIds.addAll(managerNetworkInterfaceIds.keySet());
-            networkInterfaceIds.addAll(kioskNetworkInterfaceIds.keySet());
-            networkInterfaceIds.addAll(serverNetworkInterfaceIds.keySet());
-
-            // retrieve public IPs via each network interface ID (we do this in bulk as one call)
-            if (!networkInterfaceIds.isEmpty()) {
-                DescribeNetworkInterfacesResponse describeNetworkInterfacesResponse =
-                        ec2Client.describeNetworkInterfaces(DescribeNetworkInterfacesRequest.builder()
-                                .networkInterfaceIds(ImmutableList.copyOf(networkInterfaceIds)).build());
-                log.trace("describeNetworkInterfacesResponse={}", describeNetworkInterfacesResponse);
-
-                for (NetworkInterface networkInterface : describeNetworkInterfacesResponse.networkInterfaces()) {
-                    log.trace("networkInterface={}", networkInterface);
-
-                    String networkInterfaceId = networkInterface.networkInterfaceId();
-                    log.trace("networkInterfaceId={}", networkInterfaceId);
-
-                    String publicIp = null;
-                    NetworkInterfaceAssociation association = networkInterface.association();
-                    if (association != null) {
-                        publicIp = association.publicIp();
-                        log.trace("publicIp={}", publicIp);
-                    }
+        Set<String> networkInterfaceIds = new LinkedHashSet<>();
+        networkInterfaceIds.addAll(managerNetworkInterfaceIds.keySet());
+        networkInterfaceIds.addAll(kioskNetworkInterfaceIds.keySet());
+        networkInterfaceIds.addAll(serverNetworkInterfaceIds.keySet());
+
+        // retrieve public IPs via each network interface ID (we do this in bulk as one call)
+        if (!networkInterfaceIds.isEmpty()) {
+            DescribeNetworkInterfacesRequest describeNetworkInterfacesRequest = DescribeNetworkInterfacesRequest.builder()
+                    .networkInterfaceIds(ImmutableList.copyOf(networkInterfaceIds)).build();
+            DescribeNetworkInterfacesResponse describeNetworkInterfacesResponse = ec2AsyncClient != null ?
+                    ec2AsyncClient.describeNetworkInterfaces(describeNetworkInterfacesRequest).join() :
+                    ec2Client.describeNetworkInterfaces(describeNetworkInterfacesRequest);
+            log.trace("describeNetworkInterfacesResponse={}", describeNetworkInterfacesResponse);
+
+            for (NetworkInterface networkInterface : describeNetworkInterfacesResponse.networkInterfaces()) {
+                log.trace("networkInterface={}", networkInterface);
+
+                String networkInterfaceId = networkInterface.networkInterfaceId();
+                log.trace("networkInterfaceId={}", networkInterfaceId);
+
+                String publicIp = null;
+                NetworkInterfaceAssociation association = networkInterface.association();
+                if (association != null) {
+                    publicIp = association.publicIp();
+                    log.trace("publicIp={}", publicIp);
+                }
 
-                    if (publicIp != null) {
+                if (publicIp != null) {
 
-                        ManagerTaskEntity managerTask = managerNetworkInterfaceIds.get(networkInterfaceId);
-                        if (managerTask != null) {
-                            log.debug("Found manager: networkInterfaceId={} publicIp={}", networkInterfaceId, publicIp);
-                            managerTask.setPublicIp(publicIp);
-                        }
+                    ManagerTaskEntity managerTask = managerNetworkInterfaceIds.get(networkInterfaceId);
+                    if (managerTask != null) {
+                        log.debug("Found manager: networkInterfaceId={} publicIp={}", networkInterfaceId, publicIp);
+                        managerTask.setPublicIp(publicIp);
+                    }
 
-                        KioskTaskEntity kioskTask = kioskNetworkInterfaceIds.get(networkInterfaceId);
-                        if (kioskTask != null) {
-                            log.debug("Found kiosk: networkInterfaceId={} publicIp={}", networkInterfaceId, publicIp);
-                            kioskTask.setPublicIp(publicIp);
-                        }
+                    KioskTaskEntity kioskTask = kioskNetworkInterfaceIds.get(networkInterfaceId);
+                    if (kioskTask != null) {
+                        log.debug("Found kiosk: networkInterfaceId={} publicIp={}", networkInterfaceId, publicIp);
+                        kioskTask.setPublicIp(publicIp);
+                    }
 
-                        ServerTaskEntity serverTask = serverNetworkInterfaceIds.get(networkInterfaceId);
-                        if (serverTask != null) {
-                            log.debug("Found server: networkInterfaceId={} publicIp={}", networkInterfaceId, publicIp);
-                            serverTask.setPublicIp(publicIp);
-                            serverTask.setPublicWebSocketPort(8889);
-                        }
+                    ServerTaskEntity serverTask = serverNetworkInterfaceIds.get(networkInterfaceId);
+                    if (serverTask != null) {
+                        log.debug("Found server: networkInterfaceId={} publicIp={}", networkInterfaceId, publicIp);
+                        serverTask.setPublicIp(publicIp);
+                        serverTask.setPublicWebSocketPort(8889);
                     }
                 }
             }
@@ -271,133 +310,194 @@ public class EcsHostingService implements HostingService {
                 serverNetworkInterfaceIds.values().stream()).toList();
     }
 
-    public TaskDto startServerTask(Long serverId, Long regionId, String mapName, List<Integer> areaIndexes) {
-        log.debug("Starting task for server {}", serverId);
+    /** List all the task ARNs in the cluster (following the pages, as each page only has up to 100). */
+    private List<String> listTaskArns() {
+        ListTasksRequest listTasksRequest = ListTasksRequest.builder()
+                .cluster(ecsHostingProperties.getEcsCluster()).build();
 
-        try (EcsClient ecsClient = ecsClient();
-             Ec2Client ec2Client = ec2Client()) {
+        List<String> taskArns = new ArrayList<>();
+        if (ecsAsyncClient != null) {
+            ecsAsyncClient.listTasksPaginator(listTasksRequest).taskArns().subscribe(taskArns::add).join();
+        } else {
+            ecsClient.listTasksPaginator(listTasksRequest).taskArns().forEach(taskArns::add);
+        }
+        return taskArns;
+    }
 
-            DescribeSecurityGroupsRequest describeSecurityGroupsRequest = DescribeSecurityGroupsRequest.builder()
-                    .filters(
-                            Filter.builder().name("group-name").values(ecsHostingProperties.getAwsSecurityGroupName()).build())
-                    .build();
-            log.debug("describeSecurityGroupsRequest: {}", describeSecurityGroupsRequest);
+    /** Describe the tasks in chunks (as describe tasks only accepts up to 100 tasks at a time). */
+    private List<software.amazon.awssdk.services.ecs.model.Task> describeTasks(List<String> taskArns) {
+        List<DescribeTasksRequest> describeTasksRequests = Lists.partition(taskArns, DESCRIBE_TASKS_MAX).stream()
+                .map(taskArnsChunk -> DescribeTasksRequest.builder()
+                        .cluster(ecsHostingProperties.getEcsCluster())
+                        .tasks(taskArnsChunk)
+                        .include(TaskField.TAGS).build())
+                .toList();
+
+        List<DescribeTasksResponse> describeTasksResponses;
+        if (ecsAsyncClient != null) {
+            // describe all the chunks at the same time
+            List<CompletableFuture<DescribeTasksResponse>> futures = describeTasksRequests.stream()
+                    .map(ecsAsyncClient::describeTasks)
+                    .toList();
+            describeTasksResponses = futures.stream().map(CompletableFuture::join).toList();
+        } else {
+            describeTasksResponses = describeTasksRequests.stream()
+                    .map(ecsClient::describeTasks)
+                    .toList();
+        }
 
-            DescribeSecurityGroupsResponse describeSecurityGroupsResponse =
-                    ec2Client.describeSecurityGroups(describeSecurityGroupsRequest);
-            log.debug("describeSecurityGroupsResponse: {}", describeSecurityGroupsResponse);
+        List<software.amazon.awssdk.services.ecs.model.Task> tasks = new ArrayList<>();
+        for (DescribeTasksResponse describeTasksResponse : describeTasksResponses) {
+            log.trace("describeTasksResponse={}", describeTasksResponse);
 
-            if (describeSecurityGroupsResponse.securityGroups().size() != 1) {
-                throw new IllegalStateException("expected 1 security group but got: " + describeSecurityGroupsResponse.securityGroups());
+            if (describeTasksResponse.hasFailures() && !describeTasksResponse.failures().isEmpty()) {
+                log.warn("Describe tasks failures: {}", describeTasksResponse.failures());
             }
 
-            SecurityGroup securityGroup = describeSecurityGroupsResponse.securityGroups().get(0);
+            tasks.addAll(describeTasksResponse.tasks());
+        }
+        return tasks;
+    }
 
-            if (!securityGroup.groupName().equals(ecsHostingProperties.getAwsSecurityGroupName())) {
-                throw new IllegalStateException("expected security group with name " + ecsHostingProperties.getAwsSecurityGroupName() + " but got: " +
-                        securityGroup.groupName());
-            }
+    public TaskDto startServerTask(Long serverId, Long regionId, String mapName, List<Integer> areaIndexes) {
+        log.debug("Starting task for server {}", serverId);
 
-            String securityGroupId = securityGroup.groupId();
-            log.debug("securityGroupId: {}", securityGroupId);
+        DescribeSecurityGroupsRequest describeSecurityGroupsRequest = DescribeSecurityGroupsRequest.builder()
+                .filters(
+                        Filter.builder().name("group-name").values(ecsHostingProperties.getAwsSecurityGroupName()).build())
+                .build();
+        log.debug("describeSecurityGroupsRequest: {}", describeSecurityGroupsRequest);
 
-            // TODO: better way to have the vpc-id / availability-zone chosen
-            DescribeSubnetsRequest describeSubnetsRequest = DescribeSubnetsRequest.builder()
-                    .filters(
-                            Filter.builder().name("vpc-id").values(securityGroup.vpcId()).build(),
-                            Filter.builder().name("availability-zone").values(ecsHostingProperties.getAwsAvailabilityZone()).build())
-                    .build();
-            log.debug("describeSubnetsRequest: {}", describeSubnetsRequest);
+        DescribeSecurityGroupsResponse describeSecurityGroupsResponse =
+                ec2Client.describeSecurityGroups(describeSecurityGroupsRequest);
+        log.debug("describeSecurityGroupsResponse: {}", describeSecurityGroupsResponse);
 
-            // TODO: should be random subnet of those available for use
-            DescribeSubnetsResponse describeSubnetsResponse =
-                    ec2Client.describeSubnets(describeSubnetsRequest);
-            log.debug("describeSubnetsResponse: {}", describeSubnetsResponse);
+        if (describeSecurityGroupsResponse.securityGroups().size() != 1) {
+            throw new IllegalStateException("expected 1 security group but got: " + describeSecurityGroupsResponse.securityGroups());
+        }
 
-            if (describeSubnetsResponse.subnets().size() != 1) {
-                throw new IllegalStateException("expected 1 subnet but got: " + describeSubnetsResponse.subnets());
-            }
+        SecurityGroup securityGroup = describeSecurityGroupsResponse.securityGroups().get(0);
 
-            if (!describeSubnetsResponse.subnets().get(0).availabilityZone().equals(ecsHostingProperties.getAwsAvailabilityZone())) {
-                throw new IllegalStateException("expected subnet with availability zone " + ecsHostingProperties.getAwsAvailabilityZone() + " but got: " +
-                        describeSubnetsResponse.subnets().get(0).availabilityZone());
-            }
+        if (!securityGroup.groupName().equals(ecsHostingProperties.getAwsSecurityGroupName())) {
+            throw new IllegalStateException("expected security group with name " + ecsHostingProperties.getAwsSecurityGroupName() + " but got: " +
+                    securityGroup.groupName());
+        }
 
-            String subnetId = describeSubnetsResponse.subnets().get(0).subnetId();
-            log.debug("subnetId: {}", subnetId);
-
-            RunTaskRequest runTaskRequest = RunTaskRequest.builder()
-                    //.launchType(LaunchType.FARGATE)
-                    .capacityProviderStrategy(CapacityProviderStrategyItem.builder().capacityProvider("FARGATE_SPOT").build())
-                    .taskDefinition(managerProperties.getServerImage())
-                    .overrides(TaskOverride.builder().containerOverrides(ContainerOverride.builder()
-                            .name(managerProperties.getServerImage())
-                            .environment(
-                                    KeyValuePair.builder().name("MAP_NAME").value(mapName).build(),
-                                    KeyValuePair.builder().name("SERVER_ID").value(serverId.toString()).build(),
-                                    //KeyValuePair.builder().name("MANAGER_HOST").value(managerHosts.iterator().next()).build(),
-                                    //KeyValuePair.builder().name("INITIAL_MANAGER_HOSTS")
-                                    //       .value(String.join(",", managerHosts)).build(),
-                                    KeyValuePair.builder().name("REGION_ID").value(regionId.toString()).build(),
-                                    //KeyValuePair.builder().name("INITIAL_AREA_IDS")
-                                    //        .value(server.getAreas().stream()
-                                    //                .map(Area::getId)
-                                    //                .map(Object::toString)
-                                    //                .collect(Collectors.joining(","))).build(),
-                                    KeyValuePair.builder().name("INITIAL_AREA_INDEXES")
-                                            .value(areaIndexes.stream()
-                                                    .map(Object::toString)
-                                                    .collect(Collectors.joining(","))).build(),
-                                    KeyValuePair.builder().name("MAX_CONTROLLERS").value(managerProperties.getMaxControllers().toString()).build(),
-                                    KeyValuePair.builder().name("MAX_PLAYERS").value(managerProperties.getMaxPlayers().toString()).build(),
-                                    KeyValuePair.builder().name("MAX_BOTS").value(managerProperties.getMaxBots().toString()).build(),
-                                    KeyValuePair.builder().name("FEATURE_FLAGS").value(coreProperties.getFeatureFlags()).build(),
-                                    KeyValuePair.builder().name("SSL_ENABLED").value(String.valueOf(serverProperties.getSsl().isEnabled())).build())
-                            .build()).build())
-                    .cluster(ecsHostingProperties.getEcsCluster())
-                    .count(1)
-                    .networkConfiguration(
-                            NetworkConfiguration.builder()
-                                    .awsvpcConfiguration(
-                                            AwsVpcConfiguration.builder()
-                                                    .subnets(subnetId)
-                                                    .assignPublicIp(AssignPublicIp.ENABLED)
-                                                    .securityGroups(securityGroupId)
-                                                    .build())
-                                    .build())
-                    .build();
-            log.debug("runTaskRequest: {}", runTaskRequest);
+        String securityGroupId = securityGroup.groupId();
+        log.debug("securityGroupId: {}", securityGroupId);
+
+        // TODO: better way to have the vpc-id / availability-zone chosen
+        DescribeSubnetsRequest describeSubnetsRequest = DescribeSubnetsRequest.builder()
+                .filters(
+                        Filter.builder().name("vpc-id").values(securityGroup.vpcId()).build(),
+                        Filter.builder().name("availability-zone").values(ecsHostingProperties.getAwsAvailabilityZone()).build())
+                .build();
+        log.debug("describeSubnetsRequest: {}", describeSubnetsRequest);
 
-            RunTaskResponse runTaskResponse = ecsClient.runTask(runTaskRequest);
-            log.debug("runTaskResponse: {}", runTaskResponse);
+        // TODO: should be random subnet of those available for use
+        DescribeSubnetsResponse describeSubnetsResponse =
+                ec2Client.describeSubnets(describeSubnetsRequest);
+        log.debug("describeSubnetsResponse: {}", describeSubnetsResponse);
 
-            if (runTaskResponse.hasFailures() && !runTaskResponse.failures().isEmpty()) {
-                log.error("Run task failure: {}", runTaskResponse.failures());
-                // TODO: hosting exception
-                throw new RuntimeException("Run task failure");
-            }
+        if (describeSubnetsResponse.subnets().size() != 1) {
+            throw new IllegalStateException("expected 1 subnet but got: " + describeSubnetsResponse.subnets());
+        }
 
-            //log.info("tasks={}", runTaskResponse.tasks());
-            String taskArn = runTaskResponse.tasks().getFirst().taskArn();
-            log.debug("taskArn={}", taskArn);
+        if (!describeSubnetsResponse.subnets().get(0).availabilityZone().equals(ecsHostingProperties.getAwsAvailabilityZone())) {
+            throw new IllegalStateException("expected subnet with availability zone " + ecsHostingProperties.getAwsAvailabilityZone() + " but got: " +
+                    describeSubnetsResponse.subnets().get(0).availabilityZone());
+        }
 
-            TaskDto serverTask = TaskDto.builder()
-                    .taskIdentifier(taskArn)
-                    .publicWebSocketPort(8889)
-                    .serverId(serverId)
-                    .build();
+        String subnetId = describeSubnetsResponse.subnets().get(0).subnetId();
+        log.debug("subnetId: {}", subnetId);
+
+        RunTaskRequest runTaskRequest = RunTaskRequest.builder()
+                //.launchType(LaunchType.FARGATE)
+                .capacityProviderStrategy(CapacityProviderStrategyItem.builder().capacityProvider("FARGATE_SPOT").build())
+                .taskDefinition(managerProperties.getServerImage())
+                .overrides(TaskOverride.builder().containerOverrides(ContainerOverride.builder()
+                        .name(managerProperties.getServerImage())
+                        .environment(
+                                KeyValuePair.builder().name("MAP_NAME").value(mapName).build(),
+                                KeyValuePair.builder().name("SERVER_ID").value(serverId.toString()).build(),
+                                //KeyValuePair.builder().name("MANAGER_HOST").value(managerHosts.iterator().next()).build(),
+                                //KeyValuePair.builder().name("INITIAL_MANAGER_HOSTS")
+                                //       .value(String.join(",", managerHosts)).build(),
+                                KeyValuePair.builder().name("REGION_ID").value(regionId.toString()).build(),
+                                //KeyValuePair.builder().name("INITIAL_AREA_IDS")
+                                //        .value(server.getAreas().stream()
+                                //                .map(Area::getId)
+                                //                .map(Object::toString)
+                                //                .collect(Collectors.joining(","))).build(),
+                                KeyValuePair.builder().name("INITIAL_AREA_INDEXES")
+                                        .value(areaIndexes.stream()
+                                                .map(Object::toString)
+                                                .collect(Collectors.joining(","))).build(),
+                                KeyValuePair.builder().name("MAX_CONTROLLERS").value(managerProperties.getMaxControllers().toString()).build(),
+                                KeyValuePair.builder().name("MAX_PLAYERS").value(managerProperties.getMaxPlayers().toString()).build(),
+                                KeyValuePair.builder().name("MAX_BOTS").value(managerProperties.getMaxBots().toString()).build(),
+                                KeyValuePair.builder().name("FEATURE_FLAGS").value(coreProperties.getFeatureFlags()).build(),
+                                KeyValuePair.builder().name("SSL_ENABLED").value(String.valueOf(serverProperties.getSsl().isEnabled())).build())
+                        .build()).build())
+                .cluster(ecsHostingProperties.getEcsCluster())
+                .count(1)
+                .networkConfiguration(
+                        NetworkConfiguration.builder()
+                                .awsvpcConfiguration(
+                                        AwsVpcConfiguration.builder()
+                                                .subnets(subnetId)
+                                                .assignPublicIp(AssignPublicIp.ENABLED)
+                                                .securityGroups(securityGroupId)
+                                                .build())
+                                .build())
+                .build();
+        log.debug("runTaskRequest: {}", runTaskRequest);
+
+        RunTaskResponse runTaskResponse = ecsClient.runTask(runTaskRequest);
+        log.debug("runTaskResponse: {}", runTaskResponse);
 
-            return serverTask;
+        if (runTaskResponse.hasFailures() && !runTaskResponse.failures().isEmpty()) {
+            log.error("Run task failure: {}", runTaskResponse.failures());
+            // TODO: hosting exception
+            throw new RuntimeException("Run task failure");
         }
+
+        //log.info("tasks={}", runTaskResponse.tasks());
+        String taskArn = runTaskResponse.tasks().getFirst().taskArn();
+        log.debug("taskArn={}", taskArn);
+
+        TaskDto serverTask = TaskDto.builder()
+                .taskIdentifier(taskArn)
+                .publicWebSocketPort(8889)
+                .serverId(serverId)
+                .build();
+
+        return serverTask;
     }
 
     @Override
     public void stopServerTask(String taskIdentifier) {
         log.debug("Stopping {}", taskIdentifier);
 
-        try (EcsClient ecsClient = ecsClient()) {
-            ecsClient.stopTask(StopTaskRequest.builder().task(taskIdentifier).cluster(ecsHostingProperties.getEcsCluster()).build());
-        }
+        ecsClient.stopTask(StopTaskRequest.builder().task(taskIdentifier).cluster(ecsHostingProperties.getEcsCluster()).build());
+    }
+
+    @Override
+    public TaskDto reassignServerTask(String taskIdentifier, Long serverId) {
+        log.debug("Reassigning {} to server {}", taskIdentifier, serverId);
+
+        ecsClient.tagResource(TagResourceRequest.builder()
+                .resourceArn(taskIdentifier)
+                .tags(Tag.builder().key(SERVER_ID_TAG).value(serverId.toString()).build())
+                .build());
+
+        // the task keeps the port it was started with
+        TaskDto serverTask = TaskDto.builder()
+                .taskIdentifier(taskIdentifier)
+                .serverId(serverId)
+                .build();
+
+        return serverTask;
     }
 
     private static long parseServerId(String value) {
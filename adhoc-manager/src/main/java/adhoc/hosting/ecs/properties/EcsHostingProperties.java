@@ -50,6 +50,10 @@ public class EcsHostingProperties {
     @Value("${adhoc.server-container-service.ecs-cluster}")
     private String ecsCluster;
 
+    // use the async SDK clients so the chunks of tasks are described concurrently
+    @Value("${adhoc.server-container-service.async}")
+    private boolean async;
+
     @PostConstruct
     public void postConstruct() {
         log.info("awsRegion={}", awsRegion);
@@ -57,5 +61,6 @@ public class EcsHostingProperties {
         log.info("awsAvailabilityZone={}", awsAvailabilityZone);
         log.info("awsSecurityGroupName={}", awsSecurityGroupName);
         log.info("ecsCluster={}", ecsCluster);
+        log.info("async={}", async);
     }
 }
@@ -116,4 +116,19 @@ public class LocalHostingService implements HostingService {
         log.debug("No longer assuming local server task {}", taskIdentifier);
         serverIds.remove(serverId);
     }
+
+    @Override
+    public TaskDto reassignServerTask(String taskIdentifier, Long serverId) {
+        log.debug("Reassigning assumed local server task {} to server {}", taskIdentifier, serverId);
+        serverIds.remove(Long.valueOf(taskIdentifier));
+        serverIds.add(serverId);
+
+        // the local task identifier is based on the server ID, so it changes along with it
+        TaskDto serverTask = TaskDto.builder()
+                .taskIdentifier(serverId.toString())
+                .serverId(serverId)
+                .build();
+
+        return serverTask;
+    }
 }
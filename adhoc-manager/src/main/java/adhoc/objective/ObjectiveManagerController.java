@@ -25,12 +25,12 @@ package adhoc.objective;
 import adhoc.objective.taken.ObjectiveTakenEvent;
 import adhoc.objective.taken.ObjectiveTakenService;
 import adhoc.objective.taken.ServerObjectiveTakenEvent;
+import adhoc.system.event.EventSender;
 import com.google.common.base.Preconditions;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -51,6 +51,8 @@ public class ObjectiveManagerController {
     private final ObjectiveManagerService objectiveManagerService;
     private final ObjectiveTakenService objectiveTakenService;
 
+    private final EventSender eventSender;
+
     @PutMapping("/objectives/{objectiveId}")
     @PreAuthorize("hasRole('ADMIN')")
     public ObjectiveDto putObjective(@PathVariable Long objectiveId, @Valid @RequestBody ObjectiveDto objectiveDto) {
@@ -68,10 +70,12 @@ public class ObjectiveManagerController {
     }
 
     @MessageMapping("ObjectiveTaken")
-    @SendTo("/topic/events")
     @PreAuthorize("hasRole('SERVER') or hasRole('ADMIN')")
-    public ObjectiveTakenEvent handleObjectiveTaken(@Valid @RequestBody ServerObjectiveTakenEvent event) {
+    public void handleObjectiveTaken(@Valid @RequestBody ServerObjectiveTakenEvent event) {
         log.debug("Handling: {}", event);
-        return objectiveTakenService.handleObjectiveTaken(event);
+
+        ObjectiveTakenEvent objectiveTakenEvent = objectiveTakenService.handleObjectiveTaken(event);
+
+        eventSender.send(objectiveTakenEvent);
     }
 }
@@ -28,6 +28,8 @@ import adhoc.region.RegionEntity;
 import adhoc.region.RegionRepository;
 import adhoc.server.ServerEntity;
 import adhoc.server.ServerRepository;
+import adhoc.system.cache.AdhocCacheConfiguration;
+import adhoc.system.cache.AdhocCacheEvictionListener;
 import com.google.common.base.Preconditions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -58,6 +60,7 @@ public class ObjectiveManagerService {
     private final ServerRepository serverRepository;
 
     private final ObjectiveService objectiveService;
+    private final AdhocCacheEvictionListener adhocCacheEvictionListener;
 
     public ObjectiveDto updateObjective(ObjectiveDto objectiveDto) {
         ObjectiveEntity objective = objectiveRepository.getReferenceById(objectiveDto.getId());
@@ -66,6 +69,8 @@ public class ObjectiveManagerService {
         objective = toEntityStage1(objectiveDto, objective);
         objective = toEntityStage2(objectiveDto, objective);
 
+        adhocCacheEvictionListener.evictEverywhere(AdhocCacheConfiguration.OBJECTIVES, AdhocCacheConfiguration.OBJECTIVE_PAGES);
+
         return objectiveService.toDto(objective);
     }
 
@@ -94,6 +99,8 @@ public class ObjectiveManagerService {
             Preconditions.checkArgument(unique, "Objective index not unique: %s", objectiveDto.getIndex());
         }
 
+        adhocCacheEvictionListener.evictEverywhere(AdhocCacheConfiguration.OBJECTIVES, AdhocCacheConfiguration.OBJECTIVE_PAGES);
+
         List<ObjectiveEntity> unusedObjectives = objectiveRepository.findByRegionAndIndexNotIn(serverRegion, objectiveIndexes);
         for (ObjectiveEntity unusedObjective : unusedObjectives) {
             log.info("Deleting unused objective: {}", unusedObjective);
@@ -23,6 +23,7 @@
 package adhoc.objective.taken;
 
 import adhoc.system.Event;
+import adhoc.system.EventTopics;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 import lombok.AllArgsConstructor;
@@ -45,6 +46,10 @@ public class ObjectiveTakenEvent implements Event {
     @Min(0)
     Long objectiveVersion;
 
+    @NotNull
+    @Min(1)
+    Long regionId;
+
     @NotNull
     @Min(1)
     Long factionId;
@@ -52,4 +57,9 @@ public class ObjectiveTakenEvent implements Event {
     @NotNull
     @Min(0)
     Long factionVersion;
+
+    @Override
+    public String getDestination() {
+        return EventTopics.regionEvents(regionId);
+    }
 }
@@ -26,7 +26,7 @@ import adhoc.faction.FactionEntity;
 import adhoc.faction.FactionRepository;
 import adhoc.objective.ObjectiveEntity;
 import adhoc.objective.ObjectiveRepository;
-import adhoc.user.UserRepository;
+import adhoc.score.ScoreService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.LockAcquisitionException;
@@ -46,7 +46,7 @@ public class ObjectiveTakenService {
 
     private final ObjectiveRepository objectiveRepository;
     private final FactionRepository factionRepository;
-    private final UserRepository userRepository;
+    private final ScoreService scoreService;
 
     @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
             maxRetries = 3, delay = 100, jitter = 10, multiplier = 1, maxDelay = 1000)
@@ -58,18 +58,19 @@ public class ObjectiveTakenService {
 
         objectiveRepository.updateFactionById(faction, objective.getId());
 
-        factionRepository.updateScoreAddById(BigDecimal.valueOf(1.0), faction.getId());
+        scoreService.addFactionScore(faction.getId(), BigDecimal.valueOf(1.0));
 
         BigDecimal scoreAddHuman = BigDecimal.valueOf(1.0);
         BigDecimal scoreAddNonHuman = BigDecimal.valueOf(0.1);
         LocalDateTime seenAfter = LocalDateTime.now().minusMinutes(15);
-        userRepository.updateScoreAddByFactionIdAndStateSeenAfter(scoreAddHuman, scoreAddNonHuman, faction.getId(), seenAfter);
+        scoreService.addUserScoreByFactionIdAndStateSeenAfter(scoreAddHuman, scoreAddNonHuman, faction.getId(), seenAfter);
 
         // TODO
         return new ObjectiveTakenEvent(
                 objective.getId(),
                 objective.getVersion(),
+                objective.getRegion().getId(),
                 faction.getId(),
-                faction.getVersion() + 1);
+                faction.getVersion());
     }
 }
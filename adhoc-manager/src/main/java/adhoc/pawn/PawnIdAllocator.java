@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.pawn;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Allocates pawn IDs from blocks of the pawn ID sequence so a pawn has its ID as soon as it is reported,
+ * rather than only once {@link adhoc.pawn.flush.PawnFlushService} has written it to the pawn table.
+ */
+@Component
+@RequiredArgsConstructor
+public class PawnIdAllocator {
+
+    /** Must match the increment of pawn_id_sequence. */
+    private static final long BLOCK_SIZE = 100;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private long nextPawnId;
+    private long blockEnd;
+
+    public synchronized long nextPawnId() {
+        if (nextPawnId >= blockEnd) {
+            nextPawnId = jdbcTemplate.queryForObject("select nextval('pawn_id_sequence')", Long.class);
+            blockEnd = nextPawnId + BLOCK_SIZE;
+        }
+        return nextPawnId++;
+    }
+}
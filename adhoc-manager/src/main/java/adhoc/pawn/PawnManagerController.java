@@ -22,11 +22,12 @@
 
 package adhoc.pawn;
 
+import adhoc.system.event.EventSender;
+import com.google.common.base.Preconditions;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
@@ -40,15 +41,30 @@ public class PawnManagerController {
 
     private final PawnManagerService pawnManagerService;
 
+    private final EventSender eventSender;
+
+    /** A full report of the pawns of a server (which makes any earlier reports still waiting to be handled redundant). */
     @MessageMapping("ServerPawns")
-    @SendTo("/topic/events")
     @PreAuthorize("hasRole('SERVER')")
-    public ServerPawnsEvent handleServerPawns(@Valid @RequestBody ServerPawnsEvent event) {
+    public void handleServerPawns(@Valid @RequestBody ServerPawnsEvent event) {
         log.debug("Handling: {}", event);
 
+        // a delta here could be skipped by the next report (see AdhocSessionOrderedExecutor), losing its changes
+        Preconditions.checkArgument(!Boolean.TRUE.equals(event.getDelta()), "delta reports must be sent to ServerPawnsDelta");
+
         ServerPawnsEvent serverPawnsEvent = pawnManagerService.handleServerPawns(event);
 
-        log.debug("Sending: {}", serverPawnsEvent);
-        return serverPawnsEvent;
+        eventSender.send(serverPawnsEvent);
+    }
+
+    /** Just the changes to the pawns of a server since its previous report. */
+    @MessageMapping("ServerPawnsDelta")
+    @PreAuthorize("hasRole('SERVER')")
+    public void handleServerPawnsDelta(@Valid @RequestBody ServerPawnsEvent event) {
+        log.debug("Handling delta: {}", event);
+
+        ServerPawnsEvent serverPawnsEvent = pawnManagerService.handleServerPawns(event.toBuilder().delta(true).build());
+
+        eventSender.send(serverPawnsEvent);
     }
 }
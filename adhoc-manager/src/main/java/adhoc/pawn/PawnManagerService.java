@@ -22,102 +22,81 @@
 
 package adhoc.pawn;
 
-import adhoc.faction.FactionRepository;
-import adhoc.server.ServerEntity;
 import adhoc.server.ServerRepository;
-import adhoc.user.UserRepository;
+import adhoc.server.allocate.ServerAllocateDirtyTracker;
 import com.google.common.base.Preconditions;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.exception.LockAcquisitionException;
-import org.springframework.dao.TransientDataAccessException;
-import org.springframework.resilience.annotation.Retryable;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * Pawn reports from the servers only go into the {@link PawnStore}.
+ * They are written to the pawn table periodically by {@link adhoc.pawn.flush.PawnFlushService}.
+ */
 @Service
-@Transactional
 @Slf4j
 @RequiredArgsConstructor
 public class PawnManagerService {
 
-    private final PawnRepository pawnRepository;
+    private final PawnStore pawnStore;
+    private final PawnIdAllocator pawnIdAllocator;
     private final ServerRepository serverRepository;
-    private final UserRepository userRepository;
-    private final FactionRepository factionRepository;
+    private final ServerAllocateDirtyTracker serverAllocateDirtyTracker;
 
-    private final PawnService pawnService;
+    /** A server stays in the region it was created for, so we only need to look this up once per server. */
+    private final Map<Long, Long> serverRegionIds = new ConcurrentHashMap<>();
 
-    @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
-            maxRetries = 3, delay = 100, jitter = 10, multiplier = 1, maxDelay = 1000)
     public ServerPawnsEvent handleServerPawns(ServerPawnsEvent serverPawnsEvent) {
         LocalDateTime seen = LocalDateTime.now();
 
-        ServerEntity server = serverRepository.getReferenceById(serverPawnsEvent.getServerId());
-
-        List<UUID> pawnUuids = new ArrayList<>();
-        //List<Long> userIds = new ArrayList<>();
-        List<PawnDto> pawnDtos = new ArrayList<>();
-
-        for (PawnDto dto : serverPawnsEvent.getPawns()) {
-            Preconditions.checkArgument(Objects.equals(server.getId(), dto.getServerId()));
-
-            PawnEntity pawn = toEntity(dto,
-                    pawnRepository.findByUuid(dto.getUuid()).orElseGet(PawnEntity::new));
-
-            pawn.setSeen(seen);
-
-            pawnUuids.add(pawn.getUuid());
-
-            //if (pawn.getUser() != null) {
-            // TODO
-            //pawn.getUser().setX(pawn.getX());
-            //pawn.getUser().setY(pawn.getY());
-            //pawn.getUser().setZ(pawn.getZ());
-            //pawn.getUser().setPitch(pawn.getPitch());
-            //pawn.getUser().setYaw(pawn.getYaw());
-            //pawn.getUser().setServer(server);
-            //pawn.getUser().setSeen(seen);
-
-            //userIds.add(pawn.getUser().getId());
-            //}
-
-            if (pawn.getId() == null) {
-                pawn = pawnRepository.save(pawn);
-            }
-
-            pawnDtos.add(pawnService.toDto(pawn));
+        Long serverId = serverPawnsEvent.getServerId();
+
+        List<PawnDto> pawns = serverPawnsEvent.getPawns().stream()
+                .map(dto -> {
+                    Preconditions.checkArgument(Objects.equals(serverId, dto.getServerId()));
+
+                    return dto.toBuilder()
+                            // a new pawn gets its ID straight away so it is never published without one
+                            .id(pawnStore.assignPawnId(dto.getUuid(), pawnIdAllocator::nextPawnId))
+                            .version(null)
+                            .seen(seen)
+                            .build();
+                })
+                .toList();
+
+        boolean delta = Boolean.TRUE.equals(serverPawnsEvent.getDelta());
+        List<UUID> removedPawnUuids = Objects.requireNonNullElse(serverPawnsEvent.getRemovedPawnUuids(), List.of());
+
+        if (delta) {
+            // only the pawns which changed (or went away) since the server's previous report
+            pawnStore.updateServerPawns(serverId, pawns, removedPawnUuids, seen);
+        } else {
+            // replaces any pawns previously reported by this server
+            pawnStore.putServerPawns(serverId, pawns, seen);
         }
 
-        // clean up any pawns that are no longer on this server
-        pawnRepository.deleteByServerAndUuidNotIn(server, pawnUuids);
+        // an unknown server (e.g. one just purged) gets no region, so its pawns just go to the global events
+        Long regionId = serverRegionIds.computeIfAbsent(serverId, id ->
+                serverRepository.findById(id).map(server -> server.getRegion().getId()).orElse(null));
 
-        // update users seen
-        //userRepository.updateServerAndSeenByIdIn(server, seen, userIds);
+        // area grouping depends on how many humans/bots each server has
+        List<PawnDto> serverPawns = pawnStore.findServerPawns(serverId);
+        int humans = (int) serverPawns.stream().filter(pawn -> Boolean.TRUE.equals(pawn.getHuman())).count();
+        serverAllocateDirtyTracker.markServerLoad(regionId, serverId, humans, serverPawns.size() - humans);
 
-        return new ServerPawnsEvent(server.getId(), pawnDtos);
+        return new ServerPawnsEvent(serverId, regionId, pawns, delta, delta ? removedPawnUuids : null);
     }
 
-    PawnEntity toEntity(PawnDto pawnDto, PawnEntity pawn) {
-        pawn.setUuid(pawnDto.getUuid());
-        pawn.setServer(serverRepository.getReferenceById(pawnDto.getServerId()));
-        pawn.setIndex(pawnDto.getIndex());
-        pawn.setName(pawnDto.getName());
-        pawn.setDescription(pawnDto.getDescription());
-        pawn.setX(pawnDto.getX());
-        pawn.setY(pawnDto.getY());
-        pawn.setZ(pawnDto.getZ());
-        pawn.setPitch(pawnDto.getPitch());
-        pawn.setYaw(pawnDto.getYaw());
-        pawn.setUser(pawnDto.getUserId() == null ? null : userRepository.getReferenceById(pawnDto.getUserId()));
-        pawn.setHuman(pawnDto.getHuman());
-        pawn.setFaction(pawnDto.getFactionId() == null ? null : factionRepository.getReferenceById(pawnDto.getFactionId()));
-        return pawn;
+    /** The server no longer exists (so its ID won't be reported again). */
+    public void removeServerRegion(Long serverId) {
+        serverRegionIds.remove(serverId);
+        serverAllocateDirtyTracker.removeServerLoad(serverId);
     }
 }
@@ -23,6 +23,7 @@
 package adhoc.pawn;
 
 import adhoc.system.Event;
+import adhoc.system.EventTopics;
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
@@ -31,8 +32,19 @@ import lombok.Builder;
 import lombok.Value;
 import lombok.extern.jackson.Jacksonized;
 
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.UUID;
 
+/**
+ * Either a full report of all the pawns of a server (a keyframe), or when delta is true, just the pawns which were added or moved
+ * and the UUIDs of the pawns which were removed since the previous report.
+ * Servers send full reports to /app/ServerPawns and deltas to /app/ServerPawnsDelta (see {@link PawnManagerController}).
+ */
 @Value
 @AllArgsConstructor
 @Builder(toBuilder = true)
@@ -44,6 +56,56 @@ public class ServerPawnsEvent implements Event {
     @Min(1)
     Long serverId;
 
+    /** Filled in by the manager when passing the event on (the server does not need to send it). */
+    Long regionId;
+
     @NotNull
     List<@Valid PawnDto> pawns;
+
+    Boolean delta;
+
+    List<@NotNull UUID> removedPawnUuids;
+
+    @Override
+    public String getDestination() {
+        return regionId == null ? EventTopics.EVENTS : EventTopics.regionEvents(regionId);
+    }
+
+    @Override
+    public Object getConflationKey() {
+        return serverId;
+    }
+
+    /** A delta report only makes sense on top of the reports before it. */
+    @Override
+    public boolean isSupersedable() {
+        return !Boolean.TRUE.equals(delta);
+    }
+
+    /** A later full report replaces this one, but a later delta is applied on top of this (full or delta) report. */
+    @Override
+    public Event conflate(Event later) {
+        ServerPawnsEvent laterServerPawns = (ServerPawnsEvent) later;
+        if (!Boolean.TRUE.equals(laterServerPawns.getDelta())) {
+            return later;
+        }
+
+        Map<UUID, PawnDto> pawnsByUuid = new LinkedHashMap<>();
+        pawns.forEach(pawn -> pawnsByUuid.put(pawn.getUuid(), pawn));
+        Set<UUID> removedUuids = new LinkedHashSet<>(Objects.requireNonNullElse(removedPawnUuids, List.of()));
+
+        for (UUID removedUuid : Objects.requireNonNullElse(laterServerPawns.getRemovedPawnUuids(), List.<UUID>of())) {
+            pawnsByUuid.remove(removedUuid);
+            removedUuids.add(removedUuid);
+        }
+        for (PawnDto pawn : laterServerPawns.getPawns()) {
+            pawnsByUuid.put(pawn.getUuid(), pawn);
+            removedUuids.remove(pawn.getUuid());
+        }
+
+        return toBuilder()
+                .pawns(List.copyOf(pawnsByUuid.values()))
+                .removedPawnUuids(Boolean.TRUE.equals(delta) ? List.copyOf(removedUuids) : null)
+                .build();
+    }
 }
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.pawn.flush;
+
+import adhoc.faction.FactionRepository;
+import adhoc.pawn.PawnDto;
+import adhoc.pawn.PawnEntity;
+import adhoc.pawn.PawnRepository;
+import adhoc.pawn.PawnStore;
+import adhoc.server.ServerEntity;
+import adhoc.server.ServerRepository;
+import adhoc.system.transaction.TransactionUtils;
+import adhoc.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.LockAcquisitionException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.resilience.annotation.Retryable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Writes snapshots of the {@link PawnStore} to the pawn table so that pawns are still visible via the database
+ * (e.g. to the kiosk) while the database only sees one write per pawn per flush rather than one per server report.
+ * Only servers whose pawns have changed since the last flush are written.
+ */
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class PawnFlushService {
+
+    private final PawnRepository pawnRepository;
+    private final ServerRepository serverRepository;
+    private final UserRepository userRepository;
+    private final FactionRepository factionRepository;
+
+    private final PawnStore pawnStore;
+
+    @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
+            maxRetries = 3, delay = 100, jitter = 10, multiplier = 1, maxDelay = 1000)
+    public void flushPawns() {
+        Map<Long, List<PawnDto>> serverPawns = pawnStore.takeDirtyServerPawns();
+        log.trace("Flushing pawns... servers={}", serverPawns.size());
+
+        // try these servers again next time (or on retry) if they don't get committed
+        TransactionUtils.afterRollback(() -> pawnStore.markServersDirty(serverPawns.keySet()));
+
+        flushServerPawns(serverPawns);
+    }
+
+    private void flushServerPawns(Map<Long, List<PawnDto>> serverPawns) {
+        if (serverPawns.isEmpty()) {
+            return;
+        }
+
+        Set<Long> existingServerIds = serverRepository.findAllById(serverPawns.keySet()).stream()
+                .map(ServerEntity::getId)
+                .collect(Collectors.toSet());
+
+        // look up all the existing pawns in one go rather than one query per pawn
+        List<UUID> pawnUuids = serverPawns.values().stream().flatMap(List::stream).map(PawnDto::getUuid).toList();
+        Map<UUID, PawnEntity> existingPawns = pawnRepository.findByUuidIn(pawnUuids).stream()
+                .collect(Collectors.toMap(PawnEntity::getUuid, Function.identity(), (pawn1, pawn2) -> pawn1));
+
+        // a pawn which went away and came back before its removal was written has a new ID, so its old row is replaced
+        Map<UUID, Long> pawnIds = serverPawns.values().stream().flatMap(List::stream)
+                .collect(Collectors.toMap(PawnDto::getUuid, PawnDto::getId, (id1, id2) -> id2));
+        List<Long> replacedPawnIds = existingPawns.values().stream()
+                .filter(pawn -> !pawn.getId().equals(pawnIds.get(pawn.getUuid())))
+                .map(PawnEntity::getId)
+                .toList();
+        if (!replacedPawnIds.isEmpty()) {
+            pawnRepository.deleteAllByIdInBatch(replacedPawnIds);
+            existingPawns.values().removeIf(pawn -> replacedPawnIds.contains(pawn.getId()));
+        }
+
+        serverPawns.forEach((serverId, pawnDtos) -> {
+            if (!existingServerIds.contains(serverId)) {
+                log.debug("Discarding pawns for unknown server: serverId={}", serverId);
+                pawnStore.removeServerPawns(serverId);
+                return;
+            }
+
+            // a misbehaving server could report the same pawn twice - the last one reported wins
+            Map<UUID, PawnEntity> pawns = new LinkedHashMap<>();
+            List<PawnEntity> newPawns = new ArrayList<>();
+
+            // pawns which have not moved are left out of delta reports, but the server still had them when it last reported
+            LocalDateTime serverSeen = pawnStore.findServerSeen(serverId).orElse(null);
+
+            for (PawnDto dto : pawnDtos) {
+                PawnEntity existingPawn = pawns.containsKey(dto.getUuid()) ? pawns.get(dto.getUuid()) : existingPawns.get(dto.getUuid());
+                PawnEntity pawn = toEntity(dto, existingPawn == null ? new PawnEntity() : existingPawn);
+
+                if (serverSeen != null && serverSeen.isAfter(pawn.getSeen())) {
+                    pawn.setSeen(serverSeen);
+                }
+
+                if (existingPawn == null) {
+                    // as assigned when the pawn was first reported
+                    pawn.setId(dto.getId());
+                    newPawns.add(pawn);
+                }
+
+                pawns.put(pawn.getUuid(), pawn);
+            }
+
+            // new pawns are inserted (and updated pawns flushed) as JDBC batches - see hibernate.jdbc.batch_size
+            pawnRepository.saveAll(newPawns);
+
+            // clean up any pawns that are no longer on this server
+            ServerEntity server = serverRepository.getReferenceById(serverId);
+            if (pawns.isEmpty()) {
+                pawnRepository.deleteByServer(server);
+            } else {
+                pawnRepository.deleteByServerAndUuidNotIn(server, List.copyOf(pawns.keySet()));
+            }
+        });
+    }
+
+    PawnEntity toEntity(PawnDto pawnDto, PawnEntity pawn) {
+        pawn.setUuid(pawnDto.getUuid());
+        pawn.setServer(serverRepository.getReferenceById(pawnDto.getServerId()));
+        pawn.setIndex(pawnDto.getIndex());
+        pawn.setName(pawnDto.getName());
+        pawn.setDescription(pawnDto.getDescription());
+        pawn.setX(pawnDto.getX());
+        pawn.setY(pawnDto.getY());
+        pawn.setZ(pawnDto.getZ());
+        pawn.setPitch(pawnDto.getPitch());
+        pawn.setYaw(pawnDto.getYaw());
+        pawn.setUser(pawnDto.getUserId() == null ? null : userRepository.getReferenceById(pawnDto.getUserId()));
+        pawn.setHuman(pawnDto.getHuman());
+        pawn.setFaction(pawnDto.getFactionId() == null ? null : factionRepository.getReferenceById(pawnDto.getFactionId()));
+        pawn.setSeen(pawnDto.getSeen());
+        return pawn;
+    }
+}
@@ -23,6 +23,7 @@
 package adhoc.pawn.purge;
 
 import adhoc.pawn.PawnRepository;
+import adhoc.pawn.PawnStore;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.LockAcquisitionException;
@@ -40,12 +41,18 @@ import java.time.LocalDateTime;
 public class PawnPurgeService {
 
     private final PawnRepository pawnRepository;
+    private final PawnStore pawnStore;
 
     @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
             maxRetries = 3, delay = 100, jitter = 10, multiplier = 1, maxDelay = 1000)
     public void purgeOldPawns() {
         log.trace("Purging old pawns...");
 
-        pawnRepository.deleteBySeenBefore(LocalDateTime.now().minusMinutes(1));
+        LocalDateTime seenBefore = LocalDateTime.now().minusMinutes(1);
+
+        // servers which have stopped reporting pawns
+        pawnStore.removeServerPawnsSeenBefore(seenBefore);
+
+        pawnRepository.deleteBySeenBefore(seenBefore);
     }
 }
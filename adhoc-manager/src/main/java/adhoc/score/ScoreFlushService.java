@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.score;
+
+import adhoc.faction.FactionRepository;
+import adhoc.leaderboard.LeaderboardEntry;
+import adhoc.leaderboard.LeaderboardService;
+import adhoc.system.cache.AdhocCacheConfiguration;
+import adhoc.system.cache.AdhocCacheEvictionListener;
+import adhoc.system.transaction.TransactionUtils;
+import adhoc.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.exception.LockAcquisitionException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.resilience.annotation.Retryable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Writes the score increases held in the {@link ScoreStore} to the user and faction tables as {@code score = score + ?} updates:
+ * one JDBC batch for the users, and a bulk update per faction (there are only a few) so Hibernate invalidates the cached factions.
+ * The version is not bumped (the entities use dynamic updates so other changes to the same rows don't overwrite the score)
+ * so the flush doesn't conflict with e.g. user state updates.
+ */
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class ScoreFlushService {
+
+    private final UserRepository userRepository;
+    private final FactionRepository factionRepository;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final ScoreService scoreService;
+    private final ScoreStore scoreStore;
+    private final LeaderboardService leaderboardService;
+    private final AdhocCacheEvictionListener adhocCacheEvictionListener;
+
+    @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
+            maxRetries = 3, delay = 100, jitter = 10, multiplier = 1, maxDelay = 1000)
+    public void flushScores() {
+        LocalDateTime now = LocalDateTime.now();
+
+        Map<LocalDateTime, Map<Long, BigDecimal>> userScores = scoreStore.takeUserScores();
+        Map<LocalDateTime, Map<Long, BigDecimal>> factionScores = scoreStore.takeFactionScores();
+        log.trace("Flushing scores... userScores={} factionScores={}", userScores.size(), factionScores.size());
+
+        // try these again next time (or on retry) if they don't get committed
+        TransactionUtils.afterRollback(() -> {
+            scoreStore.restoreUserScores(userScores);
+            scoreStore.restoreFactionScores(factionScores);
+        });
+
+        if (!userScores.isEmpty()) {
+            flushUserScores(rebaseScores(userScores, scoreService.normaliseUserScores(now)));
+        }
+        if (!factionScores.isEmpty()) {
+            flushFactionScores(rebaseScores(factionScores, scoreService.normaliseFactionScores(now)));
+        }
+    }
+
+    private void flushUserScores(Map<Long, BigDecimal> scoreAdds) {
+        Set<Long> unknownUserIds = updateUserScoreAdds(scoreAdds);
+
+        if (!unknownUserIds.isEmpty()) {
+            log.debug("Discarding scores for unknown users: userIds={}", unknownUserIds);
+            scoreStore.removeUserScores(unknownUserIds);
+        }
+
+        // the leaderboard only sees the new scores once they are committed
+        List<LeaderboardEntry> entries = userRepository.findLeaderboardEntriesByIdIn(scoreAdds.keySet());
+        TransactionUtils.afterCommit(() -> entries.forEach(leaderboardService::offerLeaderboardEntry));
+    }
+
+    private void flushFactionScores(Map<Long, BigDecimal> scoreAdds) {
+        // in ID order, so concurrent flushes lock the rows in the same order
+        Set<Long> unknownFactionIds = new HashSet<>();
+        new TreeMap<>(scoreAdds).forEach((factionId, scoreAdd) -> {
+            if (factionRepository.updateScoreAddById(factionId, scoreAdd) == 0) {
+                unknownFactionIds.add(factionId);
+            }
+        });
+
+        if (!unknownFactionIds.isEmpty()) {
+            log.debug("Discarding scores for unknown factions: factionIds={}", unknownFactionIds);
+            scoreStore.removeFactionScores(unknownFactionIds);
+        }
+
+        // there is no event for a faction's score changing, and the other nodes have their own caches
+        adhocCacheEvictionListener.evictEverywhere(AdhocCacheConfiguration.FACTIONS, AdhocCacheConfiguration.FACTION_PAGES);
+    }
+
+    /** Run the update for each user (in ID order, so concurrent flushes lock the rows in the same order) returning the IDs which weren't found. */
+    private Set<Long> updateUserScoreAdds(Map<Long, BigDecimal> scoreAdds) {
+        List<Long> ids = new ArrayList<>(scoreAdds.size());
+        List<Object[]> batchArgs = new ArrayList<>(scoreAdds.size());
+        new TreeMap<>(scoreAdds).forEach((id, scoreAdd) -> {
+            ids.add(id);
+            batchArgs.add(new Object[]{scoreAdd, id});
+        });
+
+        int[] updateCounts = jdbcTemplate.batchUpdate("update user_ set score = score + ? where id = ?", batchArgs);
+
+        Set<Long> unknownIds = new HashSet<>();
+        for (int i = 0; i < updateCounts.length; i++) {
+            if (updateCounts[i] == 0) {
+                unknownIds.add(ids.get(i));
+            }
+        }
+        return unknownIds;
+    }
+
+    /** Combine the score increases into one increase per ID, normalised to the given (current) normalised time. */
+    static Map<Long, BigDecimal> rebaseScores(Map<LocalDateTime, Map<Long, BigDecimal>> scores, LocalDateTime scoreNormalised) {
+        Map<Long, BigDecimal> rebasedScores = new HashMap<>();
+
+        scores.forEach((oldScoreNormalised, idScores) -> {
+            BigDecimal decayFactor = ScoreDecayUtils.decayFactor(oldScoreNormalised, scoreNormalised);
+            idScores.forEach((id, score) ->
+                    rebasedScores.merge(id, score.multiply(decayFactor, MathContext.DECIMAL64), BigDecimal::add));
+        });
+
+        return rebasedScores;
+    }
+}
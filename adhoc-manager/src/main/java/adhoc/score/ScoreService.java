@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.score;
+
+import adhoc.faction.FactionRepository;
+import adhoc.system.cache.AdhocCacheConfiguration;
+import adhoc.system.cache.AdhocCacheEvictionListener;
+import adhoc.system.transaction.TransactionUtils;
+import adhoc.user.UserRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * All changes to user and faction scores should go through here so that the stored scores stay normalised
+ * to the same time (see {@link ScoreDecayUtils}). Scores are rebased when the normalised time moves on (once a day),
+ * which is the only time every score gets rewritten.
+ * <p>
+ * Score increases for a single user or faction are held in the {@link ScoreStore} and written by the {@link ScoreFlushService},
+ * rather than each one updating (and locking) the same busy row.
+ */
+@Service
+@Transactional
+@Slf4j
+@RequiredArgsConstructor
+public class ScoreService {
+
+    private final UserRepository userRepository;
+    private final FactionRepository factionRepository;
+
+    private final ScoreStore scoreStore;
+    private final AdhocCacheEvictionListener adhocCacheEvictionListener;
+
+    /** Rebase any user scores not normalised to the current normalised time, returning the current normalised time. */
+    public LocalDateTime normaliseUserScores(LocalDateTime now) {
+        LocalDateTime scoreNormalised = ScoreDecayUtils.normalisedTime(now);
+
+        for (LocalDateTime oldScoreNormalised : userRepository.findDistinctScoreNormalisedByScoreNormalisedNot(scoreNormalised)) {
+            log.debug("Rebasing user scores: oldScoreNormalised={} scoreNormalised={}", oldScoreNormalised, scoreNormalised);
+            userRepository.updateScoreMultiplyAndScoreNormalisedByScoreNormalised(
+                    ScoreDecayUtils.decayFactor(oldScoreNormalised, scoreNormalised), scoreNormalised, oldScoreNormalised);
+        }
+
+        return scoreNormalised;
+    }
+
+    /** Rebase any faction scores not normalised to the current normalised time, returning the current normalised time. */
+    public LocalDateTime normaliseFactionScores(LocalDateTime now) {
+        LocalDateTime scoreNormalised = ScoreDecayUtils.normalisedTime(now);
+
+        for (LocalDateTime oldScoreNormalised : factionRepository.findDistinctScoreNormalisedByScoreNormalisedNot(scoreNormalised)) {
+            log.debug("Rebasing faction scores: oldScoreNormalised={} scoreNormalised={}", oldScoreNormalised, scoreNormalised);
+            factionRepository.updateScoreMultiplyAndScoreNormalisedByScoreNormalised(
+                    ScoreDecayUtils.decayFactor(oldScoreNormalised, scoreNormalised), scoreNormalised, oldScoreNormalised);
+            adhocCacheEvictionListener.evictEverywhere(AdhocCacheConfiguration.FACTIONS, AdhocCacheConfiguration.FACTION_PAGES);
+        }
+
+        return scoreNormalised;
+    }
+
+    public void addUserScore(Long userId, BigDecimal scoreAdd) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime scoreNormalised = ScoreDecayUtils.normalisedTime(now);
+        BigDecimal normalisedScoreAdd = ScoreDecayUtils.normalisedScore(scoreAdd, scoreNormalised, now);
+
+        // only count the increase once the transaction it is part of commits (it may otherwise be rolled back and retried)
+        TransactionUtils.afterCommit(() -> scoreStore.addUserScore(userId, normalisedScoreAdd, scoreNormalised));
+    }
+
+    public void addUserScoreByFactionIdAndStateSeenAfter(BigDecimal scoreAddHuman, BigDecimal scoreAddNonHuman, Long factionId, LocalDateTime seenAfter) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime scoreNormalised = normaliseUserScores(now);
+
+        userRepository.updateScoreAddByFactionIdAndStateSeenAfter(
+                ScoreDecayUtils.normalisedScore(scoreAddHuman, scoreNormalised, now),
+                ScoreDecayUtils.normalisedScore(scoreAddNonHuman, scoreNormalised, now),
+                factionId, seenAfter);
+    }
+
+    public void addFactionScore(Long factionId, BigDecimal scoreAdd) {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime scoreNormalised = ScoreDecayUtils.normalisedTime(now);
+        BigDecimal normalisedScoreAdd = ScoreDecayUtils.normalisedScore(scoreAdd, scoreNormalised, now);
+
+        TransactionUtils.afterCommit(() -> scoreStore.addFactionScore(factionId, normalisedScoreAdd, scoreNormalised));
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.score;
+
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory score increases which have not yet been written to the database. Adding to a user or faction score only
+ * increments a striped counter here, so busy users/factions don't contend on their row, and the {@link ScoreFlushService}
+ * periodically writes the totals in one go. Increases which haven't been flushed are lost if the manager stops.
+ * <p>
+ * Each increase is kept normalised to the normalised time at which it was added (see {@link ScoreDecayUtils})
+ * so the flush can rebase any increases which were added before the normalised time moved on.
+ */
+@Component
+public class ScoreStore {
+
+    /** Scores are counted in fixed point units of this many decimal places. */
+    private static final int SCALE = 9;
+
+    private final Accumulator userScores = new Accumulator();
+    private final Accumulator factionScores = new Accumulator();
+
+    public void addUserScore(Long userId, BigDecimal normalisedScoreAdd, LocalDateTime scoreNormalised) {
+        userScores.add(userId, normalisedScoreAdd, scoreNormalised);
+    }
+
+    public void addFactionScore(Long factionId, BigDecimal normalisedScoreAdd, LocalDateTime scoreNormalised) {
+        factionScores.add(factionId, normalisedScoreAdd, scoreNormalised);
+    }
+
+    /** Take the user score increases added since the last take, by the normalised time they were added at. */
+    public Map<LocalDateTime, Map<Long, BigDecimal>> takeUserScores() {
+        return userScores.take();
+    }
+
+    /** Take the faction score increases added since the last take, by the normalised time they were added at. */
+    public Map<LocalDateTime, Map<Long, BigDecimal>> takeFactionScores() {
+        return factionScores.take();
+    }
+
+    /** Put back taken user score increases which could not be written (so they are written next time). */
+    public void restoreUserScores(Map<LocalDateTime, Map<Long, BigDecimal>> scores) {
+        userScores.restore(scores);
+    }
+
+    /** Put back taken faction score increases which could not be written (so they are written next time). */
+    public void restoreFactionScores(Map<LocalDateTime, Map<Long, BigDecimal>> scores) {
+        factionScores.restore(scores);
+    }
+
+    /** Stop counting for users which no longer exist. */
+    public void removeUserScores(Collection<Long> userIds) {
+        userScores.remove(userIds);
+    }
+
+    /** Stop counting for factions which no longer exist. */
+    public void removeFactionScores(Collection<Long> factionIds) {
+        factionScores.remove(factionIds);
+    }
+
+    private static class Accumulator {
+
+        private final Map<LocalDateTime, Map<Long, LongAdder>> counters = new ConcurrentHashMap<>();
+
+        // adds share the read lock so they only wait while a normalised time's counters are being removed
+        private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+        void add(Long id, BigDecimal score, LocalDateTime scoreNormalised) {
+            long units = score.movePointRight(SCALE).setScale(0, RoundingMode.HALF_EVEN).longValueExact();
+
+            lock.readLock().lock();
+            try {
+                counters.computeIfAbsent(scoreNormalised, k -> new ConcurrentHashMap<>())
+                        .computeIfAbsent(id, k -> new LongAdder())
+                        .add(units);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        Map<LocalDateTime, Map<Long, BigDecimal>> take() {
+            Map<LocalDateTime, Map<Long, BigDecimal>> taken = new HashMap<>();
+
+            counters.forEach((scoreNormalised, idCounters) -> idCounters.forEach((id, counter) -> {
+                // subtract what was seen rather than resetting, so anything added meanwhile is left for next time
+                long units = counter.sum();
+                if (units != 0) {
+                    counter.add(-units);
+                    taken.computeIfAbsent(scoreNormalised, k -> new HashMap<>()).put(id, BigDecimal.valueOf(units, SCALE));
+                }
+            }));
+
+            // once a day has moved on hardly anything more is added against the previous normalised time
+            // (just increases from transactions which were already in progress) so its counters can go once they are all zero
+            LocalDateTime latestScoreNormalised = counters.keySet().stream().max(LocalDateTime::compareTo).orElse(null);
+            lock.writeLock().lock();
+            try {
+                counters.entrySet().removeIf(entry -> entry.getKey().isBefore(latestScoreNormalised)
+                        && entry.getValue().values().stream().allMatch(counter -> counter.sum() == 0));
+            } finally {
+                lock.writeLock().unlock();
+            }
+
+            return taken;
+        }
+
+        void restore(Map<LocalDateTime, Map<Long, BigDecimal>> scores) {
+            scores.forEach((scoreNormalised, idScores) -> idScores.forEach((id, score) -> add(id, score, scoreNormalised)));
+        }
+
+        void remove(Collection<Long> ids) {
+            counters.values().forEach(idCounters -> idCounters.keySet().removeAll(ids));
+        }
+    }
+}
@@ -25,6 +25,9 @@ package adhoc.server;
 import adhoc.area.AreaEntity;
 import adhoc.area.AreaRepository;
 import adhoc.region.RegionRepository;
+import adhoc.server.allocate.ServerAllocateDirtyTracker;
+import adhoc.system.cache.AdhocCacheConfiguration;
+import adhoc.system.cache.AdhocCacheEvictionListener;
 import adhoc.task.server.ServerTaskRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -50,6 +53,8 @@ public class ServerManagerService {
     private final AreaRepository areaRepository;
 
     private final ServerService serverService;
+    private final ServerAllocateDirtyTracker serverAllocateDirtyTracker;
+    private final AdhocCacheEvictionListener adhocCacheEvictionListener;
 
     public List<ServerDto> getServerServers(Long serverId) {
         return serverRepository.findAll(Sort.by("id")).stream().map(serverService::toDto).toList();
@@ -58,6 +63,12 @@ public class ServerManagerService {
     public ServerDto updateServer(ServerDto serverDto) {
         ServerEntity server = toEntity(serverDto, serverRepository.getReferenceById(serverDto.getId()));
 
+        // the server's region and areas may have changed too
+        adhocCacheEvictionListener.evictEverywhere(
+                AdhocCacheConfiguration.SERVERS, AdhocCacheConfiguration.SERVER_PAGES,
+                AdhocCacheConfiguration.AREAS, AdhocCacheConfiguration.AREA_PAGES,
+                AdhocCacheConfiguration.REGIONS, AdhocCacheConfiguration.REGION_PAGES);
+
         return serverService.toDto(server);
     }
 
@@ -69,6 +80,8 @@ public class ServerManagerService {
         // TODO: internal server status?
         server.setActive(true);
 
+        serverAllocateDirtyTracker.markServerDirty(server.getId());
+
         return toServerUpdatedEvent(server);
     }
 
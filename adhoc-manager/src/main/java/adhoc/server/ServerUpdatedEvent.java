@@ -64,4 +64,9 @@ public class ServerUpdatedEvent implements Event {
     Integer publicWebSocketPort;
 
     String webSocketUrl;
+
+    @Override
+    public Object getConflationKey() {
+        return serverId;
+    }
 }
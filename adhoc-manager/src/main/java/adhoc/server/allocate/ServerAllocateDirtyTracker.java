@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.server.allocate;
+
+import adhoc.system.properties.ManagerProperties;
+import adhoc.system.transaction.TransactionUtils;
+import adhoc.task.TaskEntity;
+import adhoc.task.refresh.TaskChangedEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps track of which regions (or servers, where the region is not to hand) have had changes that could affect
+ * server allocation, so that {@link ServerAllocateService} only needs to re-evaluate the affected regions.
+ * As this is only held in memory, a full reconcile of all regions is still done periodically as a safety net.
+ * <p>
+ * Changes are only marked once the transaction making them commits, otherwise an allocation running meanwhile
+ * could take the mark but still read the state from before the change.
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class ServerAllocateDirtyTracker {
+
+    private final ManagerProperties managerProperties;
+
+    private final Set<Long> dirtyRegionIds = ConcurrentHashMap.newKeySet();
+    private final Set<Long> dirtyServerIds = ConcurrentHashMap.newKeySet();
+
+    /** Humans and bots of each server as of when they last marked its region dirty. */
+    private final Map<Long, ServerLoad> serverLoads = new ConcurrentHashMap<>();
+
+    private record ServerLoad(int humans, int bots) {
+    }
+
+    /** When the last full reconcile was started (null means one is needed). */
+    private volatile LocalDateTime lastFullReconcile;
+
+    public void markRegionDirty(Long regionId) {
+        if (regionId != null) {
+            TransactionUtils.afterCommit(() -> dirtyRegionIds.add(regionId));
+        }
+    }
+
+    public void markServerDirty(Long serverId) {
+        if (serverId != null) {
+            TransactionUtils.afterCommit(() -> dirtyServerIds.add(serverId));
+        }
+    }
+
+    /**
+     * The humans and bots on a server affect how the areas of its region are grouped (see {@link adhoc.area.groups.LoadAwareAreaGroupsFactory}),
+     * so the region is marked dirty once they have changed by {@link ManagerProperties#getServerAllocateLoadChangeFraction()}
+     * of the maximums since the region was last marked for this server (rather than on every pawn report).
+     */
+    public void markServerLoad(Long regionId, Long serverId, int humans, int bots) {
+        if (regionId == null) {
+            return;
+        }
+
+        double humansChange = managerProperties.getMaxPlayers() * managerProperties.getServerAllocateLoadChangeFraction();
+        double botsChange = managerProperties.getMaxBots() * managerProperties.getServerAllocateLoadChangeFraction();
+
+        // the reports of each server are handled in order, so there is only ever one update per server at a time
+        ServerLoad previousLoad = serverLoads.get(serverId);
+        if (previousLoad != null
+                && Math.abs(humans - previousLoad.humans()) < humansChange
+                && Math.abs(bots - previousLoad.bots()) < botsChange) {
+            return;
+        }
+
+        ServerLoad load = new ServerLoad(humans, bots);
+        serverLoads.put(serverId, load);
+        log.trace("Server load changed: regionId={} serverId={} previousLoad={} load={}", regionId, serverId, previousLoad, load);
+        markRegionDirty(regionId);
+    }
+
+    /** The server no longer exists (so its load won't be reported again). */
+    public void removeServerLoad(Long serverId) {
+        serverLoads.remove(serverId);
+    }
+
+    /** Server tasks coming, going, or changing address affect the servers they are for. */
+    @TransactionalEventListener
+    public void handleTaskChanged(TaskChangedEvent event) {
+        // already after commit (where registering another after commit callback would have no effect)
+        if (event.type() == TaskEntity.Type.SERVER) {
+            if (event.serverId() != null) {
+                dirtyServerIds.add(event.serverId());
+            }
+            if (event.previousServerId() != null) {
+                dirtyServerIds.add(event.previousServerId());
+            }
+        }
+    }
+
+    /**
+     * Returns true if a full reconcile of all regions is due, in which case the caller should do one
+     * (any regions/servers marked as dirty are cleared as the full reconcile will cover them).
+     */
+    boolean takeFullReconcile(LocalDateTime now) {
+        LocalDateTime previousFullReconcile = lastFullReconcile;
+        if (previousFullReconcile != null
+                && previousFullReconcile.plus(managerProperties.getServerAllocateFullReconcileInterval()).isAfter(now)) {
+            return false;
+        }
+
+        lastFullReconcile = now;
+        Set<Long> regionIds = take(dirtyRegionIds);
+        Set<Long> serverIds = take(dirtyServerIds);
+
+        TransactionUtils.afterRollback(() -> {
+            lastFullReconcile = previousFullReconcile;
+            dirtyRegionIds.addAll(regionIds);
+            dirtyServerIds.addAll(serverIds);
+        });
+
+        return true;
+    }
+
+    Set<Long> takeDirtyRegionIds() {
+        Set<Long> regionIds = take(dirtyRegionIds);
+        TransactionUtils.afterRollback(() -> dirtyRegionIds.addAll(regionIds));
+        return regionIds;
+    }
+
+    Set<Long> takeDirtyServerIds() {
+        Set<Long> serverIds = take(dirtyServerIds);
+        TransactionUtils.afterRollback(() -> dirtyServerIds.addAll(serverIds));
+        return serverIds;
+    }
+
+    private static Set<Long> take(Set<Long> ids) {
+        Set<Long> takenIds = ConcurrentHashMap.newKeySet();
+        for (Long id : ids) {
+            if (ids.remove(id)) {
+                takenIds.add(id);
+            }
+        }
+        return takenIds;
+    }
+}
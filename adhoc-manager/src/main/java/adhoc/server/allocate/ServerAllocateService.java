@@ -31,6 +31,7 @@ import adhoc.server.ServerManagerService;
 import adhoc.server.ServerRepository;
 import adhoc.server.ServerUpdatedEvent;
 import adhoc.system.Event;
+import adhoc.system.properties.ManagerProperties;
 import adhoc.task.server.ServerTaskEntity;
 import adhoc.task.server.ServerTaskRepository;
 import com.google.common.base.Verify;
@@ -54,6 +55,7 @@ import java.util.Objects;
 import java.util.Optional;
 import java.util.OptionalDouble;
 import java.util.Set;
+import java.util.TreeSet;
 import java.util.stream.Stream;
 
 @Service
@@ -63,6 +65,7 @@ import java.util.stream.Stream;
 public class ServerAllocateService {
 
     private final ServerProperties serverProperties;
+    private final ManagerProperties managerProperties;
 
     private final ServerRepository serverRepository;
     private final RegionRepository regionRepository;
@@ -71,71 +74,121 @@ public class ServerAllocateService {
     private final ServerManagerService serverManagerService;
 
     private final AreaGroupsFactory areaGroupsFactory;
+    private final ServerAllocateDirtyTracker serverAllocateDirtyTracker;
 
     /**
      * Manage servers to ensure every area is being represented by a server, creating new servers as needed.
      * Some servers may represent more than one area - this will typically be based on number of players in each area.
+     * Only regions which have had relevant changes (see {@link ServerAllocateDirtyTracker}) are re-evaluated,
+     * other than a periodic full reconcile of all regions.
      */
     @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
             maxRetries = 3, delay = 100, jitter = 10, multiplier = 1, maxDelay = 1000)
     public List<? extends Event> allocateServers() {
-        log.trace("Managing servers...");
         List<Event> events = new ArrayList<>();
 
-        try (Stream<RegionEntity> regions = regionRepository.streamBy()) {
-            regions.forEach(region -> {
-                log.trace("Managing servers for region {}", region);
-                List<Long> usedServerIds = new ArrayList<>();
+        if (serverAllocateDirtyTracker.takeFullReconcile(LocalDateTime.now())) {
+            log.trace("Managing servers for all regions...");
 
-                List<Set<AreaEntity>> areaGroups = areaGroupsFactory.determineAreaGroups(region);
-                log.trace("Region {} area groups: {}", region.getId(), areaGroups);
+            try (Stream<RegionEntity> regions = regionRepository.streamBy()) {
+                regions.forEach(region -> allocateRegionServers(region, events));
+            }
 
-                for (Set<AreaEntity> areaGroup : areaGroups) {
-                    // TODO: prefer searching by area(s) that have human(s) in them
-                    AreaEntity firstArea = areaGroup.iterator().next();
+        } else {
+            Set<Long> regionIds = new TreeSet<>(serverAllocateDirtyTracker.takeDirtyRegionIds());
 
-                    // try to use an existing server for this area group, otherwise take an existing unused server or create a new server
-                    ServerEntity server = serverRepository.findFirstByRegionAndAreasContains(region, firstArea)
-                            .orElseGet(() -> serverRepository.findFirstByRegionAndAreasEmpty(region).orElseGet(ServerEntity::new));
+            Set<Long> serverIds = serverAllocateDirtyTracker.takeDirtyServerIds();
+            if (!serverIds.isEmpty()) {
+                serverRepository.findAllById(serverIds).stream()
+                        .map(ServerEntity::getRegion)
+                        .filter(Objects::nonNull)
+                        .map(RegionEntity::getId)
+                        .forEach(regionIds::add);
+            }
 
-                    // adjust server as necessary to ensure it is representing this region and area group
-                    boolean emitEvent = updateServerWithRegionAndAreaGroup(server, region, areaGroup);
+            if (!regionIds.isEmpty()) {
+                log.trace("Managing servers for regions {}", regionIds);
 
-                    if (server.getId() == null) {
-                        server = serverRepository.save(server);
-                        emitEvent = true;
-                    }
+                regionRepository.findAllById(regionIds).forEach(region -> allocateRegionServers(region, events));
+            }
+        }
 
-                    usedServerIds.add(server.getId());
+        return events;
+    }
 
-                    if (emitEvent) {
-                        ServerUpdatedEvent event = serverManagerService.toServerUpdatedEvent(server);
-                        //log.info("{}", event);
-                        events.add(event);
-                    }
-                }
+    private void allocateRegionServers(RegionEntity region, List<Event> events) {
+        log.trace("Managing servers for region {}", region);
+        List<Long> usedServerIds = new ArrayList<>();
 
-                // any servers in this region that are no longer used should be adjusted to ensure they are not representing any areas
-                try (Stream<ServerEntity> unusedServers = serverRepository.streamByRegionAndIdNotIn(region, usedServerIds)) {
-                    unusedServers.forEach(unusedServer -> {
-                        log.trace("Managing unused server {} for region {}", unusedServer, region);
+        List<Set<AreaEntity>> areaGroups = areaGroupsFactory.determineAreaGroups(region);
+        log.trace("Region {} area groups: {}", region.getId(), areaGroups);
+
+        for (Set<AreaEntity> areaGroup : areaGroups) {
+            // TODO: prefer searching by area(s) that have human(s) in them
+            AreaEntity firstArea = areaGroup.iterator().next();
+
+            // try to use an existing server for this area group, otherwise take an existing unused server
+            // (preferring a warm one that already has a running server task) or create a new server
+            ServerEntity server = serverRepository.findFirstByRegionAndAreasContains(region, firstArea)
+                    .orElseGet(() -> serverRepository.findFirstByRegionAndAreasEmptyOrderByEnabledDescActiveDescIdAsc(region)
+                            .orElseGet(ServerEntity::new));
+
+            // adjust server as necessary to ensure it is representing this region and area group
+            boolean emitEvent = updateServerWithRegionAndAreaGroup(server, region, areaGroup, false);
+
+            if (server.getId() == null) {
+                server = serverRepository.save(server);
+                emitEvent = true;
+            }
 
-                        boolean emitEvent = updateServerWithRegionAndAreaGroup(unusedServer, region, Collections.emptySet());
+            usedServerIds.add(server.getId());
 
-                        if (emitEvent) {
-                            ServerUpdatedEvent event = serverManagerService.toServerUpdatedEvent(unusedServer);
-                            //log.info("{}", event);
-                            events.add(event);
-                        }
-                    });
+            if (emitEvent) {
+                ServerUpdatedEvent event = serverManagerService.toServerUpdatedEvent(server);
+                //log.info("{}", event);
+                events.add(event);
+            }
+        }
+
+        // any servers in this region that are no longer used should be adjusted to ensure they are not representing any areas
+        // (the first few are kept enabled as the warm pool, preferring those that are already enabled/active)
+        int warmPoolSize = managerProperties.getServerWarmPoolSize();
+        int warmServers = 0;
+
+        try (Stream<ServerEntity> unusedServers = serverRepository.streamByRegionAndIdNotInOrderByEnabledDescActiveDescIdAsc(region, usedServerIds)) {
+            for (Iterator<ServerEntity> iter = unusedServers.iterator(); iter.hasNext(); ) {
+                ServerEntity unusedServer = iter.next();
+                log.trace("Managing unused server {} for region {}", unusedServer, region);
+
+                boolean warm = warmServers < warmPoolSize;
+                if (warm) {
+                    warmServers++;
+                }
+
+                boolean emitEvent = updateServerWithRegionAndAreaGroup(unusedServer, region, Collections.emptySet(), warm);
+
+                if (emitEvent) {
+                    ServerUpdatedEvent event = serverManagerService.toServerUpdatedEvent(unusedServer);
+                    //log.info("{}", event);
+                    events.add(event);
                 }
-            });
+            }
         }
 
-        return events;
+        // top up the warm pool with new servers (their server tasks will be started as for any other enabled server)
+        for (; warmServers < warmPoolSize; warmServers++) {
+            ServerEntity warmServer = new ServerEntity();
+            updateServerWithRegionAndAreaGroup(warmServer, region, Collections.emptySet(), true);
+            warmServer = serverRepository.save(warmServer);
+            log.debug("Created warm server {} for region {}", warmServer, region);
+
+            ServerUpdatedEvent event = serverManagerService.toServerUpdatedEvent(warmServer);
+            //log.info("{}", event);
+            events.add(event);
+        }
     }
 
-    private boolean updateServerWithRegionAndAreaGroup(ServerEntity server, RegionEntity region, Set<AreaEntity> areaGroup) {
+    private boolean updateServerWithRegionAndAreaGroup(ServerEntity server, RegionEntity region, Set<AreaEntity> areaGroup, boolean warm) {
         log.trace("Updating server {} with region {} and area group {}", server, region, areaGroup);
 
         Optional<ServerTaskEntity> optionalServerTask = Optional.ofNullable(server.getId()).flatMap(serverTaskRepository::findFirstByServerId);
@@ -151,9 +204,9 @@ public class ServerAllocateService {
         BigDecimal areaGroupY = averageY.isPresent() ? BigDecimal.valueOf(averageY.getAsDouble()).setScale(32, RoundingMode.HALF_UP) : null;
         BigDecimal areaGroupZ = averageZ.isPresent() ? BigDecimal.valueOf(averageZ.getAsDouble()).setScale(32, RoundingMode.HALF_UP) : null;
 
-        // a server should be enabled if it has one or more areas assigned to it
+        // a server should be enabled if it has one or more areas assigned to it, or it is part of the warm pool
         // (this will trigger the starting of a server task via the hosting service)
-        boolean enabled = !areaGroup.isEmpty();
+        boolean enabled = !areaGroup.isEmpty() || warm;
 
         // only remain marked as active if there is still a server task
         boolean active = server.isActive() && optionalServerTask.isPresent();
@@ -22,9 +22,12 @@
 
 package adhoc.server.purge;
 
+import adhoc.pawn.PawnManagerService;
 import adhoc.server.ServerEntity;
 import adhoc.server.ServerRepository;
+import adhoc.server.allocate.ServerAllocateDirtyTracker;
 import adhoc.system.properties.ManagerProperties;
+import adhoc.system.transaction.TransactionUtils;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -43,6 +46,9 @@ public class ServerPurgeService {
 
     private final ServerRepository serverRepository;
 
+    private final ServerAllocateDirtyTracker serverAllocateDirtyTracker;
+    private final PawnManagerService pawnManagerService;
+
     public void purgeOldServers() {
         LocalDateTime seenBefore = LocalDateTime.now().minus(managerProperties.getPurgeOldServersSeenBefore());
 
@@ -51,6 +57,11 @@ public class ServerPurgeService {
                 log.debug("Deleting old server {}", oldServer.getId());
 
                 serverRepository.delete(oldServer);
+
+                serverAllocateDirtyTracker.markRegionDirty(oldServer.getRegion().getId());
+
+                Long oldServerId = oldServer.getId();
+                TransactionUtils.afterCommit(() -> pawnManagerService.removeServerRegion(oldServerId));
             });
         }
     }
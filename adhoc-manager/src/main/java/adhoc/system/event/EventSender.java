@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.system.event;
+
+import adhoc.system.Event;
+import adhoc.system.EventTopics;
+import adhoc.system.properties.ManagerProperties;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.messaging.simp.SimpMessageSendingOperations;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sends events to the message broker.
+ * <p>
+ * Events with a {@link Event#getConflationKey()} are held for the conflation window, during which a later event
+ * of the same type and key replaces (or is combined with, see {@link Event#conflate(Event)}) the earlier one. At the end of each window the held events are sent,
+ * each as its own frame (so subscribers such as the Unreal servers see the same events as if they had not been held).
+ * Other events are sent straight away, but only after any held events, so events are never sent out of the order they happened
+ * (held events are just sent early in that case).
+ * <p>
+ * Each frame sent has a sequence number header so clients can resume from where they were after reconnecting
+ * (see {@link AdhocEventReplayChannelInterceptor}). Events which are entirely superseded by a later one also have a conflation key header
+ * so a client which is falling behind can skip them (see {@link AdhocOutboundConflationChannelInterceptor}).
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class EventSender {
+
+    private final ManagerProperties managerProperties;
+
+    private final SimpMessageSendingOperations stomp;
+
+    private record ConflationKey(String eventType, Object key) {
+    }
+
+    private final ScheduledExecutorService scheduledExecutorService =
+            Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("event-sender").daemon().factory());
+
+    // starts from the current time (in microseconds) so the sequence keeps increasing across restarts
+    private final AtomicLong sequence = new AtomicLong(System.currentTimeMillis() * 1000);
+
+    // latest held event for each destination and conflation key (in the order first held)
+    private Map<String, Map<ConflationKey, Event>> heldEvents = new LinkedHashMap<>();
+
+    @PostConstruct
+    public void postConstruct() {
+        long windowMillis = managerProperties.getEventConflationWindow().toMillis();
+        if (windowMillis > 0) {
+            scheduledExecutorService.scheduleAtFixedRate(this::sendHeldEvents, windowMillis, windowMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void preDestroy() {
+        scheduledExecutorService.shutdownNow();
+        sendHeldEvents();
+    }
+
+    public void send(Event event) {
+        Object conflationKey = event.getConflationKey();
+
+        // everything is sent while locked so the sequence numbers are in the order the events are sent
+        synchronized (this) {
+            if (conflationKey == null || managerProperties.getEventConflationWindow().isZero()) {
+                sendHeldEvents();
+                sendNow(toDestination(event), event);
+                return;
+            }
+
+            heldEvents.computeIfAbsent(toDestination(event), destination -> new LinkedHashMap<>())
+                    .merge(new ConflationKey(event.getEventType(), conflationKey), event, Event::conflate);
+        }
+    }
+
+    private String toDestination(Event event) {
+        return managerProperties.isEventScopedDestinationsEnabled() ? event.getDestination() : EventTopics.EVENTS;
+    }
+
+    private synchronized void sendHeldEvents() {
+        if (heldEvents.isEmpty()) {
+            return;
+        }
+        Map<String, Map<ConflationKey, Event>> sendEvents = heldEvents;
+        heldEvents = new LinkedHashMap<>();
+
+        for (Map.Entry<String, Map<ConflationKey, Event>> entry : sendEvents.entrySet()) {
+            String destination = entry.getKey();
+            for (Event event : entry.getValue().values()) {
+                try {
+                    sendNow(destination, event);
+
+                } catch (Exception e) {
+                    // don't let one event stop the others (or stop future windows being sent)
+                    log.warn("Failed to send held event! destination={} event={}", destination, event, e);
+                }
+            }
+        }
+    }
+
+    private void sendNow(String destination, Event event) {
+        log.debug("Sending: {}", event);
+        Map<String, Object> headers = new LinkedHashMap<>();
+        headers.put(AdhocEventReplayChannelInterceptor.SEQUENCE_HEADER, sequence.incrementAndGet());
+        headers.put(Event.EVENT_TYPE_HEADER, event.getEventType());
+        if (event.isSupersedable()) {
+            // lets a client which is falling behind skip this event if a later one supersedes it
+            headers.put(AdhocOutboundConflationChannelInterceptor.CONFLATION_KEY_HEADER, event.getEventType() + ":" + event.getConflationKey());
+        }
+        stomp.convertAndSend(destination, event, headers);
+    }
+}
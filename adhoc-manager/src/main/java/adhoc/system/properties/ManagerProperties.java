@@ -57,6 +57,50 @@ public class ManagerProperties {
     @Value("${adhoc.purge-old.servers.seen-before}")
     private Duration purgeOldServersSeenBefore;
 
+    @Value("${adhoc.pawn-store.flush-interval}")
+    private Duration pawnStoreFlushInterval;
+
+    // score increases are held in memory and written this often (any not yet written are lost if the manager stops)
+    @Value("${adhoc.score-store.flush-interval}")
+    private Duration scoreStoreFlushInterval;
+
+    // servers are normally only re-allocated for regions that have changed, but every so often all regions are checked
+    @Value("${adhoc.server-allocate.full-reconcile-interval}")
+    private Duration serverAllocateFullReconcileInterval;
+    // a server's region is re-allocated once its players/bots have changed by this fraction of the maximums (as area grouping depends on them)
+    @Value("${adhoc.server-allocate.load-change-fraction}")
+    private double serverAllocateLoadChangeFraction;
+
+    // how many server tasks can be started/stopped at the same time, and how long to wait for each before giving up
+    @Value("${adhoc.server-task.concurrency}")
+    private Integer serverTaskConcurrency;
+    @Value("${adhoc.server-task.timeout}")
+    private Duration serverTaskTimeout;
+    // whether an unused server task can be reassigned to another server rather than stopped (the Unreal server must
+    // handle the ServerTaskReassigned event, otherwise the server it is reassigned to never starts)
+    @Value("${adhoc.server-task.reassign-enabled}")
+    private boolean serverTaskReassignEnabled;
+
+    // number of servers per region to keep enabled (so their server tasks are already running) without any areas,
+    // ready to be given an area group without waiting for a new server task to start
+    @Value("${adhoc.server-warm-pool.size}")
+    private Integer serverWarmPoolSize;
+
+    // adjacent areas are only grouped onto one server while their combined players/bots stay below this fraction of the maximums
+    // (groups are only split again once they exceed the maximums, so they don't flap between allocations)
+    @Value("${adhoc.area-groups.merge-load-fraction}")
+    private double areaGroupsMergeLoadFraction;
+
+    // events which replace earlier ones (e.g. the latest pawns of a server) are held back for this long so only the latest is sent,
+    // (zero to send every event straight away)
+    @Value("${adhoc.event-conflation.window}")
+    private Duration eventConflationWindow;
+
+    // whether region/server scoped events (e.g. pawns) are sent to their own destination rather than to all the global events
+    // (only enable once the Unreal servers subscribe to their region and server destinations, otherwise they stop receiving them)
+    @Value("${adhoc.event.scoped-destinations-enabled}")
+    private boolean eventScopedDestinationsEnabled;
+
     // Should some demo data (some more users, objectives, areas etc.) be inserted on first run?
     // NOTE: initial factions, a single region, and a single area are always inserted regardless of this setting.
     @Value("${adhoc.insert-demo-data}")
@@ -68,5 +112,14 @@ public class ManagerProperties {
         log.info("managerImage={} kioskImage={} serverImage={}", managerImage, kioskImage, serverImage);
         log.info("maxControllers={} maxPlayers={} maxBots={}", maxControllers, maxPlayers, maxBots);
         log.info("purgeOldServersSeenBefore={}", purgeOldServersSeenBefore);
+        log.info("pawnStoreFlushInterval={}", pawnStoreFlushInterval);
+        log.info("scoreStoreFlushInterval={}", scoreStoreFlushInterval);
+        log.info("serverAllocateFullReconcileInterval={} serverAllocateLoadChangeFraction={}", serverAllocateFullReconcileInterval, serverAllocateLoadChangeFraction);
+        log.info("serverTaskConcurrency={} serverTaskTimeout={}", serverTaskConcurrency, serverTaskTimeout);
+        log.info("serverTaskReassignEnabled={}", serverTaskReassignEnabled);
+        log.info("serverWarmPoolSize={}", serverWarmPoolSize);
+        log.info("areaGroupsMergeLoadFraction={}", areaGroupsMergeLoadFraction);
+        log.info("eventConflationWindow={}", eventConflationWindow);
+        log.info("eventScopedDestinationsEnabled={}", eventScopedDestinationsEnabled);
     }
 }
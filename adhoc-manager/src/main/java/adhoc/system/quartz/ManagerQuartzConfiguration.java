@@ -22,6 +22,7 @@
 
 package adhoc.system.quartz;
 
+import adhoc.system.properties.ManagerProperties;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.quartz.JobBuilder;
@@ -44,6 +45,8 @@ import java.util.Date;
 @RequiredArgsConstructor
 public class ManagerQuartzConfiguration {
 
+    private final ManagerProperties managerProperties;
+
     public static final String ALLOCATE_SERVERS = "allocateServers";
     public static final String REFRESH_TASKS = "refreshTasks";
     public static final String MANAGE_SERVER_TASKS = "manageServerTasks";
@@ -54,6 +57,8 @@ public class ManagerQuartzConfiguration {
     public static final String PURGE_OLD_USERS = "purgeOldUsers";
     public static final String PURGE_OLD_SERVERS = "purgeOldServers";
     public static final String PURGE_OLD_PAWNS = "purgeOldPawns";
+    public static final String FLUSH_PAWNS = "flushPawns";
+    public static final String FLUSH_SCORES = "flushScores";
 
     public static final Instant baseStartInstant = Instant.now();
     public static long startOffset = 0;
@@ -188,6 +193,32 @@ public class ManagerQuartzConfiguration {
                 .build();
     }
 
+    @Bean
+    public Trigger flushPawnsTrigger() {
+        return TriggerBuilder.newTrigger()
+                .forJob(FLUSH_PAWNS)
+                .withIdentity(FLUSH_PAWNS)
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .repeatForever()
+                        .withIntervalInMilliseconds(managerProperties.getPawnStoreFlushInterval().toMillis())
+                        .withMisfireHandlingInstructionNextWithRemainingCount())
+                .startAt(Date.from(baseStartInstant)) //.plusMillis(startOffset += 200)))
+                .build();
+    }
+
+    @Bean
+    public Trigger flushScoresTrigger() {
+        return TriggerBuilder.newTrigger()
+                .forJob(FLUSH_SCORES)
+                .withIdentity(FLUSH_SCORES)
+                .withSchedule(SimpleScheduleBuilder.simpleSchedule()
+                        .repeatForever()
+                        .withIntervalInMilliseconds(managerProperties.getScoreStoreFlushInterval().toMillis())
+                        .withMisfireHandlingInstructionNextWithRemainingCount())
+                .startAt(Date.from(baseStartInstant)) //.plusMillis(startOffset += 200)))
+                .build();
+    }
+
     @Bean
     public JobDetail allocateServersJobDetail() {
         return JobBuilder.newJob(ManagerQuartzJob.class)
@@ -267,4 +298,20 @@ public class ManagerQuartzConfiguration {
                 .storeDurably()
                 .build();
     }
+
+    @Bean
+    public JobDetail flushPawnsJobDetail() {
+        return JobBuilder.newJob(ManagerQuartzJob.class)
+                .withIdentity(FLUSH_PAWNS)
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public JobDetail flushScoresJobDetail() {
+        return JobBuilder.newJob(ManagerQuartzJob.class)
+                .withIdentity(FLUSH_SCORES)
+                .storeDurably()
+                .build();
+    }
 }
@@ -23,10 +23,13 @@
 package adhoc.system.quartz;
 
 import adhoc.faction.awarddecay.FactionAwardDecayService;
+import adhoc.pawn.flush.PawnFlushService;
 import adhoc.pawn.purge.PawnPurgeService;
+import adhoc.score.ScoreFlushService;
 import adhoc.server.allocate.ServerAllocateService;
 import adhoc.server.purge.ServerPurgeService;
 import adhoc.system.Event;
+import adhoc.system.event.EventSender;
 import adhoc.task.domain.TaskDomainOrchestrator;
 import adhoc.task.refresh.TaskRefreshOrchestrator;
 import adhoc.task.server.ServerTaskManagerOrchestrator;
@@ -40,7 +43,6 @@ import org.quartz.Job;
 import org.quartz.JobExecutionContext;
 import org.quartz.JobExecutionException;
 import org.slf4j.MDC;
-import org.springframework.messaging.simp.SimpMessageSendingOperations;
 import org.springframework.stereotype.Component;
 
 import java.util.Collections;
@@ -63,8 +65,10 @@ public class ManagerQuartzJob implements Job {
     private final UserAwardDecayService userAwardDecayService;
     private final UserPurgeService userPurgeService;
     private final PawnPurgeService pawnPurgeService;
+    private final PawnFlushService pawnFlushService;
+    private final ScoreFlushService scoreFlushService;
 
-    private final SimpMessageSendingOperations stomp;
+    private final EventSender eventSender;
 
     @Override
     public void execute(JobExecutionContext context) throws JobExecutionException {
@@ -86,7 +90,7 @@ public class ManagerQuartzJob implements Job {
                 taskDomainOrchestrator.manageTaskDomains();
                 break;
             case ManagerQuartzConfiguration.MANAGE_SERVER_TASKS:
-                serverTaskManagerOrchestrator.manageServerTasks();
+                events = serverTaskManagerOrchestrator.manageServerTasks();
                 break;
             case ManagerQuartzConfiguration.AWARD_AND_DECAY_FACTION_SCORES:
                 factionAwardDecayService.awardAndDecayFactionScores();
@@ -106,14 +110,19 @@ public class ManagerQuartzJob implements Job {
             case ManagerQuartzConfiguration.PURGE_OLD_PAWNS:
                 pawnPurgeService.purgeOldPawns();
                 break;
+            case ManagerQuartzConfiguration.FLUSH_PAWNS:
+                pawnFlushService.flushPawns();
+                break;
+            case ManagerQuartzConfiguration.FLUSH_SCORES:
+                scoreFlushService.flushScores();
+                break;
             default:
                 log.warn("Skipping unknown manager quartz job! jobName={}", jobName);
                 break;
             }
 
             for (Event event : events) {
-                log.debug("Sending: {}", event);
-                stomp.convertAndSend("/topic/events", event);
+                eventSender.send(event);
             }
 
         } catch (Exception e) {
@@ -29,8 +29,12 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @Slf4j
@@ -42,6 +46,10 @@ public class TaskDomainOrchestrator {
     private final TaskDomainService taskDomainService;
     private final DnsService dnsService;
 
+    /**
+     * Reconcile the DNS records with the tasks: read the current records once, then create/update/delete
+     * whichever records differ from the desired domain of each task in one change.
+     */
     public void manageTaskDomains() {
 
         // TODO
@@ -55,11 +63,37 @@ public class TaskDomainOrchestrator {
 
         List<TaskDomainService.TaskDomain> taskDomains = taskDomainService.determineTaskDomains();
 
+        Map<String, Set<String>> desiredRecords = new LinkedHashMap<>();
         for (TaskDomainService.TaskDomain taskDomain : taskDomains) {
-            //log.info("{} -> {}", domain, publicIps);
-            dnsService.createOrUpdate(taskDomain.domain(), new LinkedHashSet<>(taskDomain.publicIps()));
+            desiredRecords.computeIfAbsent(taskDomain.domain(), domain -> new LinkedHashSet<>()).add(taskDomain.publicIp());
+        }
+
+        Map<String, Set<String>> currentRecords = dnsService.findRecords();
+
+        // only change records which differ, and remove records for servers which no longer have a task
+        Map<String, Set<String>> upserts = new LinkedHashMap<>();
+        desiredRecords.forEach((domain, publicIps) -> {
+            if (!Objects.equals(currentRecords.get(domain), publicIps)) {
+                upserts.put(domain, publicIps);
+            }
+        });
+
+        Set<String> deletes = new LinkedHashSet<>();
+        for (String domain : currentRecords.keySet()) {
+            if (!desiredRecords.containsKey(domain) && taskDomainService.isServerDomain(domain)) {
+                deletes.add(domain);
+            }
+        }
+
+        if (!upserts.isEmpty() || !deletes.isEmpty()) {
+            //log.info("upserts={} deletes={}", upserts, deletes);
+            dnsService.changeRecords(upserts, deletes);
+        }
 
-            taskDomainService.updateTaskDomain(taskDomain.taskId(), taskDomain.domain());
+        for (TaskDomainService.TaskDomain taskDomain : taskDomains) {
+            if (!Objects.equals(taskDomain.currentDomain(), taskDomain.domain())) {
+                taskDomainService.updateTaskDomain(taskDomain.taskId(), taskDomain.domain());
+            }
         }
     }
 }
@@ -23,15 +23,16 @@
 package adhoc.task.domain;
 
 import adhoc.message.MessageService;
+import adhoc.server.allocate.ServerAllocateDirtyTracker;
 import adhoc.system.properties.CoreProperties;
 import adhoc.task.TaskEntity;
 import adhoc.task.TaskRepository;
 import adhoc.task.kiosk.KioskTaskEntity;
 import adhoc.task.manager.ManagerTaskEntity;
 import adhoc.task.server.ServerTaskEntity;
-import com.google.common.collect.Lists;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Hibernate;
 import org.hibernate.exception.LockAcquisitionException;
 import org.springframework.dao.TransientDataAccessException;
 import org.springframework.resilience.annotation.Retryable;
@@ -39,10 +40,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
-import java.util.LinkedHashMap;
 import java.util.List;
-import java.util.Map;
 import java.util.Objects;
+import java.util.regex.Pattern;
 
 @Service
 @Transactional
@@ -56,33 +56,33 @@ public class TaskDomainService {
 
     private final MessageService messageService;
 
+    private final ServerAllocateDirtyTracker serverAllocateDirtyTracker;
+
     public record TaskDomain(
             Long taskId,
             String domain,
-            List<String> publicIps
+            String publicIp,
+            String currentDomain
     ) {
     }
 
-    @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
-            maxRetries = 3, delay = 100, jitter = 10, multiplier = 1, maxDelay = 1000)
+    /** Determine the desired domain of every task which has a public IP (several tasks may share a domain e.g. kiosks). */
+    @Transactional(readOnly = true)
     public List<TaskDomain> determineTaskDomains() {
-        Map<Long, TaskDomain> taskDomains = new LinkedHashMap<>();
+        List<TaskDomain> taskDomains = new ArrayList<>();
 
         for (TaskEntity task : taskRepository.findAll()) {
-            if (task.getDomain() == null && task.getPublicIp() != null) {
-
-                String domain = determineDomain(task);
-
-                TaskDomain taskDomain = taskDomains.get(task.getId());
-                if (taskDomain == null) {
-                    taskDomains.put(task.getId(), new TaskDomain(task.getId(), domain, Lists.newArrayList(task.getPublicIp())));
-                } else {
-                    taskDomain.publicIps().add(task.getPublicIp());
-                }
+            if (task.getPublicIp() != null) {
+                taskDomains.add(new TaskDomain(task.getId(), determineDomain(task), task.getPublicIp(), task.getDomain()));
             }
         }
 
-        return new ArrayList<>(taskDomains.values());
+        return taskDomains;
+    }
+
+    /** Whether the domain is one that is only created for a server task (so can be removed once there is no such task). */
+    public boolean isServerDomain(String domain) {
+        return domain.matches("[0-9]+-" + Pattern.quote(coreProperties.getServerDomain()));
     }
 
     private String determineDomain(TaskEntity task) {
@@ -102,8 +102,13 @@ public class TaskDomainService {
 
         if (!Objects.equals(task.getDomain(), domain)) {
             task.setDomain(domain);
-        }
 
-        messageService.addGlobalMessage(String.format("Task %d (of type %s) mapped to domain %s", task.getId(), task.getType().name(), domain));
+            // server web socket URL depends on the domain
+            if (Hibernate.unproxy(task) instanceof ServerTaskEntity serverTask) {
+                serverAllocateDirtyTracker.markServerDirty(serverTask.getServerId());
+            }
+
+            messageService.addGlobalMessage(String.format("Task %d (of type %s) mapped to domain %s", task.getId(), task.getType().name(), domain));
+        }
     }
 }
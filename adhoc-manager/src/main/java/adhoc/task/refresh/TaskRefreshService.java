@@ -29,6 +29,7 @@ import com.google.common.base.Verify;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.LockAcquisitionException;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.TransientDataAccessException;
 import org.springframework.resilience.annotation.Retryable;
 import org.springframework.stereotype.Service;
@@ -36,8 +37,13 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
@@ -47,42 +53,72 @@ public class TaskRefreshService {
 
     private final TaskRepository taskRepository;
 
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    /**
+     * Reconcile the tasks in the database with the tasks in the hosting service.
+     * All the existing tasks are loaded in one query and compared in memory, new tasks are inserted (in JDBC batches),
+     * and tasks which are no longer running are deleted by ID. A {@link TaskChangedEvent} is published for each change.
+     */
     @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
             maxRetries = 3, delay = 100, jitter = 10, multiplier = 1, maxDelay = 1000)
     void updateTasks(List<TaskEntity> hostedTasks) {
 
-        List<String> taskIdentifiers = new ArrayList<>();
+        Map<String, TaskEntity> existingTasks = taskRepository.findAll().stream()
+                .collect(Collectors.toMap(TaskEntity::getTaskIdentifier, Function.identity()));
+
+        Set<String> taskIdentifiers = new HashSet<>();
+        List<TaskEntity> newTasks = new ArrayList<>();
         LocalDateTime seen = LocalDateTime.now();
 
         for (TaskEntity hostedTask : hostedTasks) {
             Verify.verifyNotNull(hostedTask.getTaskIdentifier(), "hosted task identifier is null! task=%s", hostedTask);
             taskIdentifiers.add(hostedTask.getTaskIdentifier());
 
-            TaskEntity task = taskRepository.findByTaskIdentifier(hostedTask.getTaskIdentifier())
-                    .map(existingTask -> updateExistingTask(existingTask, hostedTask))
-                    .orElse(hostedTask); // else will save this as a new task
-
-            task.setSeen(seen);
-
-            if (task.getId() == null) {
-                taskRepository.save(task);
+            TaskEntity existingTask = existingTasks.get(hostedTask.getTaskIdentifier());
+            if (existingTask != null) {
+                updateExistingTask(existingTask, hostedTask);
+                existingTask.setSeen(seen);
+            } else {
+                // else will save this as a new task
+                hostedTask.setSeen(seen);
+                newTasks.add(hostedTask);
             }
         }
 
+        for (TaskEntity newTask : taskRepository.saveAll(newTasks)) {
+            publishTaskChanged(TaskChangedEvent.Change.CREATED, newTask, null);
+        }
+
         LocalDateTime initiatedOrSeenBefore = LocalDateTime.now().minusMinutes(1);
 
         // any other tasks that are no longer running - delete their entries
-        taskRepository.deleteByTaskIdentifierNotInAndSeenBefore(taskIdentifiers, initiatedOrSeenBefore);
-        taskRepository.deleteByTaskIdentifierNotInAndInitiatedBefore(taskIdentifiers, initiatedOrSeenBefore);
+        List<TaskEntity> oldTasks = existingTasks.values().stream()
+                .filter(task -> !taskIdentifiers.contains(task.getTaskIdentifier()))
+                .filter(task -> (task.getSeen() != null && task.getSeen().isBefore(initiatedOrSeenBefore))
+                        || (task.getInitiated() != null && task.getInitiated().isBefore(initiatedOrSeenBefore)))
+                .toList();
+
+        if (!oldTasks.isEmpty()) {
+            taskRepository.deleteAllByIdInBatch(oldTasks.stream().map(TaskEntity::getId).toList());
+
+            for (TaskEntity oldTask : oldTasks) {
+                publishTaskChanged(TaskChangedEvent.Change.DELETED, oldTask, null);
+            }
+        }
     }
 
-    private static TaskEntity updateExistingTask(TaskEntity existingTask, TaskEntity hostedTask) {
+    private void updateExistingTask(TaskEntity existingTask, TaskEntity hostedTask) {
+        boolean changed = false;
+        Long previousServerId = null;
 
         if (!Objects.equals(existingTask.getPrivateIp(), hostedTask.getPrivateIp())) {
             existingTask.setPrivateIp(hostedTask.getPrivateIp());
+            changed = true;
         }
         if (!Objects.equals(existingTask.getPublicIp(), hostedTask.getPublicIp())) {
             existingTask.setPublicIp(hostedTask.getPublicIp());
+            changed = true;
         }
 
         // TODO
@@ -91,12 +127,30 @@ public class TaskRefreshService {
 
             if (!Objects.equals(existingServerTask.getPublicWebSocketPort(), hostedServerTask.getPublicWebSocketPort())) {
                 existingServerTask.setPublicWebSocketPort(hostedServerTask.getPublicWebSocketPort());
+                changed = true;
             }
             if (!Objects.equals(existingServerTask.getServerId(), hostedServerTask.getServerId())) {
+                previousServerId = existingServerTask.getServerId();
                 existingServerTask.setServerId(hostedServerTask.getServerId());
+                changed = true;
             }
         }
 
-        return existingTask;
+        if (changed) {
+            publishTaskChanged(TaskChangedEvent.Change.UPDATED, existingTask, previousServerId);
+        }
+    }
+
+    private void publishTaskChanged(TaskChangedEvent.Change change, TaskEntity task, Long previousServerId) {
+        TaskChangedEvent event = new TaskChangedEvent(
+                change,
+                task.getId(),
+                task.getTaskIdentifier(),
+                task.getType(),
+                task instanceof ServerTaskEntity serverTask ? serverTask.getServerId() : null,
+                previousServerId);
+        log.debug("Publishing: {}", event);
+
+        applicationEventPublisher.publishEvent(event);
     }
 }
@@ -23,40 +23,168 @@
 package adhoc.task.server;
 
 import adhoc.hosting.HostingService;
+import adhoc.system.Event;
+import adhoc.system.properties.ManagerProperties;
 import adhoc.task.TaskDto;
 import com.google.common.base.Verify;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.slf4j.MDC;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class ServerTaskManagerOrchestrator {
 
+    private final ManagerProperties managerProperties;
+
     private final ServerTaskManagerService serverTaskManagerService;
     private final HostingService hostingService;
 
+    private final ExecutorService executorService = Executors.newVirtualThreadPerTaskExecutor();
+
+    @PreDestroy
+    public void preDestroy() {
+        executorService.shutdownNow();
+    }
+
     /**
-     * For each enabled server, ensure there is a server task in the hosting service. Stop any other server tasks.
+     * For each enabled server, ensure there is a server task in the hosting service.
+     * Where possible (and enabled), an unused running server task in the same region is reassigned rather than starting a new one.
+     * The reassigned server only becomes active once the Unreal server has handled the {@link ServerTaskReassignedEvent}
+     * and reports that it has started as the new server.
+     * Stop any other server tasks.
+     * The calls to the hosting service are made concurrently (up to a limit) and a failure of one does not prevent the others.
      */
-    public void manageServerTasks() {
+    public List<? extends Event> manageServerTasks() {
+        List<Event> events = Collections.synchronizedList(new ArrayList<>());
+        List<Callable<?>> actions = new ArrayList<>();
+
+        List<ServerTaskManagerService.UnusedServerTask> seenUnusedServerTasks = new ArrayList<>(serverTaskManagerService.findSeenUnusedServerTasks());
+
         List<ServerTaskManagerService.NeededServerTask> neededServerTasks = serverTaskManagerService.determineNeededServerTasks();
         for (ServerTaskManagerService.NeededServerTask neededServerTask : neededServerTasks) {
-            TaskDto serverTask = startHostedServerTask(
-                    neededServerTask.serverId(),
-                    neededServerTask.regionId(),
-                    neededServerTask.mapName(),
-                    neededServerTask.areaIndexes());
-            serverTaskManagerService.createServerTask(serverTask);
+            Optional<ServerTaskManagerService.UnusedServerTask> reusableServerTask = !managerProperties.isServerTaskReassignEnabled()
+                    ? Optional.empty()
+                    : seenUnusedServerTasks.stream()
+                    .filter(ServerTaskManagerService.UnusedServerTask::running)
+                    .filter(unusedServerTask -> Objects.equals(unusedServerTask.regionId(), neededServerTask.regionId()))
+                    .findFirst();
+
+            if (reusableServerTask.isPresent()) {
+                seenUnusedServerTasks.remove(reusableServerTask.get());
+
+                actions.add(() -> {
+                    TaskDto serverTask = callWithTimeout(() -> reassignHostedServerTask(
+                            reusableServerTask.get().taskIdentifier(),
+                            neededServerTask.serverId()));
+                    events.add(serverTaskManagerService.reassignServerTask(
+                            reusableServerTask.get().taskIdentifier(), serverTask, neededServerTask));
+                    return null;
+                });
+
+            } else {
+                actions.add(() -> {
+                    TaskDto serverTask = callWithTimeout(() -> startHostedServerTask(
+                            neededServerTask.serverId(),
+                            neededServerTask.regionId(),
+                            neededServerTask.mapName(),
+                            neededServerTask.areaIndexes()));
+                    serverTaskManagerService.createServerTask(serverTask);
+                    return null;
+                });
+            }
+        }
+
+        for (ServerTaskManagerService.UnusedServerTask seenUnusedServerTask : seenUnusedServerTasks) {
+            actions.add(() -> {
+                callWithTimeout(() -> {
+                    stopHostedServerTask(seenUnusedServerTask.taskIdentifier());
+                    return null;
+                });
+                serverTaskManagerService.deleteServerTask(seenUnusedServerTask.taskIdentifier());
+                return null;
+            });
+        }
+
+        callConcurrently(actions);
+
+        return events;
+    }
+
+    /** Run the actions on virtual threads (limited to the configured concurrency) and wait for them all to finish. */
+    private void callConcurrently(List<Callable<?>> actions) {
+        if (actions.isEmpty()) {
+            return;
+        }
+
+        Semaphore permits = new Semaphore(managerProperties.getServerTaskConcurrency());
+        Map<String, String> mdc = MDC.getCopyOfContextMap();
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (Callable<?> action : actions) {
+            futures.add(executorService.submit(() -> {
+                if (mdc != null) {
+                    MDC.setContextMap(mdc);
+                }
+                permits.acquireUninterruptibly();
+                try {
+                    action.call();
+
+                } catch (Exception e) {
+                    // already logged - don't let it affect the other actions
+                    log.debug("Server task action failed: {}", e.toString());
+
+                } finally {
+                    permits.release();
+                    MDC.clear();
+                }
+            }));
+        }
+
+        for (Future<?> future : futures) {
+            try {
+                future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                futures.forEach(f -> f.cancel(true));
+                throw new RuntimeException("Interrupted while managing server tasks", e);
+            } catch (ExecutionException e) {
+                log.warn("Unexpected failure managing server task!", e.getCause());
+            }
         }
+    }
+
+    /** Call the hosting service, giving up (and interrupting the call) if it takes longer than the configured timeout. */
+    private <T> T callWithTimeout(Callable<T> call) throws Exception {
+        Future<T> future = executorService.submit(call);
+        try {
+            return future.get(managerProperties.getServerTaskTimeout().toMillis(), TimeUnit.MILLISECONDS);
+
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            log.warn("Timed out waiting for hosting service after {}!", managerProperties.getServerTaskTimeout());
+            throw e;
 
-        List<String> seenUnusedServerTasks = serverTaskManagerService.findSeenUnusedServerTasks();
-        for (String seenUnusedServerTask : seenUnusedServerTasks) {
-            stopHostedServerTask(seenUnusedServerTask);
-            serverTaskManagerService.deleteServerTask(seenUnusedServerTask);
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof Exception cause ? cause : e;
         }
     }
 
@@ -76,6 +204,22 @@ public class ServerTaskManagerOrchestrator {
         }
     }
 
+    private TaskDto reassignHostedServerTask(String serverTaskIdentifier, Long serverId) {
+        try {
+            log.debug("Reassigning server task with identifier {} to server {}", serverTaskIdentifier, serverId);
+            TaskDto serverTask = hostingService.reassignServerTask(serverTaskIdentifier, serverId);
+
+            Verify.verifyNotNull(serverTask.getTaskIdentifier());
+            Verify.verifyNotNull(serverTask.getServerId());
+
+            return serverTask;
+
+        } catch (Exception e) {
+            log.warn("Failed to reassign server task with identifier {} to server {}!", serverTaskIdentifier, serverId, e);
+            throw e;
+        }
+    }
+
     private void stopHostedServerTask(String serverTaskIdentifier) {
         try {
             log.debug("Stopping server task for server with identifier {}", serverTaskIdentifier);
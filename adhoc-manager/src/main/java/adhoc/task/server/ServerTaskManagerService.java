@@ -24,9 +24,11 @@ package adhoc.task.server;
 
 import adhoc.area.AreaEntity;
 import adhoc.message.MessageService;
+import adhoc.region.RegionEntity;
 import adhoc.server.ServerEntity;
 import adhoc.server.ServerRepository;
 import adhoc.server.ServerService;
+import adhoc.server.allocate.ServerAllocateDirtyTracker;
 import adhoc.task.TaskDto;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -54,6 +56,8 @@ public class ServerTaskManagerService {
     private final ServerService serverService;
     private final MessageService messageService;
 
+    private final ServerAllocateDirtyTracker serverAllocateDirtyTracker;
+
     record NeededServerTask(
             Long serverId,
             Long regionId,
@@ -84,10 +88,32 @@ public class ServerTaskManagerService {
         return neededServerTasks;
     }
 
-    public List<String> findSeenUnusedServerTasks() {
-        LocalDateTime initiatedBefore = LocalDateTime.now().minusMinutes(1);
+    record UnusedServerTask(
+            String taskIdentifier,
+            Long serverId,
+            Long regionId,
+            boolean running
+    ) {
+    }
 
-        return serverTaskRepository.findTaskIdentifierByInitiatedBeforeAndServerNotEnabled(initiatedBefore);
+    public List<UnusedServerTask> findSeenUnusedServerTasks() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime initiatedBefore = now.minusMinutes(1);
+        // the task refresh sees running tasks every 10 seconds or so
+        LocalDateTime runningSeenAfter = now.minusSeconds(30);
+
+        return serverTaskRepository.findByInitiatedBeforeAndServerNotEnabled(initiatedBefore).stream()
+                .map(serverTask -> new UnusedServerTask(
+                        serverTask.getTaskIdentifier(),
+                        serverTask.getServerId(),
+                        // server may have already been purged (in which case the task can't be reused)
+                        serverRepository.findById(serverTask.getServerId())
+                                .map(ServerEntity::getRegion)
+                                .map(RegionEntity::getId)
+                                .orElse(null),
+                        // only a task which is still running can be reassigned
+                        serverTask.getSeen() != null && serverTask.getSeen().isAfter(runningSeenAfter)))
+                .toList();
     }
 
     @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
@@ -102,13 +128,46 @@ public class ServerTaskManagerService {
 
         serverTaskRepository.save(serverTaskEntity);
 
+        serverAllocateDirtyTracker.markServerDirty(serverTaskEntity.getServerId());
+
         messageService.addGlobalMessage(String.format("Server task %d created", serverTaskEntity.getId()));
     }
 
+    @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
+            maxRetries = 3, delay = 100, jitter = 10, multiplier = 1, maxDelay = 1000)
+    ServerTaskReassignedEvent reassignServerTask(String oldServerTaskIdentifier, TaskDto serverTask, NeededServerTask neededServerTask) {
+
+        ServerTaskEntity serverTaskEntity = serverTaskRepository.findByTaskIdentifier(oldServerTaskIdentifier).orElseThrow();
+        Long oldServerId = serverTaskEntity.getServerId();
+
+        serverTaskEntity.setServerId(serverTask.getServerId());
+        serverTaskEntity.setTaskIdentifier(serverTask.getTaskIdentifier());
+        if (serverTask.getPublicWebSocketPort() != null) {
+            serverTaskEntity.setPublicWebSocketPort(serverTask.getPublicWebSocketPort());
+        }
+        serverTaskEntity.setInitiated(LocalDateTime.now());
+
+        serverAllocateDirtyTracker.markServerDirty(oldServerId);
+        serverAllocateDirtyTracker.markServerDirty(serverTaskEntity.getServerId());
+
+        messageService.addGlobalMessage(String.format("Server task %d reassigned", serverTaskEntity.getId()));
+
+        return ServerTaskReassignedEvent.builder()
+                .oldServerId(oldServerId)
+                .serverId(serverTaskEntity.getServerId())
+                .regionId(neededServerTask.regionId())
+                .mapName(neededServerTask.mapName())
+                .areaIndexes(neededServerTask.areaIndexes())
+                .build();
+    }
+
     @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
             maxRetries = 3, delay = 100, jitter = 10, multiplier = 1, maxDelay = 1000)
     void deleteServerTask(String serverTaskIdentifier) {
 
+        serverTaskRepository.findByTaskIdentifier(serverTaskIdentifier).ifPresent(serverTask ->
+                serverAllocateDirtyTracker.markServerDirty(serverTask.getServerId()));
+
         serverTaskRepository.deleteByTaskIdentifier(serverTaskIdentifier);
     }
 }
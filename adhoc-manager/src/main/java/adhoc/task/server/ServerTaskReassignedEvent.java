@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.task.server;
+
+import adhoc.system.Event;
+import adhoc.system.EventTopics;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Value;
+import lombok.extern.jackson.Jacksonized;
+
+import java.util.List;
+
+/**
+ * Tells the Unreal server running as the given old server that it is now the given (new) server,
+ * so it can take over the new server's areas without a new server task being started.
+ * <p>
+ * The new server stays inactive until the Unreal server handles this and sends a ServerStarted for the new server.
+ * An Unreal server which doesn't handle this never does, which is why reassignment has to be enabled
+ * (see adhoc.server-task.reassign-enabled).
+ */
+@Value
+@AllArgsConstructor
+@Builder(toBuilder = true)
+@Jacksonized
+@SuppressWarnings("ClassCanBeRecord")
+public class ServerTaskReassignedEvent implements Event {
+
+    @NotNull
+    @Min(1)
+    Long oldServerId;
+
+    @NotNull
+    @Min(1)
+    Long serverId;
+
+    @NotNull
+    Long regionId;
+
+    @NotNull
+    String mapName;
+
+    @NotNull
+    List<Integer> areaIndexes;
+
+    /** Only the Unreal server currently running as the old server needs to know. */
+    @Override
+    public String getDestination() {
+        return EventTopics.serverEvents(oldServerId);
+    }
+}
@@ -31,6 +31,7 @@ import adhoc.objective.ObjectiveEntity;
 import adhoc.objective.ObjectiveRepository;
 import adhoc.region.RegionEntity;
 import adhoc.region.RegionRepository;
+import adhoc.score.ScoreDecayUtils;
 import adhoc.system.properties.CoreProperties;
 import adhoc.system.properties.ManagerProperties;
 import adhoc.user.UserEntity;
@@ -90,6 +91,8 @@ public class UniverseInitializeService {
         universe = universeRepository.save(universe);
         Verify.verify(universe.getId().equals(UniverseService.UNIVERSE_ID));
 
+        LocalDateTime scoreNormalised = ScoreDecayUtils.normalisedTime(LocalDateTime.now());
+
         // insert factions
 
         FactionEntity team1 = new FactionEntity();
@@ -98,6 +101,7 @@ public class UniverseInitializeService {
         team1.setName("Alpha");
         team1.setColor("#4B8EFF");
         team1.setScore(BigDecimal.valueOf(0.0));
+        team1.setScoreNormalised(scoreNormalised);
         team1 = factionRepository.save(team1);
         Verify.verify(team1.getId().equals(1L));
 
@@ -107,6 +111,7 @@ public class UniverseInitializeService {
         team2.setName("Beta");
         team2.setColor("#FF4D96");
         team2.setScore(BigDecimal.valueOf(0.0));
+        team2.setScoreNormalised(scoreNormalised);
         team2 = factionRepository.save(team2);
         Verify.verify(team2.getId().equals(2L));
 
@@ -116,6 +121,7 @@ public class UniverseInitializeService {
         team3.setName("Gamma");
         team3.setColor("#FFFA6A");
         team3.setScore(BigDecimal.valueOf(0.0));
+        team3.setScoreNormalised(scoreNormalised);
         team3 = factionRepository.save(team3);
         Verify.verify(team3.getId().equals(3L));
 
@@ -125,6 +131,7 @@ public class UniverseInitializeService {
         team4.setName("Delta");
         team4.setColor("#A7FF6B");
         team4.setScore(BigDecimal.valueOf(0.0));
+        team4.setScoreNormalised(scoreNormalised);
         team4 = factionRepository.save(team4);
         Verify.verify(team4.getId().equals(4L));
 
@@ -134,6 +141,7 @@ public class UniverseInitializeService {
         team5.setName("Epsilon");
         team5.setColor("#96E8FF");
         team5.setScore(BigDecimal.valueOf(0.0));
+        team5.setScoreNormalised(scoreNormalised);
         team5 = factionRepository.save(team5);
         Verify.verify(team5.getId().equals(5L));
 
@@ -143,6 +151,7 @@ public class UniverseInitializeService {
         team6.setName("Zeta");
         team6.setColor("#B96EFF");
         team6.setScore(BigDecimal.valueOf(0.0));
+        team6.setScoreNormalised(scoreNormalised);
         team6 = factionRepository.save(team6);
         Verify.verify(team6.getId().equals(6L));
 
@@ -152,6 +161,7 @@ public class UniverseInitializeService {
         team7.setName("Eta");
         team7.setColor("#FF905B");
         team7.setScore(BigDecimal.valueOf(0.0));
+        team7.setScoreNormalised(scoreNormalised);
         team7 = factionRepository.save(team7);
         Verify.verify(team7.getId().equals(7L));
 
@@ -161,6 +171,7 @@ public class UniverseInitializeService {
         team8.setName("Theta");
         team8.setColor("#8480BB");
         team8.setScore(BigDecimal.valueOf(0.0));
+        team8.setScoreNormalised(scoreNormalised);
         team8 = factionRepository.save(team8);
         Verify.verify(team8.getId().equals(8L));
 
@@ -335,6 +346,7 @@ public class UniverseInitializeService {
             adminUser.setFaction(team1);
             adminUser.setHuman(true);
             adminUser.setScore(BigDecimal.valueOf(0.0));
+            adminUser.setScoreNormalised(scoreNormalised);
             adminUser.setPassword(managerProperties.getDefaultAdminPassword(), passwordEncoder);
             adminUser.setCreated(userCreated);
             adminUser.setUpdated(userCreated);
@@ -350,6 +362,7 @@ public class UniverseInitializeService {
             alphaUser.setFaction(team1);
             alphaUser.setHuman(true);
             alphaUser.setScore(BigDecimal.valueOf(0.0));
+            alphaUser.setScoreNormalised(scoreNormalised);
             alphaUser.setPassword(managerProperties.getDefaultUserPassword(), passwordEncoder);
             alphaUser.setCreated(userCreated);
             alphaUser.setUpdated(userCreated);
@@ -365,6 +378,7 @@ public class UniverseInitializeService {
             betaUser.setFaction(team2);
             betaUser.setHuman(true);
             betaUser.setScore(BigDecimal.valueOf(10.0));
+            betaUser.setScoreNormalised(scoreNormalised);
             betaUser.setPassword(managerProperties.getDefaultUserPassword(), passwordEncoder);
             betaUser.setCreated(userCreated);
             betaUser.setUpdated(userCreated);
@@ -380,6 +394,7 @@ public class UniverseInitializeService {
             gammaUser.setFaction(team3);
             gammaUser.setHuman(true);
             gammaUser.setScore(BigDecimal.valueOf(20.0));
+            gammaUser.setScoreNormalised(scoreNormalised);
             gammaUser.setPassword(managerProperties.getDefaultUserPassword(), passwordEncoder);
             gammaUser.setCreated(userCreated);
             gammaUser.setUpdated(userCreated);
@@ -395,6 +410,7 @@ public class UniverseInitializeService {
             //deltaUser.setFaction(team4);
             //deltaUser.setHuman(true);
             //deltaUser.setScore(BigDecimal.valueOf(30.0));
+            //deltaUser.setScoreNormalised(scoreNormalised);
             //deltaUser.setPassword(passwordEncoder.encode(managerProperties.getDefaultUserPassword()));
             //deltaUser.setCreated(userCreated);
             //deltaUser.setUpdated(userCreated);
@@ -22,6 +22,7 @@
 
 package adhoc.user;
 
+import adhoc.system.event.EventSender;
 import adhoc.user.defeat.ServerUserDefeatEvent;
 import adhoc.user.defeat.UserDefeatEvent;
 import adhoc.user.defeat.UserDefeatService;
@@ -37,7 +38,6 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
 import org.springframework.messaging.handler.annotation.MessageMapping;
-import org.springframework.messaging.handler.annotation.SendTo;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
@@ -59,6 +59,8 @@ public class UserManagerController {
     private final UserJoinService userJoinService;
     private final UserDefeatService userDefeatService;
 
+    private final EventSender eventSender;
+
     @PutMapping("/users/{userId}")
     @PreAuthorize("hasRole('ADMIN')")
     public UserDto putUser(@PathVariable Long userId, @Valid @RequestBody UserDto userDto) {
@@ -101,14 +103,12 @@ public class UserManagerController {
     }
 
     @MessageMapping("ServerUserDefeat")
-    @SendTo("/topic/events")
     @PreAuthorize("hasRole('SERVER') or hasRole('ADMIN')")
-    public UserDefeatEvent handleServerUserDefeat(@Valid @RequestBody ServerUserDefeatEvent serverUserDefeatEvent) {
+    public void handleServerUserDefeat(@Valid @RequestBody ServerUserDefeatEvent serverUserDefeatEvent) {
         log.debug("Handling: {}", serverUserDefeatEvent);
 
         UserDefeatEvent userDefeatEvent = userDefeatService.userDefeat(serverUserDefeatEvent);
 
-        log.debug("Sending: {}", userDefeatEvent);
-        return userDefeatEvent;
+        eventSender.send(userDefeatEvent);
     }
 }
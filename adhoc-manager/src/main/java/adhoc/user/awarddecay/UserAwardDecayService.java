@@ -24,7 +24,7 @@ package adhoc.user.awarddecay;
 
 import adhoc.faction.FactionEntity;
 import adhoc.objective.ObjectiveRepository;
-import adhoc.user.UserRepository;
+import adhoc.score.ScoreService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.hibernate.exception.LockAcquisitionException;
@@ -43,12 +43,12 @@ import java.util.List;
 @RequiredArgsConstructor
 public class UserAwardDecayService {
 
-    private final UserRepository userRepository;
+    private final ScoreService scoreService;
     private final ObjectiveRepository objectiveRepository;
 
     /**
      * Award user score according to how many objectives the user's faction currently owns.
-     * Also decay all user scores.
+     * User scores decay lazily (see {@link adhoc.score.ScoreDecayUtils}) so this only needs to rebase them once a day.
      */
     @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
             maxRetries = 3, delay = 100, jitter = 10, multiplier = 1, maxDelay = 1000)
@@ -57,6 +57,8 @@ public class UserAwardDecayService {
         LocalDateTime forUsersSeenAfter = now.minusHours(48);
         log.trace("Awarding and decaying user scores... now={} forUsersSeenAfter={}", now, forUsersSeenAfter);
 
+        scoreService.normaliseUserScores(now);
+
         List<ObjectiveRepository.FactionObjectiveCount> factionObjectiveCounts = objectiveRepository.getFactionObjectiveCounts();
 
         for (ObjectiveRepository.FactionObjectiveCount factionObjectiveCount : factionObjectiveCounts) {
@@ -66,10 +68,7 @@ public class UserAwardDecayService {
             BigDecimal scoreAddHuman = BigDecimal.valueOf(0.01).multiply(BigDecimal.valueOf(objectiveCount));
             BigDecimal scoreAddNonHuman = BigDecimal.valueOf(0.001).multiply(BigDecimal.valueOf(objectiveCount));
 
-            userRepository.updateScoreAddByFactionIdAndStateSeenAfter(scoreAddHuman, scoreAddNonHuman, faction.getId(), forUsersSeenAfter);
+            scoreService.addUserScoreByFactionIdAndStateSeenAfter(scoreAddHuman, scoreAddNonHuman, faction.getId(), forUsersSeenAfter);
         }
-
-        // TODO: multiplier property
-        userRepository.updateScoreMultiply(BigDecimal.valueOf(0.999));
     }
 }
@@ -23,6 +23,7 @@
 package adhoc.user.defeat;
 
 import adhoc.system.Event;
+import adhoc.system.EventTopics;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotEmpty;
 import jakarta.validation.constraints.NotNull;
@@ -65,4 +66,12 @@ public class UserDefeatEvent implements Event {
 
     @NotNull
     Boolean defeatedUserHuman;
+
+    /** Region the user was last seen in (if known). */
+    Long regionId;
+
+    @Override
+    public String getDestination() {
+        return regionId == null ? EventTopics.EVENTS : EventTopics.regionEvents(regionId);
+    }
 }
@@ -23,6 +23,7 @@
 package adhoc.user.defeat;
 
 import adhoc.message.MessageService;
+import adhoc.score.ScoreService;
 import adhoc.user.UserEntity;
 import adhoc.user.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -43,6 +44,7 @@ public class UserDefeatService {
 
     private final UserRepository userRepository;
 
+    private final ScoreService scoreService;
     private final MessageService messageService;
 
     @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
@@ -53,7 +55,7 @@ public class UserDefeatService {
         UserEntity defeatedUser = userRepository.getReferenceById(serverUserDefeatEvent.getDefeatedUserId());
 
         BigDecimal scoreAdd = BigDecimal.valueOf(user.isHuman() ? 1.0f : 0.1f);
-        userRepository.updateScoreAddById(scoreAdd, user.getId());
+        scoreService.addUserScore(user.getId(), scoreAdd);
 
         if (user.isHuman() || defeatedUser.isHuman()) {
             messageService.addGlobalMessage(String.format("%s defeated %s", user.getName(), defeatedUser.getName()));
@@ -61,7 +63,8 @@ public class UserDefeatService {
 
         // TODO
         return new UserDefeatEvent(
-                user.getId(), user.getVersion() + 1, user.getName(), user.isHuman(),
-                defeatedUser.getId(), defeatedUser.getVersion(), defeatedUser.getName(), defeatedUser.isHuman());
+                user.getId(), user.getVersion(), user.getName(), user.isHuman(),
+                defeatedUser.getId(), defeatedUser.getVersion(), defeatedUser.getName(), defeatedUser.isHuman(),
+                user.getState().getRegion() == null ? null : user.getState().getRegion().getId());
     }
 }
@@ -24,6 +24,7 @@ package adhoc.user.join;
 
 import adhoc.server.ServerEntity;
 import adhoc.server.ServerRepository;
+import adhoc.server.allocate.ServerAllocateDirtyTracker;
 import adhoc.user.UserEntity;
 import adhoc.user.UserRepository;
 import adhoc.user.UserService;
@@ -54,6 +55,7 @@ public class UserJoinService {
 
     private final UserService userService;
     private final UserRegisterService userRegisterService;
+    private final ServerAllocateDirtyTracker serverAllocateDirtyTracker;
 
     @Retryable(includes = {TransientDataAccessException.class, LockAcquisitionException.class},
             maxRetries = 3, delay = 100, jitter = 10, multiplier = 1, maxDelay = 1000)
@@ -88,6 +90,9 @@ public class UserJoinService {
         user.getState().setLastJoin(LocalDateTime.now());
         user.getState().setSeen(user.getState().getLastJoin());
 
+        // player counts have changed
+        serverAllocateDirtyTracker.markServerDirty(server.getId());
+
         log.atLevel(user.isHuman() ? Level.INFO : Level.DEBUG)
                 .addKeyValue("id", user.getId())
                 .addKeyValue("name", user.getName())
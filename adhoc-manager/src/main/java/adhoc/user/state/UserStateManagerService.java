@@ -22,8 +22,9 @@
 
 package adhoc.user.state;
 
-import adhoc.pawn.PawnEntity;
-import adhoc.pawn.PawnRepository;
+import adhoc.pawn.PawnDto;
+import adhoc.pawn.PawnStore;
+import adhoc.server.allocate.ServerAllocateDirtyTracker;
 import adhoc.user.UserEntity;
 import adhoc.user.UserRepository;
 import lombok.RequiredArgsConstructor;
@@ -45,7 +46,9 @@ import java.util.stream.Stream;
 public class UserStateManagerService {
 
     private final UserRepository userRepository;
-    private final PawnRepository pawnRepository;
+    private final PawnStore pawnStore;
+
+    private final ServerAllocateDirtyTracker serverAllocateDirtyTracker;
 
     /**
      * Update information about users which are seen in their desired server (we look for a pawn the user is controlling).
@@ -69,18 +72,21 @@ public class UserStateManagerService {
                     //.max(Comparator.comparing(Pawn::getSeen));
 
                     // see if there is a pawn for the user
-                    pawnRepository.findFirstByServerAndUserOrderBySeenDescIdDesc(user.getState().getServer(), user)
+                    pawnStore.findLatestPawnByServerIdAndUserId(user.getState().getServer().getId(), user.getId())
                             .ifPresent(pawn -> updateUserForPawn(user, pawn, now));
                 }
 
                 if (user.getState().getSeen() != null && user.getState().getSeen().isBefore(leaveUsersSeenBefore)) {
+                    // player counts have changed
+                    serverAllocateDirtyTracker.markServerDirty(user.getState().getServer().getId());
+
                     leaveUser(user);
                 }
             });
         }
     }
 
-    private static void updateUserForPawn(UserEntity user, PawnEntity pawn, LocalDateTime now) {
+    private static void updateUserForPawn(UserEntity user, PawnDto pawn, LocalDateTime now) {
         user.getState().setX(pawn.getX());
         user.getState().setY(pawn.getY());
         user.getState().setZ(pawn.getZ());
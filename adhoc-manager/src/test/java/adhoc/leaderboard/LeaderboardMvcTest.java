@@ -0,0 +1,108 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.leaderboard;
+
+import adhoc.AbstractManagerMvcTest;
+import adhoc.faction.FactionEntity;
+import adhoc.faction.FactionRepository;
+import adhoc.user.UserEntity;
+import adhoc.user.UserRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.assertj.MvcTestResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class LeaderboardMvcTest extends AbstractManagerMvcTest {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private FactionRepository factionRepository;
+    @Autowired
+    private LeaderboardService leaderboardService;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testGetFactionLeaderboard() throws Exception {
+
+        // ARRANGE
+
+        int factionIndex = entityManager.createQuery(
+                        "SELECT f.index FROM Faction f ORDER BY f.index DESC LIMIT 1", Integer.class)
+                .getSingleResult() + 1;
+        FactionEntity faction = new FactionEntity(factionIndex, "Faction 1", "#0000FF", 0);
+        faction = factionRepository.save(faction);
+
+        UserEntity user1 = userRepository.save(new UserEntity("LeaderboardUser1", "USER", faction, 20));
+        UserEntity user2 = userRepository.save(new UserEntity("LeaderboardUser2", "USER", faction, 30));
+        UserEntity user3 = userRepository.save(new UserEntity("LeaderboardUser3", "USER", faction, 10));
+
+        leaderboardService.rebuildLeaderboard();
+
+        // ACT
+
+        MvcTestResult result = mvc.get().uri("/adhoc_api/leaderboard?factionId=%d".formatted(faction.getId()))
+                .exchange();
+
+        // ASSERT
+
+        assertThat(result)
+                .hasStatusOk()
+                .hasContentType(MediaType.APPLICATION_JSON);
+
+        JsonNode leaderboard = objectMapper.readTree(result.getResponse().getContentAsString());
+        assertThat(leaderboard.size()).isEqualTo(3);
+        assertThat(leaderboard.valueStream().map(entry -> entry.get("userId").asLong()).toList())
+                .containsExactly(user2.getId(), user1.getId(), user3.getId());
+        assertThat(leaderboard.valueStream().map(entry -> entry.get("rank").asInt()).toList())
+                .containsExactly(1, 2, 3);
+        assertThat(leaderboard.get(0).get("userName").asString()).isEqualTo("LeaderboardUser2");
+        assertThat(leaderboard.get(0).get("factionId").asLong()).isEqualTo(faction.getId());
+    }
+
+    @Test
+    public void testGetLeaderboardOfUnknownFactionIsEmpty() throws Exception {
+
+        // ACT
+
+        MvcTestResult result = mvc.get().uri("/adhoc_api/leaderboard?factionId=%d".formatted(Long.MAX_VALUE))
+                .exchange();
+
+        // ASSERT
+
+        assertThat(result)
+                .hasStatusOk()
+                .hasContentType(MediaType.APPLICATION_JSON)
+                .bodyJson().isEqualTo(objectMapper.writeValueAsString(List.of()));
+    }
+}
@@ -0,0 +1,194 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.leaderboard;
+
+import adhoc.score.ScoreDecayUtils;
+import adhoc.system.properties.CoreProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class LeaderboardStoreTest {
+
+    private static final Long FACTION_1 = 1L;
+    private static final Long FACTION_2 = 2L;
+
+    private static final LocalDateTime YESTERDAY = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime TODAY = YESTERDAY.plusDays(1);
+
+    private LeaderboardStore leaderboardStore;
+
+    @BeforeEach
+    public void beforeEach() {
+        CoreProperties coreProperties = new CoreProperties();
+        ReflectionTestUtils.setField(coreProperties, "leaderboardSize", 2);
+
+        leaderboardStore = new LeaderboardStore(coreProperties);
+    }
+
+    @Test
+    public void testBoardsAreOrderedAndBounded() {
+
+        // ACT
+
+        leaderboardStore.offerEntry(entry(1L, FACTION_1, "10", TODAY));
+        leaderboardStore.offerEntry(entry(2L, FACTION_1, "30", TODAY));
+        leaderboardStore.offerEntry(entry(3L, FACTION_2, "20", TODAY));
+        leaderboardStore.offerEntry(entry(4L, FACTION_2, "5", TODAY));
+
+        // ASSERT
+
+        assertThat(userIds(leaderboardStore.getEntries(null))).containsExactly(2L, 3L);
+        assertThat(userIds(leaderboardStore.getEntries(FACTION_1))).containsExactly(2L, 1L);
+        assertThat(userIds(leaderboardStore.getEntries(FACTION_2))).containsExactly(3L, 4L);
+        assertThat(leaderboardStore.getEntries(3L)).isEmpty();
+    }
+
+    @Test
+    public void testTiesAreOrderedByHighestUserIdFirst() {
+
+        // ACT
+
+        leaderboardStore.offerEntry(entry(1L, FACTION_1, "10", TODAY));
+        leaderboardStore.offerEntry(entry(2L, FACTION_1, "10", TODAY));
+
+        // ASSERT
+
+        assertThat(userIds(leaderboardStore.getEntries(null))).containsExactly(2L, 1L);
+    }
+
+    @Test
+    public void testOfferedEntryReplacesTheUsersOldEntry() {
+
+        // ARRANGE
+
+        leaderboardStore.offerEntry(entry(1L, FACTION_1, "10", TODAY));
+        leaderboardStore.offerEntry(entry(2L, FACTION_1, "20", TODAY));
+
+        // ACT
+
+        leaderboardStore.offerEntry(entry(1L, FACTION_1, "30", TODAY));
+
+        // ASSERT
+
+        assertThat(userIds(leaderboardStore.getEntries(null))).containsExactly(1L, 2L);
+        assertThat(leaderboardStore.getEntries(null).getFirst().getScore()).isEqualByComparingTo("30");
+    }
+
+    @Test
+    public void testUserDroppedFromEveryBoardIsForgotten() {
+
+        // ARRANGE
+
+        leaderboardStore.offerEntry(entry(1L, FACTION_1, "10", TODAY));
+        leaderboardStore.offerEntry(entry(2L, FACTION_1, "20", TODAY));
+        leaderboardStore.offerEntry(entry(3L, FACTION_1, "30", TODAY));
+
+        // ACT
+
+        leaderboardStore.offerEntry(entry(1L, FACTION_1, "40", TODAY));
+
+        // ASSERT
+
+        assertThat(userIds(leaderboardStore.getEntries(null))).containsExactly(1L, 3L);
+        assertThat(userIds(leaderboardStore.getEntries(FACTION_1))).containsExactly(1L, 3L);
+    }
+
+    @Test
+    public void testUserMovingFactionLeavesTheOldFactionsBoard() {
+
+        // ARRANGE
+
+        leaderboardStore.offerEntry(entry(1L, FACTION_1, "10", TODAY));
+
+        // ACT
+
+        leaderboardStore.offerEntry(entry(1L, FACTION_2, "10", TODAY));
+
+        // ASSERT
+
+        assertThat(leaderboardStore.getEntries(FACTION_1)).isEmpty();
+        assertThat(userIds(leaderboardStore.getEntries(FACTION_2))).containsExactly(1L);
+    }
+
+    @Test
+    public void testEntriesAreRebasedToTheLatestNormalisedTime() {
+
+        // ARRANGE
+
+        // user 1's score is higher before the rebase but user 2's (rebased) score is higher after it
+        leaderboardStore.offerEntry(entry(1L, FACTION_1, "1000", YESTERDAY));
+        BigDecimal decayFactor = ScoreDecayUtils.decayFactor(YESTERDAY, TODAY);
+        BigDecimal user2Score = new BigDecimal("1000").multiply(decayFactor).multiply(BigDecimal.TEN);
+
+        // ACT
+
+        leaderboardStore.offerEntry(entry(2L, FACTION_1, user2Score.toPlainString(), TODAY));
+        // offered late (e.g. read before the rebase)
+        leaderboardStore.offerEntry(entry(3L, FACTION_1, "100", YESTERDAY));
+
+        // ASSERT
+
+        List<LeaderboardEntry> entries = leaderboardStore.getEntries(null);
+        assertThat(userIds(entries)).containsExactly(2L, 1L);
+        assertThat(entries).allMatch(entry -> entry.getScoreNormalised().equals(TODAY));
+        assertThat(entries.get(1).getScore()).isCloseTo(new BigDecimal("1000").multiply(decayFactor), within(new BigDecimal("1e-9")));
+    }
+
+    @Test
+    public void testReplaceEntries() {
+
+        // ARRANGE
+
+        leaderboardStore.offerEntry(entry(1L, FACTION_1, "10", TODAY));
+
+        // ACT
+
+        leaderboardStore.replaceEntries(
+                List.of(entry(2L, FACTION_1, "20", TODAY), entry(3L, FACTION_2, "30", TODAY)),
+                Map.of(FACTION_1, List.of(entry(2L, FACTION_1, "20", TODAY)),
+                        FACTION_2, List.of(entry(3L, FACTION_2, "30", TODAY))));
+
+        // ASSERT
+
+        assertThat(userIds(leaderboardStore.getEntries(null))).containsExactly(3L, 2L);
+        assertThat(userIds(leaderboardStore.getEntries(FACTION_1))).containsExactly(2L);
+        assertThat(userIds(leaderboardStore.getEntries(FACTION_2))).containsExactly(3L);
+    }
+
+    private static LeaderboardEntry entry(Long userId, Long factionId, String score, LocalDateTime scoreNormalised) {
+        return new LeaderboardEntry(userId, "User " + userId, true, factionId, new BigDecimal(score), scoreNormalised);
+    }
+
+    private static List<Long> userIds(List<LeaderboardEntry> entries) {
+        return entries.stream().map(LeaderboardEntry::getUserId).toList();
+    }
+}
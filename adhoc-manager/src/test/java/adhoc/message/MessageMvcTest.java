@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.message;
+
+import adhoc.AbstractManagerMvcTest;
+import adhoc.faction.FactionRepository;
+import adhoc.system.auth.AdhocUserDetails;
+import adhoc.universe.UniverseRepository;
+import adhoc.universe.UniverseService;
+import adhoc.user.UserEntity;
+import adhoc.user.UserRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.assertj.MvcTestResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
+
+public class MessageMvcTest extends AbstractManagerMvcTest {
+
+    @Autowired
+    private MessageRepository messageRepository;
+    @Autowired
+    private UniverseRepository universeRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private FactionRepository factionRepository;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testGetMessagesScroll() throws Exception {
+
+        // ARRANGE
+
+        UserEntity user = userRepository.save(new UserEntity("MessageUser", "USER", factionRepository.findByIndex(0).orElseThrow(), 0));
+        UserEntity otherUser = userRepository.save(new UserEntity("OtherMessageUser", "USER", factionRepository.findByIndex(0).orElseThrow(), 0));
+
+        MessageEntity message1 = saveMessage(user, "Message 1");
+        MessageEntity message2 = saveMessage(user, "Message 2");
+        MessageEntity message3 = saveMessage(user, "Message 3");
+        // newest, but not for this user
+        saveMessage(otherUser, "Other Message");
+
+        AdhocUserDetails userDetails = new AdhocUserDetails(user.getName(), user.getPassword(), true, user.getAuthorities(), user.getId());
+
+        // ACT
+
+        MvcTestResult firstResult = mvc.get().uri("/adhoc_api/messages/scroll?size=2")
+                .with(user(userDetails))
+                .exchange();
+
+        JsonNode firstPage = objectMapper.readTree(firstResult.getResponse().getContentAsString());
+        String after = firstPage.get("after").asString();
+
+        MvcTestResult nextResult = mvc.get().uri("/adhoc_api/messages/scroll?size=2&after=%s".formatted(after))
+                .with(user(userDetails))
+                .exchange();
+
+        // ASSERT
+
+        assertThat(firstResult)
+                .hasStatusOk()
+                .hasContentType(MediaType.APPLICATION_JSON);
+
+        assertThat(firstPage.get("content").valueStream().map(message -> message.get("id").asLong()).toList())
+                .containsExactly(message3.getId(), message2.getId());
+        assertThat(after).isEqualTo(message2.getId().toString());
+
+        assertThat(nextResult)
+                .hasStatusOk()
+                .hasContentType(MediaType.APPLICATION_JSON);
+
+        JsonNode nextPage = objectMapper.readTree(nextResult.getResponse().getContentAsString());
+        assertThat(nextPage.get("content").get(0).get("id").asLong()).isEqualTo(message1.getId());
+        // the rest are global messages (e.g. the universe being initialized)
+        assertThat(nextPage.get("content").valueStream().skip(1).map(message -> message.hasNonNull("userId")).toList())
+                .doesNotContain(true);
+    }
+
+    private MessageEntity saveMessage(UserEntity user, String text) {
+        MessageEntity message = new MessageEntity();
+        message.setUniverse(universeRepository.getReferenceById(UniverseService.UNIVERSE_ID));
+        message.setTimestamp(LocalDateTime.now());
+        message.setText(text);
+        message.setUser(user);
+        return messageRepository.save(message);
+    }
+}
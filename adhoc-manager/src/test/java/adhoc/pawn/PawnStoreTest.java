@@ -0,0 +1,126 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.pawn;
+
+import adhoc.system.properties.CoreProperties;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class PawnStoreTest {
+
+    private static final Long SERVER_ID = 1L;
+
+    private static final LocalDateTime SEEN = LocalDateTime.of(2026, 1, 1, 12, 0);
+
+    private final PawnStore pawnStore = new PawnStore(new CoreProperties());
+
+    @Test
+    public void testUpdateServerPawnsAppliesDeltaToPreviousPawns() {
+
+        // ARRANGE
+
+        PawnDto pawn1 = pawn(UUID.randomUUID(), 0);
+        PawnDto pawn2 = pawn(UUID.randomUUID(), 0);
+        PawnDto pawn3 = pawn(UUID.randomUUID(), 0);
+        pawnStore.putServerPawns(SERVER_ID, List.of(pawn1, pawn2, pawn3), SEEN);
+        pawnStore.takeDirtyServerPawns();
+
+        PawnDto movedPawn2 = pawn(pawn2.getUuid(), 10);
+        PawnDto addedPawn4 = pawn(UUID.randomUUID(), 20);
+
+        // ACT
+
+        pawnStore.updateServerPawns(SERVER_ID, List.of(movedPawn2, addedPawn4), List.of(pawn3.getUuid()), SEEN.plusSeconds(1));
+
+        // ASSERT
+
+        assertThat(pawnStore.getServerPawns().get(SERVER_ID)).containsExactly(pawn1, movedPawn2, addedPawn4);
+        assertThat(pawnStore.findServerSeen(SERVER_ID)).contains(SEEN.plusSeconds(1));
+        assertThat(pawnStore.takeDirtyServerPawns()).containsOnlyKeys(SERVER_ID);
+    }
+
+    @Test
+    public void testUpdateServerPawnsWithoutPreviousPawns() {
+
+        // ARRANGE
+
+        PawnDto pawn1 = pawn(UUID.randomUUID(), 0);
+
+        // ACT
+
+        pawnStore.updateServerPawns(SERVER_ID, List.of(pawn1), List.of(UUID.randomUUID()), SEEN);
+
+        // ASSERT
+
+        assertThat(pawnStore.getServerPawns().get(SERVER_ID)).containsExactly(pawn1);
+    }
+
+    @Test
+    public void testUpdateServerPawnsForgetsIdsOfRemovedPawnsOnly() {
+
+        // ARRANGE
+
+        PawnDto pawn1 = pawn(UUID.randomUUID(), 0);
+        PawnDto pawn2 = pawn(UUID.randomUUID(), 0);
+        PawnDto pawn3 = pawn(UUID.randomUUID(), 0);
+        pawnStore.assignPawnId(pawn1.getUuid(), () -> 101L);
+        pawnStore.assignPawnId(pawn2.getUuid(), () -> 102L);
+        pawnStore.assignPawnId(pawn3.getUuid(), () -> 103L);
+        pawnStore.putServerPawns(SERVER_ID, List.of(pawn1, pawn2, pawn3), SEEN);
+
+        // ACT
+
+        // pawn 3 is both removed and (re)added in the same delta so it keeps its ID
+        pawnStore.updateServerPawns(SERVER_ID, List.of(pawn(pawn3.getUuid(), 30)), List.of(pawn2.getUuid(), pawn3.getUuid()), SEEN);
+
+        // ASSERT
+
+        assertThat(pawnStore.findPawnId(pawn1.getUuid())).contains(101L);
+        assertThat(pawnStore.findPawnId(pawn2.getUuid())).isEmpty();
+        assertThat(pawnStore.findPawnId(pawn3.getUuid())).contains(103L);
+        assertThat(pawnStore.assignPawnId(pawn2.getUuid(), () -> 104L)).isEqualTo(104L);
+    }
+
+    private static PawnDto pawn(UUID uuid, int x) {
+        return PawnDto.builder()
+                .uuid(uuid)
+                .serverId(SERVER_ID)
+                .index(0)
+                .name("Pawn")
+                .description("Pawn")
+                .x(BigDecimal.valueOf(x))
+                .y(BigDecimal.ZERO)
+                .z(BigDecimal.ZERO)
+                .pitch(BigDecimal.ZERO)
+                .yaw(BigDecimal.ZERO)
+                .human(true)
+                .seen(SEEN)
+                .build();
+    }
+}
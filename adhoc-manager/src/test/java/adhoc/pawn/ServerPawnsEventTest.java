@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.pawn;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ServerPawnsEventTest {
+
+    private static final Long SERVER_ID = 1L;
+
+    private final PawnDto pawn1 = pawn(UUID.randomUUID(), 0);
+    private final PawnDto pawn2 = pawn(UUID.randomUUID(), 0);
+    private final PawnDto pawn3 = pawn(UUID.randomUUID(), 0);
+
+    @Test
+    public void testLaterFullReportReplacesEarlierReport() {
+
+        // ARRANGE
+
+        ServerPawnsEvent earlier = delta(List.of(pawn1), List.of(pawn2.getUuid()));
+        ServerPawnsEvent later = full(List.of(pawn3));
+
+        // ACT
+
+        ServerPawnsEvent conflated = (ServerPawnsEvent) earlier.conflate(later);
+
+        // ASSERT
+
+        assertThat(conflated).isSameAs(later);
+    }
+
+    @Test
+    public void testLaterDeltaIsAppliedToEarlierFullReport() {
+
+        // ARRANGE
+
+        ServerPawnsEvent earlier = full(List.of(pawn1, pawn2, pawn3));
+        PawnDto movedPawn2 = pawn(pawn2.getUuid(), 10);
+        ServerPawnsEvent later = delta(List.of(movedPawn2), List.of(pawn3.getUuid()));
+
+        // ACT
+
+        ServerPawnsEvent conflated = (ServerPawnsEvent) earlier.conflate(later);
+
+        // ASSERT
+
+        // still a full report so there is nothing to remove
+        assertThat(conflated.getDelta()).isNotEqualTo(Boolean.TRUE);
+        assertThat(conflated.getPawns()).containsExactly(pawn1, movedPawn2);
+        assertThat(conflated.getRemovedPawnUuids()).isNull();
+    }
+
+    @Test
+    public void testLaterDeltaIsCombinedWithEarlierDelta() {
+
+        // ARRANGE
+
+        ServerPawnsEvent earlier = delta(List.of(pawn1), List.of(pawn2.getUuid()));
+        ServerPawnsEvent later = delta(List.of(pawn2), List.of(pawn1.getUuid(), pawn3.getUuid()));
+
+        // ACT
+
+        ServerPawnsEvent conflated = (ServerPawnsEvent) earlier.conflate(later);
+
+        // ASSERT
+
+        assertThat(conflated.getDelta()).isTrue();
+        // pawn 2 was removed and then added back, pawn 1 was added and then removed
+        assertThat(conflated.getPawns()).containsExactly(pawn2);
+        assertThat(conflated.getRemovedPawnUuids()).containsExactly(pawn1.getUuid(), pawn3.getUuid());
+    }
+
+    @Test
+    public void testOnlyFullReportsAreSupersedable() {
+        assertThat(full(List.of(pawn1)).isSupersedable()).isTrue();
+        assertThat(delta(List.of(pawn1), List.of()).isSupersedable()).isFalse();
+    }
+
+    private static ServerPawnsEvent full(List<PawnDto> pawns) {
+        return ServerPawnsEvent.builder()
+                .serverId(SERVER_ID)
+                .pawns(pawns)
+                .build();
+    }
+
+    private static ServerPawnsEvent delta(List<PawnDto> pawns, List<UUID> removedPawnUuids) {
+        return ServerPawnsEvent.builder()
+                .serverId(SERVER_ID)
+                .pawns(pawns)
+                .delta(true)
+                .removedPawnUuids(removedPawnUuids)
+                .build();
+    }
+
+    private static PawnDto pawn(UUID uuid, int x) {
+        return PawnDto.builder()
+                .uuid(uuid)
+                .serverId(SERVER_ID)
+                .x(BigDecimal.valueOf(x))
+                .build();
+    }
+}
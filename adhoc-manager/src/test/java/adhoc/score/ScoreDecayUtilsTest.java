@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.score;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class ScoreDecayUtilsTest {
+
+    private static final LocalDateTime NORMALISED = LocalDateTime.of(2026, 1, 1, 0, 0);
+
+    @Test
+    public void testNormalisedTimeIsStartOfDay() {
+        assertThat(ScoreDecayUtils.normalisedTime(NORMALISED.plusHours(13).plusMinutes(5))).isEqualTo(NORMALISED);
+        assertThat(ScoreDecayUtils.normalisedTime(NORMALISED)).isEqualTo(NORMALISED);
+    }
+
+    @Test
+    public void testDecayFactor() {
+        assertThat(ScoreDecayUtils.decayFactor(NORMALISED, NORMALISED)).isEqualByComparingTo("1");
+        assertThat(ScoreDecayUtils.decayFactor(NORMALISED, NORMALISED.plusSeconds(10)))
+                .isCloseTo(new BigDecimal("0.999"), within(new BigDecimal("1e-12")));
+        assertThat(ScoreDecayUtils.decayFactor(NORMALISED, NORMALISED.plusSeconds(20)))
+                .isCloseTo(new BigDecimal("0.998001"), within(new BigDecimal("1e-12")));
+    }
+
+    @Test
+    public void testNormalisedScoreDecaysBackToTheOriginalScore() {
+
+        // ARRANGE
+
+        LocalDateTime now = NORMALISED.plusHours(6);
+
+        // ACT
+
+        BigDecimal normalisedScore = ScoreDecayUtils.normalisedScore(new BigDecimal("100"), NORMALISED, now);
+
+        // ASSERT
+
+        assertThat(normalisedScore).isGreaterThan(new BigDecimal("100"));
+        assertThat(ScoreDecayUtils.decayedScore(normalisedScore, NORMALISED, now))
+                .isCloseTo(new BigDecimal("100"), within(new BigDecimal("1e-9")));
+    }
+
+    @Test
+    public void testDecayedScoresKeepTheOrderOfTheStoredScores() {
+
+        // ARRANGE
+
+        LocalDateTime now = NORMALISED.plusHours(20);
+
+        // ACT
+
+        BigDecimal lowerScore = ScoreDecayUtils.decayedScore(new BigDecimal("10"), NORMALISED, now);
+        BigDecimal higherScore = ScoreDecayUtils.decayedScore(new BigDecimal("11"), NORMALISED, now);
+
+        // ASSERT
+
+        assertThat(higherScore).isGreaterThan(lowerScore);
+    }
+}
@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.score;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class ScoreFlushServiceTest {
+
+    private static final LocalDateTime YESTERDAY = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime TODAY = YESTERDAY.plusDays(1);
+
+    @Test
+    public void testRebaseScoresCombinesIncreasesNormalisedToTheCurrentTime() {
+
+        // ARRANGE
+
+        Map<LocalDateTime, Map<Long, BigDecimal>> scores = Map.of(
+                YESTERDAY, Map.of(1L, new BigDecimal("1000"), 2L, new BigDecimal("2000")),
+                TODAY, Map.of(1L, new BigDecimal("3")));
+
+        // ACT
+
+        Map<Long, BigDecimal> rebasedScores = ScoreFlushService.rebaseScores(scores, TODAY);
+
+        // ASSERT
+
+        BigDecimal decayFactor = ScoreDecayUtils.decayFactor(YESTERDAY, TODAY);
+        assertThat(rebasedScores).containsOnlyKeys(1L, 2L);
+        assertThat(rebasedScores.get(1L)).isCloseTo(new BigDecimal("1000").multiply(decayFactor).add(new BigDecimal("3")), within(new BigDecimal("1e-9")));
+        assertThat(rebasedScores.get(2L)).isCloseTo(new BigDecimal("2000").multiply(decayFactor), within(new BigDecimal("1e-9")));
+    }
+}
@@ -0,0 +1,150 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.score;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class ScoreStoreTest {
+
+    private static final LocalDateTime YESTERDAY = LocalDateTime.of(2026, 1, 1, 0, 0);
+    private static final LocalDateTime TODAY = YESTERDAY.plusDays(1);
+
+    private final ScoreStore scoreStore = new ScoreStore();
+
+    @Test
+    public void testTakeSumsIncreasesByNormalisedTime() {
+
+        // ARRANGE
+
+        scoreStore.addUserScore(1L, new BigDecimal("1.5"), TODAY);
+        scoreStore.addUserScore(1L, new BigDecimal("2.25"), TODAY);
+        scoreStore.addUserScore(2L, new BigDecimal("3"), TODAY);
+        scoreStore.addUserScore(1L, new BigDecimal("4"), YESTERDAY);
+        scoreStore.addFactionScore(1L, new BigDecimal("5"), TODAY);
+
+        // ACT
+
+        Map<LocalDateTime, Map<Long, BigDecimal>> userScores = scoreStore.takeUserScores();
+
+        // ASSERT
+
+        assertThat(userScores).containsOnlyKeys(TODAY, YESTERDAY);
+        assertThat(userScores.get(TODAY)).containsOnlyKeys(1L, 2L);
+        assertThat(userScores.get(TODAY).get(1L)).isEqualByComparingTo("3.75");
+        assertThat(userScores.get(TODAY).get(2L)).isEqualByComparingTo("3");
+        assertThat(userScores.get(YESTERDAY)).containsOnlyKeys(1L);
+        assertThat(userScores.get(YESTERDAY).get(1L)).isEqualByComparingTo("4");
+
+        // user and faction increases are separate
+        assertThat(scoreStore.takeFactionScores().get(TODAY).get(1L)).isEqualByComparingTo("5");
+    }
+
+    @Test
+    public void testTakeOnlyTakesWhatWasAddedSinceTheLastTake() {
+
+        // ARRANGE
+
+        scoreStore.addUserScore(1L, BigDecimal.ONE, TODAY);
+        scoreStore.takeUserScores();
+
+        // ACT
+
+        Map<LocalDateTime, Map<Long, BigDecimal>> nothingAdded = scoreStore.takeUserScores();
+        scoreStore.addUserScore(1L, BigDecimal.valueOf(2), TODAY);
+        Map<LocalDateTime, Map<Long, BigDecimal>> added = scoreStore.takeUserScores();
+
+        // ASSERT
+
+        assertThat(nothingAdded).isEmpty();
+        assertThat(added.get(TODAY).get(1L)).isEqualByComparingTo("2");
+    }
+
+    @Test
+    public void testRestorePutsBackTakenIncreases() {
+
+        // ARRANGE
+
+        scoreStore.addUserScore(1L, BigDecimal.ONE, YESTERDAY);
+        scoreStore.addUserScore(1L, BigDecimal.valueOf(2), TODAY);
+        Map<LocalDateTime, Map<Long, BigDecimal>> taken = scoreStore.takeUserScores();
+
+        // added while the taken increases were being written
+        scoreStore.addUserScore(1L, BigDecimal.TEN, TODAY);
+
+        // ACT
+
+        scoreStore.restoreUserScores(taken);
+
+        // ASSERT
+
+        Map<LocalDateTime, Map<Long, BigDecimal>> userScores = scoreStore.takeUserScores();
+        assertThat(userScores.get(YESTERDAY).get(1L)).isEqualByComparingTo("1");
+        assertThat(userScores.get(TODAY).get(1L)).isEqualByComparingTo("12");
+    }
+
+    @Test
+    public void testLateIncreaseForEarlierNormalisedTimeIsKept() {
+
+        // ARRANGE
+
+        scoreStore.addUserScore(1L, BigDecimal.ONE, YESTERDAY);
+        scoreStore.addUserScore(1L, BigDecimal.ONE, TODAY);
+        scoreStore.takeUserScores();
+
+        // ACT
+
+        // e.g. from a transaction which started before midnight but committed after the take
+        scoreStore.addUserScore(2L, BigDecimal.valueOf(2), YESTERDAY);
+
+        // ASSERT
+
+        Map<LocalDateTime, Map<Long, BigDecimal>> userScores = scoreStore.takeUserScores();
+        assertThat(userScores).containsOnlyKeys(YESTERDAY);
+        assertThat(userScores.get(YESTERDAY).get(2L)).isEqualByComparingTo("2");
+    }
+
+    @Test
+    public void testRemoveStopsCountingForUnknownIds() {
+
+        // ARRANGE
+
+        scoreStore.addUserScore(1L, BigDecimal.ONE, TODAY);
+        scoreStore.addUserScore(2L, BigDecimal.valueOf(2), TODAY);
+
+        // ACT
+
+        scoreStore.removeUserScores(List.of(1L));
+
+        // ASSERT
+
+        Map<LocalDateTime, Map<Long, BigDecimal>> userScores = scoreStore.takeUserScores();
+        assertThat(userScores.get(TODAY)).containsOnlyKeys(2L);
+    }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.system.artemis;
+
+import org.apache.activemq.artemis.api.core.TransportConfiguration;
+import org.apache.activemq.artemis.core.config.impl.ConfigurationImpl;
+import org.apache.activemq.artemis.core.remoting.impl.invm.InVMAcceptorFactory;
+import org.apache.activemq.artemis.core.remoting.impl.invm.TransportConstants;
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class AdhocArtemisBrokerMessageHandlerTest {
+
+    private static final int SERVER_ID = 99;
+    private static final String SESSION_ID = "session1";
+
+    private final BlockingQueue<Message<?>> clientMessages = new LinkedBlockingQueue<>();
+
+    private AdhocArtemisBrokerMessageHandler handler;
+    private EmbeddedActiveMQ embeddedBroker;
+
+    @BeforeEach
+    public void beforeEach() {
+        handler = new AdhocArtemisBrokerMessageHandler(
+                new ExecutorSubscribableChannel(), (message, timeout) -> clientMessages.add(message), new ExecutorSubscribableChannel(),
+                List.of("/queue", "/topic"), SERVER_ID);
+    }
+
+    @AfterEach
+    public void afterEach() throws Exception {
+        if (handler.isRunning()) {
+            handler.stop();
+        }
+        if (embeddedBroker != null) {
+            embeddedBroker.stop();
+        }
+    }
+
+    @Test
+    public void testConnectWithoutTaskSchedulerOffersNoHeartbeat() throws Exception {
+        handler.setHeartbeatValue(new long[]{10000, 10000});
+
+        handler.handleMessageInternal(connect(20000, 20000));
+
+        Message<?> connectAck = clientMessages.poll(1, TimeUnit.SECONDS);
+        assertThat(SimpMessageHeaderAccessor.getMessageType(connectAck.getHeaders())).isEqualTo(SimpMessageType.CONNECT_ACK);
+        assertThat(SimpMessageHeaderAccessor.getHeartbeat(connectAck.getHeaders())).containsExactly(0, 0);
+    }
+
+    @Test
+    public void testConnectOffersHeartbeat() throws Exception {
+        handler.setHeartbeatValue(new long[]{10000, 10000});
+        handler.setTaskScheduler(new ThreadPoolTaskScheduler());
+
+        handler.handleMessageInternal(connect(20000, 20000));
+
+        Message<?> connectAck = clientMessages.poll(1, TimeUnit.SECONDS);
+        assertThat(SimpMessageHeaderAccessor.getMessageType(connectAck.getHeaders())).isEqualTo(SimpMessageType.CONNECT_ACK);
+        assertThat(SimpMessageHeaderAccessor.getHeartbeat(connectAck.getHeaders())).containsExactly(10000, 10000);
+    }
+
+    @Test
+    public void testHeartbeatSentToClientWantingHeartbeats() throws Exception {
+        handler.setHeartbeatValue(new long[]{1, 0});
+        handler.setTaskScheduler(new ThreadPoolTaskScheduler());
+
+        handler.handleMessageInternal(connect(0, 1));
+        clientMessages.poll(1, TimeUnit.SECONDS);
+
+        Thread.sleep(10);
+        handler.checkHeartbeats();
+
+        Message<?> heartbeat = clientMessages.poll(1, TimeUnit.SECONDS);
+        assertThat(SimpMessageHeaderAccessor.getMessageType(heartbeat.getHeaders())).isEqualTo(SimpMessageType.HEARTBEAT);
+        assertThat(SimpMessageHeaderAccessor.getSessionId(heartbeat.getHeaders())).isEqualTo(SESSION_ID);
+    }
+
+    @Test
+    public void testNoHeartbeatSentToClientNotWantingHeartbeats() throws Exception {
+        handler.setHeartbeatValue(new long[]{1, 1});
+        handler.setTaskScheduler(new ThreadPoolTaskScheduler());
+
+        handler.handleMessageInternal(connect(0, 0));
+        clientMessages.poll(1, TimeUnit.SECONDS);
+
+        Thread.sleep(10);
+        handler.checkHeartbeats();
+
+        assertThat(clientMessages).isEmpty();
+    }
+
+    @Test
+    public void testClientDisconnectedWhenHeartbeatsStop() throws Exception {
+        handler.setHeartbeatValue(new long[]{0, 1});
+        handler.setTaskScheduler(new ThreadPoolTaskScheduler());
+
+        handler.handleMessageInternal(connect(1, 0));
+        clientMessages.poll(1, TimeUnit.SECONDS);
+
+        Thread.sleep(10);
+        handler.checkHeartbeats();
+
+        Message<?> disconnectAck = clientMessages.poll(1, TimeUnit.SECONDS);
+        assertThat(SimpMessageHeaderAccessor.getMessageType(disconnectAck.getHeaders())).isEqualTo(SimpMessageType.DISCONNECT_ACK);
+        assertThat(SimpMessageHeaderAccessor.getSessionId(disconnectAck.getHeaders())).isEqualTo(SESSION_ID);
+
+        // no longer checked once disconnected
+        handler.checkHeartbeats();
+        assertThat(clientMessages).isEmpty();
+    }
+
+    @Test
+    public void testSubscribedClientReceivesMessagesInOrder() throws Exception {
+        startEmbeddedBroker();
+        handler.start();
+
+        handler.handleMessage(connect(0, 0));
+        assertThat(SimpMessageHeaderAccessor.getMessageType(clientMessages.poll(1, TimeUnit.SECONDS).getHeaders()))
+                .isEqualTo(SimpMessageType.CONNECT_ACK);
+
+        SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+        subscribe.setSessionId(SESSION_ID);
+        subscribe.setSubscriptionId("sub1");
+        subscribe.setDestination("/topic/events");
+        handler.handleMessage(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+
+        for (int i = 0; i < 10; i++) {
+            StompHeaderAccessor send = StompHeaderAccessor.create(StompCommand.SEND);
+            send.setDestination("/topic/events");
+            send.setContentType(MimeTypeUtils.APPLICATION_JSON);
+            send.setNativeHeader("adhoc-sequence", Integer.toString(i));
+            handler.handleMessage(MessageBuilder.createMessage(("{\"index\":" + i + "}").getBytes(StandardCharsets.UTF_8), send.getMessageHeaders()));
+        }
+
+        for (int i = 0; i < 10; i++) {
+            Message<?> message = clientMessages.poll(5, TimeUnit.SECONDS);
+            assertThat(message).isNotNull();
+
+            StompHeaderAccessor accessor = StompHeaderAccessor.wrap(message);
+            assertThat(accessor.getMessageType()).isEqualTo(SimpMessageType.MESSAGE);
+            assertThat(accessor.getSessionId()).isEqualTo(SESSION_ID);
+            assertThat(accessor.getSubscriptionId()).isEqualTo("sub1");
+            assertThat(accessor.getDestination()).isEqualTo("/topic/events");
+            assertThat(accessor.getContentType()).isEqualTo(MimeTypeUtils.APPLICATION_JSON);
+            assertThat(accessor.getFirstNativeHeader("adhoc-sequence")).isEqualTo(Integer.toString(i));
+            assertThat(new String((byte[]) message.getPayload(), StandardCharsets.UTF_8)).isEqualTo("{\"index\":" + i + "}");
+        }
+    }
+
+    private void startEmbeddedBroker() throws Exception {
+        embeddedBroker = new EmbeddedActiveMQ();
+        embeddedBroker.setConfiguration(new ConfigurationImpl()
+                .setPersistenceEnabled(false)
+                .setSecurityEnabled(false)
+                .addAcceptorConfiguration(new TransportConfiguration(
+                        InVMAcceptorFactory.class.getName(), Map.of(TransportConstants.SERVER_ID_PROP_NAME, SERVER_ID))));
+        embeddedBroker.start();
+    }
+
+    private static Message<byte[]> connect(long clientSendInterval, long clientReceiveInterval) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+        accessor.setSessionId(SESSION_ID);
+        accessor.setHeader(SimpMessageHeaderAccessor.HEART_BEAT_HEADER, new long[]{clientSendInterval, clientReceiveInterval});
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2022-2026 SpeculativeCoder (https://github.com/SpeculativeCoder)
+ *
+ * Permission is hereby granted, free of charge, to any person obtaining a copy
+ * of this software and associated documentation files (the "Software"), to deal
+ * in the Software without restriction, including without limitation the rights
+ * to use, copy, modify, merge, publish, distribute, sublicense, and/or sell
+ * copies of the Software, and to permit persons to whom the Software is
+ * furnished to do so, subject to the following conditions:
+ *
+ * The above copyright notice and this permission notice shall be included in all
+ * copies or substantial portions of the Software.
+ *
+ * THE SOFTWARE IS PROVIDED "AS IS", WITHOUT WARRANTY OF ANY KIND, EXPRESS OR
+ * IMPLIED, INCLUDING BUT NOT LIMITED TO THE WARRANTIES OF MERCHANTABILITY,
+ * FITNESS FOR A PARTICULAR PURPOSE AND NONINFRINGEMENT. IN NO EVENT SHALL THE
+ * AUTHORS OR COPYRIGHT HOLDERS BE LIABLE FOR ANY CLAIM, DAMAGES OR OTHER
+ * LIABILITY, WHETHER IN AN ACTION OF CONTRACT, TORT OR OTHERWISE, ARISING FROM,
+ * OUT OF OR IN CONNECTION WITH THE SOFTWARE OR THE USE OR OTHER DEALINGS IN THE
+ * SOFTWARE.
+ */
+
+package adhoc.user;
+
+import adhoc.AbstractManagerMvcTest;
+import adhoc.faction.FactionEntity;
+import adhoc.faction.FactionRepository;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.assertj.MvcTestResult;
+import tools.jackson.databind.JsonNode;
+import tools.jackson.databind.ObjectMapper;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+public class UserMvcTest extends AbstractManagerMvcTest {
+
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private FactionRepository factionRepository;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    public void testGetUsersScroll() throws Exception {
+
+        // ARRANGE
+
+        int factionIndex = entityManager.createQuery(
+                        "SELECT f.index FROM Faction f ORDER BY f.index DESC LIMIT 1", Integer.class)
+                .getSingleResult() + 1;
+        FactionEntity faction = new FactionEntity(factionIndex, "Faction 1", "#0000FF", 0);
+        faction = factionRepository.save(faction);
+
+        // higher scores than any other test's users so these are the first page
+        UserEntity user1 = userRepository.save(new UserEntity("ScrollUser1", "USER", faction, 1000003));
+        UserEntity user2 = userRepository.save(new UserEntity("ScrollUser2", "USER", faction, 1000002));
+        UserEntity user3 = userRepository.save(new UserEntity("ScrollUser3", "USER", faction, 1000001));
+
+        // ACT
+
+        MvcTestResult firstResult = mvc.get().uri("/adhoc_api/users/scroll?size=2")
+                .exchange();
+
+        JsonNode firstPage = objectMapper.readTree(firstResult.getResponse().getContentAsString());
+        String after = firstPage.get("after").asString();
+
+        MvcTestResult nextResult = mvc.get().uri("/adhoc_api/users/scroll?size=2&after=%s"
+                        .formatted(URLEncoder.encode(after, StandardCharsets.UTF_8)))
+                .exchange();
+
+        // ASSERT
+
+        assertThat(firstResult)
+                .hasStatusOk()
+                .hasContentType(MediaType.APPLICATION_JSON);
+
+        assertThat(firstPage.get("content").valueStream().map(user -> user.get("id").asLong()).toList())
+                .containsExactly(user1.getId(), user2.getId());
+        // the stored score, ID and normalised time of the last user
+        assertThat(after).isEqualTo("%s:%d:%s".formatted(
+                user2.getScore().toPlainString(), user2.getId(), user2.getScoreNormalised()));
+
+        assertThat(nextResult)
+                .hasStatusOk()
+                .hasContentType(MediaType.APPLICATION_JSON);
+
+        JsonNode nextPage = objectMapper.readTree(nextResult.getResponse().getContentAsString());
+        assertThat(nextPage.get("content").get(0).get("id").asLong()).isEqualTo(user3.getId());
+    }
+
+    @Test
+    public void testGetUsersScrollWithBadCursor() {
+
+        // ACT
+
+        MvcTestResult result = mvc.get().uri("/adhoc_api/users/scroll?after=123")
+                .exchange();
+
+        // ASSERT
+
+        assertThat(result).hasStatus4xxClientError();
+    }
+}